@@ -0,0 +1,154 @@
+package com.example.surveyapp.benchmark;
+
+import com.example.surveyapp.model.User;
+import com.example.surveyapp.repository.VoteRepository;
+import com.example.surveyapp.service.SurveyService;
+import com.example.surveyapp.service.VoteJournal;
+import com.example.surveyapp.service.VoteJournalApplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Oy pusulası alımı: doğrudan veritabanına yazma ile oy günlüğü (vote.journal.enabled) karşılaştırması.
+ * <p>
+ * Günlük modunda süre, pusulanın günlüğe yazılıp diske indirilmesine kadardır; veritabanına
+ * işleme, uygulamadaki zamanlayıcının yerine burada bir arka plan thread'i tarafından yapılır.
+ * Ölçüm sonunda kalan kayıtlar işlenir ve vote tablosundaki satır sayısı verilen oylarla
+ * karşılaştırılır; tutmazsa deneme hatayla biter. Eşzamanlı oy verenler diske indirmelerin gruplanmasını da ölçer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+public class BallotIngestBenchmark {
+
+    private static final String JOURNAL_DIR = "target/bench-vote-journal";
+
+    @Param("20")
+    public int surveys;
+
+    @Param("5")
+    public int questionsPerSurvey;
+
+    @Param("4")
+    public int optionsPerQuestion;
+
+    @Param("50000")
+    public int freshVoters;
+
+    private AnnotationConfigApplicationContext context;
+    private SurveyService surveyService;
+    private BenchmarkData data;
+    private Thread applier;
+    private volatile boolean running;
+
+    private final AtomicLong ballotSequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        deleteJournal();
+        context = new AnnotationConfigApplicationContext(BenchmarkConfig.class);
+        surveyService = context.getBean(SurveyService.class);
+        data = BenchmarkData.seed(context, surveys, questionsPerSurvey, optionsPerQuestion, 0, freshVoters);
+
+        if (context.getBean(VoteJournal.class).isEnabled()) {
+            VoteJournalApplier journalApplier = context.getBean(VoteJournalApplier.class);
+            running = true;
+            applier = new Thread(() -> {
+                while (running) {
+                    journalApplier.drain();
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "vote-journal-applier");
+            applier.setDaemon(true);
+            applier.start();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException, IOException {
+        if (applier != null) {
+            running = false;
+            applier.join();
+            context.getBean(VoteJournalApplier.class).drain();
+        }
+        long expected = Math.min(ballotSequence.get(), (long) surveys * freshVoters) * questionsPerSurvey;
+        long recorded = context.getBean(VoteRepository.class).count();
+        context.close();
+        deleteJournal();
+        // Eksik veya fazla satır varsa deneme JMH sonuçlarında hatalı olarak raporlanır
+        if (recorded != expected) {
+            throw new IllegalStateException("Beklenen oy satırı: " + expected + ", kaydedilen: " + recorded
+                    + " (gönderilen pusula: " + ballotSequence.get() + ")");
+        }
+    }
+
+    @Benchmark
+    @Fork(1)
+    public void submitBallotDirect() {
+        submitBallot();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Dvote.journal.enabled=true", "-Dvote.journal.dir=" + JOURNAL_DIR})
+    public void submitBallotJournaled() {
+        submitBallot();
+    }
+
+    private void submitBallot() {
+        long sequence = ballotSequence.getAndIncrement();
+        int surveyIndex = (int) (sequence % surveys);
+        Long surveyId = data.getSurveyIds().get(surveyIndex);
+        User voter = data.getFreshVoters().get((int) (sequence / surveys % freshVoters));
+
+        Map<Long, Long> ballot = new LinkedHashMap<>();
+        int first = surveyIndex * questionsPerSurvey;
+        for (int q = first; q < first + questionsPerSurvey; q++) {
+            long[] options = data.getOptionIds().get(q);
+            ballot.put(data.getQuestionIds().get(q), options[(int) (sequence % options.length)]);
+        }
+        surveyService.submitBallot(surveyId, ballot, voter.getId());
+    }
+
+    private static void deleteJournal() throws IOException {
+        Path dir = Paths.get(JOURNAL_DIR);
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.surveyapp.benchmark;
+
+import com.example.surveyapp.config.SecondLevelCache;
+import com.mchange.v2.c3p0.ComboPooledDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.cache.CacheManager;
+import javax.sql.DataSource;
+import java.beans.PropertyVetoException;
+import java.util.Properties;
+
+/**
+ * Benchmark'lar için web katmanı olmadan servis + repository bağlamı.
+ * AppConfig'teki JPA ayarlarını izler, veritabanı olarak bellek içi H2 (MySQL modu) kullanır.
+ * <p>
+ * Ağ gidiş-dönüşlerini de ölçmek için gerçek bir MySQL'e yönlendirilebilir (JMH'ye
+ * {@code -jvmArgsAppend} ile verilir): {@code -Dbench.jdbc.url=jdbc:mysql://host/db?rewriteBatchedStatements=true -Dbench.jdbc.user=...
+ * -Dbench.jdbc.password=... -Dbench.hibernate.dialect=org.hibernate.dialect.MySQLDialect}.
+ * Şema her çalıştırmada yeniden oluşturulduğu için boş bir veritabanı kullanılmalıdır.
+ */
+@Configuration
+@ComponentScan(basePackages = "com.example.surveyapp.service")
+@EnableTransactionManagement
+@EnableJpaRepositories(basePackages = "com.example.surveyapp.repository")
+public class BenchmarkConfig {
+
+    @Bean
+    public DataSource dataSource() {
+        ComboPooledDataSource dataSource = new ComboPooledDataSource();
+        try {
+            String url = System.getProperty("bench.jdbc.url",
+                    "jdbc:h2:mem:surveybench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+            dataSource.setDriverClass(url.startsWith("jdbc:mysql:") ? "com.mysql.cj.jdbc.Driver" : "org.h2.Driver");
+            dataSource.setJdbcUrl(url);
+            dataSource.setUser(System.getProperty("bench.jdbc.user", "sa"));
+            dataSource.setPassword(System.getProperty("bench.jdbc.password", ""));
+            dataSource.setMinPoolSize(5);
+            dataSource.setMaxPoolSize(20);
+            dataSource.setAcquireIncrement(5);
+        } catch (PropertyVetoException e) {
+            throw new RuntimeException("Benchmark DataSource yapılandırması başarısız", e);
+        }
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        return SecondLevelCache.createCacheManager(20000, 10000, 100);
+    }
+
+    @Bean
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, CacheManager secondLevelCacheManager) {
+        LocalContainerEntityManagerFactoryBean emf = new LocalContainerEntityManagerFactoryBean();
+        emf.setDataSource(dataSource);
+        emf.setPackagesToScan("com.example.surveyapp.model");
+        emf.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        emf.setJpaProperties(jpaProperties(secondLevelCacheManager));
+        return emf;
+    }
+
+    private Properties jpaProperties(CacheManager secondLevelCacheManager) {
+        Properties props = new Properties();
+        props.setProperty("hibernate.dialect", System.getProperty("bench.hibernate.dialect", "org.hibernate.dialect.H2Dialect"));
+        props.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        props.setProperty("hibernate.globally_quoted_identifiers", "true");
+        // Eski AppConfig davranışı (SQL'in System.out'a yazılması) VoteLoggingBenchmark'ta karşılaştırma için açılır
+        props.setProperty("hibernate.show_sql", System.getProperty("bench.hibernate.show_sql", "false"));
+        props.setProperty("hibernate.format_sql", System.getProperty("bench.hibernate.show_sql", "false"));
+        props.setProperty("hibernate.jdbc.batch_size", "50");
+        props.setProperty("hibernate.default_batch_fetch_size", "50");
+        props.setProperty("hibernate.order_inserts", "true");
+        props.setProperty("hibernate.order_updates", "true");
+        SecondLevelCache.configure(props, secondLevelCacheManager);
+        return props;
+    }
+
+    // Servislerin metrikleri için; Prometheus dışa aktarımı benchmark'ta gerekmez
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(LocalContainerEntityManagerFactoryBean entityManagerFactory) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager();
+        transactionManager.setEntityManagerFactory(entityManagerFactory.getObject());
+        return transactionManager;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.surveyapp.benchmark;
+
+import com.example.surveyapp.model.Option;
+import com.example.surveyapp.model.Question;
+import com.example.surveyapp.model.Survey;
+import com.example.surveyapp.model.User;
+import com.example.surveyapp.model.Vote;
+import com.example.surveyapp.repository.OptionRepository;
+import com.example.surveyapp.repository.QuestionRepository;
+import com.example.surveyapp.repository.SurveyRepository;
+import com.example.surveyapp.repository.UserRepository;
+import com.example.surveyapp.repository.VoteRepository;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark veritabanını verilen hacimlerle doldurur.
+ * <p>
+ * Her ankete {@code votesPerQuestion} kullanıcı tüm soruları yanıtlayarak oy verir.
+ * Bunlara ek olarak hiç oy vermemiş {@code freshVoters} kullanıcı oluşturulur;
+ * oy yazma benchmark'ları her çağrıda yeni bir (kullanıcı, soru) çifti kullanır.
+ */
+public class BenchmarkData {
+
+    private final List<Long> surveyIds = new ArrayList<>();
+    // questionIds.get(i) ve optionIds.get(i) aynı soruya aittir
+    private final List<Long> questionIds = new ArrayList<>();
+    private final List<long[]> optionIds = new ArrayList<>();
+    private final List<User> freshVoters = new ArrayList<>();
+
+    public static BenchmarkData seed(ApplicationContext context, int surveys, int questionsPerSurvey,
+                                     int optionsPerQuestion, int votesPerQuestion, int freshVoters) {
+        BenchmarkData data = new BenchmarkData();
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        SurveyRepository surveyRepository = context.getBean(SurveyRepository.class);
+        QuestionRepository questionRepository = context.getBean(QuestionRepository.class);
+        OptionRepository optionRepository = context.getBean(OptionRepository.class);
+        VoteRepository voteRepository = context.getBean(VoteRepository.class);
+
+        User owner = transaction.execute(status -> userRepository.save(newUser("owner")));
+        List<User> voters = transaction.execute(status -> userRepository.saveAll(newUsers("voter", votesPerQuestion)));
+        data.freshVoters.addAll(transaction.execute(status -> userRepository.saveAll(newUsers("fresh", freshVoters))));
+
+        for (int s = 0; s < surveys; s++) {
+            Survey survey = newSurvey(owner, s, questionsPerSurvey, optionsPerQuestion);
+            transaction.executeWithoutResult(status -> {
+                surveyRepository.save(survey);
+
+                List<Vote> votes = new ArrayList<>();
+                for (Question question : survey.getQuestions()) {
+                    for (int v = 0; v < voters.size(); v++) {
+                        Option option = question.getOptions().get(v % question.getOptions().size());
+                        Vote vote = new Vote();
+                        vote.setUser(userRepository.getReferenceById(voters.get(v).getId()));
+                        vote.setQuestion(questionRepository.getReferenceById(question.getId()));
+                        vote.setOption(optionRepository.getReferenceById(option.getId()));
+                        votes.add(vote);
+                    }
+                }
+                voteRepository.saveAll(votes);
+            });
+
+            data.surveyIds.add(survey.getId());
+            for (Question question : survey.getQuestions()) {
+                data.questionIds.add(question.getId());
+                data.optionIds.add(question.getOptions().stream().mapToLong(Option::getId).toArray());
+            }
+        }
+        return data;
+    }
+
+    private static List<User> newUsers(String prefix, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(newUser(prefix + i));
+        }
+        return users;
+    }
+
+    private static User newUser(String name) {
+        User user = new User();
+        user.setFullName(name);
+        user.setEmail(name + "@bench.local");
+        user.setPassword("bench");
+        return user;
+    }
+
+    private static Survey newSurvey(User owner, int index, int questions, int options) {
+        Survey survey = new Survey();
+        survey.setTitle("Benchmark anketi " + index);
+        survey.setDescription("Benchmark için oluşturuldu");
+        survey.setCreatedBy(owner);
+        for (int q = 0; q < questions; q++) {
+            Question question = new Question();
+            question.setText("Soru " + q);
+            question.setSurvey(survey);
+            for (int o = 0; o < options; o++) {
+                Option option = new Option();
+                option.setText("Seçenek " + o);
+                option.setQuestion(question);
+                question.getOptions().add(option);
+            }
+            survey.getQuestions().add(question);
+        }
+        return survey;
+    }
+
+    public List<Long> getSurveyIds() { return surveyIds; }
+    public List<Long> getQuestionIds() { return questionIds; }
+    public List<long[]> getOptionIds() { return optionIds; }
+    public List<User> getFreshVoters() { return freshVoters; }
+}
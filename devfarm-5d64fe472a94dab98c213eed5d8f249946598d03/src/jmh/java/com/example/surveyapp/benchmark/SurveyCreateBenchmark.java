@@ -0,0 +1,85 @@
+package com.example.surveyapp.benchmark;
+
+import com.example.surveyapp.model.Option;
+import com.example.surveyapp.model.Question;
+import com.example.surveyapp.model.Survey;
+import com.example.surveyapp.model.User;
+import com.example.surveyapp.repository.UserRepository;
+import com.example.surveyapp.service.SurveyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Büyük bir anketin (varsayılan 200 soru x 4 seçenek) tek istekte oluşturulması.
+ * Sorular ve seçenekler Survey üzerinden cascade ile yazıldığı için bu benchmark
+ * INSERT batch'lemesinin etkisini doğrudan ölçer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SurveyCreateBenchmark {
+
+    @Param("200")
+    public int questions;
+
+    @Param("4")
+    public int optionsPerQuestion;
+
+    private AnnotationConfigApplicationContext context;
+    private SurveyService surveyService;
+    private User owner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkConfig.class);
+        surveyService = context.getBean(SurveyService.class);
+
+        User user = new User();
+        user.setFullName("owner");
+        user.setEmail("owner@bench.local");
+        user.setPassword("bench");
+        owner = context.getBean(UserRepository.class).save(user);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Survey createSurvey() {
+        Survey survey = new Survey();
+        survey.setTitle("Büyük anket");
+        survey.setDescription("Benchmark için oluşturuldu");
+        for (int q = 0; q < questions; q++) {
+            Question question = new Question();
+            question.setText("Soru " + q);
+            question.setSurvey(survey);
+            for (int o = 0; o < optionsPerQuestion; o++) {
+                Option option = new Option();
+                option.setText("Seçenek " + o);
+                option.setQuestion(question);
+                question.getOptions().add(option);
+            }
+            survey.getQuestions().add(question);
+        }
+        return surveyService.createSurvey(survey, owner.getId());
+    }
+}
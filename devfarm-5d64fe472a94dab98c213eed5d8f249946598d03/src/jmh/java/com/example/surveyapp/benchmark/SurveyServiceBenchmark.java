@@ -0,0 +1,130 @@
+package com.example.surveyapp.benchmark;
+
+import com.example.surveyapp.dto.SurveyResults;
+import com.example.surveyapp.dto.VoteRow;
+import com.example.surveyapp.model.Survey;
+import com.example.surveyapp.model.User;
+import com.example.surveyapp.service.SurveyResultsService;
+import com.example.surveyapp.service.SurveyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.Slice;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Oy verme, anket yükleme ve sonuç hesaplama yollarının benchmark'ları.
+ * <p>
+ * Throughput ve SampleTime (p50/p90/p99 gecikme) birlikte raporlanır; ayırma hızı
+ * BenchmarkRunner'ın eklediği GC profiler'dan gelir. Her benchmark ayrı bir JVM'de,
+ * {@code @Param} hacimleriyle yeniden doldurulan bellek içi H2 üzerinde çalışır.
+ * <p>
+ * Oy yazma benchmark'ları her çağrıda henüz kullanılmamış bir (kullanıcı, soru) veya
+ * (kullanıcı, anket) çifti kullanır; çok uzun ölçümlerde freshVoters artırılmalıdır.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SurveyServiceBenchmark {
+
+    @Param("50")
+    public int surveys;
+
+    @Param("5")
+    public int questionsPerSurvey;
+
+    @Param("4")
+    public int optionsPerQuestion;
+
+    @Param("200")
+    public int votesPerQuestion;
+
+    @Param("5000")
+    public int freshVoters;
+
+    private AnnotationConfigApplicationContext context;
+    private SurveyService surveyService;
+    private SurveyResultsService surveyResultsService;
+    private BenchmarkData data;
+
+    private final AtomicLong voteSequence = new AtomicLong();
+    private final AtomicLong ballotSequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkConfig.class);
+        surveyService = context.getBean(SurveyService.class);
+        surveyResultsService = context.getBean(SurveyResultsService.class);
+        data = BenchmarkData.seed(context, surveys, questionsPerSurvey, optionsPerQuestion, votesPerQuestion, freshVoters);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Survey getSurveyById() {
+        return surveyService.getSurveyById(randomSurveyId());
+    }
+
+    @Benchmark
+    public Slice<VoteRow> getVoteRows() {
+        return surveyResultsService.getVoteRows(randomSurveyId(), 0, SurveyResultsService.MAX_VOTE_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public SurveyResults getResults() {
+        return surveyResultsService.getResults(randomSurveyId());
+    }
+
+    @Benchmark
+    public void vote() {
+        long sequence = voteSequence.getAndIncrement();
+        int questionCount = data.getQuestionIds().size();
+        int question = (int) (sequence % questionCount);
+        User voter = data.getFreshVoters().get((int) (sequence / questionCount % freshVoters));
+        long[] options = data.getOptionIds().get(question);
+
+        surveyService.vote(data.getQuestionIds().get(question), options[(int) (sequence % options.length)], voter.getId());
+    }
+
+    @Benchmark
+    public void submitBallot() {
+        long sequence = ballotSequence.getAndIncrement();
+        int surveyIndex = (int) (sequence % surveys);
+        Long surveyId = data.getSurveyIds().get(surveyIndex);
+        User voter = data.getFreshVoters().get((int) (sequence / surveys % freshVoters));
+
+        Map<Long, Long> ballot = new LinkedHashMap<>();
+        int first = surveyIndex * questionsPerSurvey;
+        for (int q = first; q < first + questionsPerSurvey; q++) {
+            long[] options = data.getOptionIds().get(q);
+            ballot.put(data.getQuestionIds().get(q), options[(int) (sequence % options.length)]);
+        }
+        surveyService.submitBallot(surveyId, ballot, voter.getId());
+    }
+
+    private Long randomSurveyId() {
+        return data.getSurveyIds().get(ThreadLocalRandom.current().nextInt(data.getSurveyIds().size()));
+    }
+}
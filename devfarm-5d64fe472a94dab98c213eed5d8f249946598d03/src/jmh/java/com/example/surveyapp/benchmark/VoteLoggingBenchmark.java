@@ -0,0 +1,99 @@
+package com.example.surveyapp.benchmark;
+
+import com.example.surveyapp.model.User;
+import com.example.surveyapp.service.SurveyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Oy başına log maliyeti. Üç benchmark aynı oy işlemini, log yapılandırması farklı
+ * ayrı JVM'lerde çalıştırır:
+ * <ul>
+ *   <li>{@code voteSyncLogging}: eski yapılandırma (senkron konsol + dosya, debug seviyeleri, show_sql)</li>
+ *   <li>{@code voteAsyncLogging}: log4j2.xml (asenkron logger'lar, örneklenen sıcak yol, SQL kapalı)</li>
+ *   <li>{@code voteLoggingOff}: uygulama ve framework logları kapalı; log maliyeti = süre - bu süre</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class VoteLoggingBenchmark {
+
+    private static final String SYNC_SELECTOR = "-Dlog4j2.contextSelector=org.apache.logging.log4j.core.selector.ClassLoaderContextSelector";
+
+    @Param("20")
+    public int surveys;
+
+    @Param("5")
+    public int questionsPerSurvey;
+
+    @Param("4")
+    public int optionsPerQuestion;
+
+    @Param("20000")
+    public int freshVoters;
+
+    private AnnotationConfigApplicationContext context;
+    private SurveyService surveyService;
+    private BenchmarkData data;
+
+    private final AtomicLong voteSequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkConfig.class);
+        surveyService = context.getBean(SurveyService.class);
+        data = BenchmarkData.seed(context, surveys, questionsPerSurvey, optionsPerQuestion, 0, freshVoters);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {SYNC_SELECTOR, "-Dlog4j2.configurationFile=log4j2-sync.xml",
+            "-Dbench.hibernate.show_sql=true"})
+    public void voteSyncLogging() {
+        vote();
+    }
+
+    @Benchmark
+    @Fork(1)
+    public void voteAsyncLogging() {
+        vote();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Dlog.level.app=off", "-Dlog.level.framework=off"})
+    public void voteLoggingOff() {
+        vote();
+    }
+
+    private void vote() {
+        long sequence = voteSequence.getAndIncrement();
+        int questionCount = data.getQuestionIds().size();
+        int question = (int) (sequence % questionCount);
+        User voter = data.getFreshVoters().get((int) (sequence / questionCount % freshVoters));
+        long[] options = data.getOptionIds().get(question);
+
+        surveyService.vote(data.getQuestionIds().get(question), options[(int) (sequence % options.length)], voter.getId());
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.surveyapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AdmissionControlled} ile işaretlenmiş uç noktalar için giriş denetimi.
+ * <p>
+ * İstek, controller'a (ve dolayısıyla oturum kullanıcısının çözülmesine, veritabanı
+ * sorgularına ya da RPC çağrılarına) ulaşmadan önce iki kontrolden geçer:
+ * <ul>
+ *   <li>anahtar türü başına (kullanıcı, cüzdan, anket) token bucket'lar;</li>
+ *   <li>bu uç noktaların toplamı için genel eşzamanlılık sınırı (beklemeden, tryAcquire).</li>
+ * </ul>
+ * Geçemeyen istek 429 ve Retry-After ile reddedilir ve {@code admission.rejected}
+ * sayacına (reason, handler etiketleriyle) yazılır.
+ */
+@Component
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlInterceptor.class);
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+    private static final String REJECTED_MESSAGE = "Çok fazla istek gönderildi, lütfen biraz sonra tekrar deneyin";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${admission.max-concurrent:64}")
+    private int maxConcurrent;
+
+    @Value("${admission.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${admission.user.rate-per-second:1}")
+    private double userRate;
+
+    @Value("${admission.user.burst:10}")
+    private int userBurst;
+
+    @Value("${admission.wallet.rate-per-second:0.2}")
+    private double walletRate;
+
+    @Value("${admission.wallet.burst:3}")
+    private int walletBurst;
+
+    @Value("${admission.survey.rate-per-second:200}")
+    private double surveyRate;
+
+    @Value("${admission.survey.burst:400}")
+    private int surveyBurst;
+
+    private final Map<AdmissionControlled.Key, TokenBuckets> buckets = new EnumMap<>(AdmissionControlled.Key.class);
+    private Semaphore inFlight;
+
+    @PostConstruct
+    public void init() {
+        buckets.put(AdmissionControlled.Key.USER, new TokenBuckets(userRate, userBurst, maxKeys));
+        buckets.put(AdmissionControlled.Key.WALLET, new TokenBuckets(walletRate, walletBurst, maxKeys));
+        buckets.put(AdmissionControlled.Key.SURVEY, new TokenBuckets(surveyRate, surveyBurst, maxKeys));
+        inFlight = new Semaphore(maxConcurrent);
+
+        Gauge.builder("admission.in_flight", inFlight, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .register(meterRegistry);
+        buckets.forEach((key, keyBuckets) -> Gauge.builder("admission.keys", keyBuckets, TokenBuckets::size)
+                .tag("key", tagOf(key))
+                .register(meterRegistry));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        AdmissionControlled admission = handlerMethod.getMethodAnnotation(AdmissionControlled.class);
+        if (admission == null) {
+            return true;
+        }
+
+        for (AdmissionControlled.Key key : admission.value()) {
+            String id = resolveKey(key, request);
+            if (id == null) {
+                continue;
+            }
+            long waitNanos = buckets.get(key).tryAcquire(id);
+            if (waitNanos > 0) {
+                reject(response, handlerMethod, tagOf(key), waitNanos);
+                return false;
+            }
+        }
+
+        if (!inFlight.tryAcquire()) {
+            reject(response, handlerMethod, "concurrency", 0);
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            inFlight.release();
+        }
+    }
+
+    private String resolveKey(AdmissionControlled.Key key, HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        switch (key) {
+            case USER: {
+                Object email = session != null ? session.getAttribute("loggedInUser") : null;
+                return email != null ? email.toString() : "addr:" + request.getRemoteAddr();
+            }
+            case WALLET: {
+                // JSON gövdeli isteklerde getParameter gövdeyi okumaz; oturumdaki adres kullanılır
+                String wallet = request.getParameter("walletAddress");
+                if ((wallet == null || wallet.isEmpty()) && session != null) {
+                    Object sessionWallet = session.getAttribute("walletAddress");
+                    wallet = sessionWallet != null ? sessionWallet.toString() : null;
+                }
+                return wallet == null || wallet.isEmpty() ? null : wallet.toLowerCase(Locale.ROOT);
+            }
+            case SURVEY: {
+                Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+                return variables instanceof Map<?, ?> map && map.get("id") != null ? map.get("id").toString() : null;
+            }
+            default:
+                return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, HandlerMethod handlerMethod, String reason, long waitNanos)
+            throws IOException {
+        Counter.builder("admission.rejected")
+                .tag("reason", reason)
+                .tag("handler", handlerMethod.getMethod().getName())
+                .register(meterRegistry)
+                .increment();
+        logger.debug("Rejected {} request: {} limit", handlerMethod.getMethod().getName(), reason);
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(429);
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        if (isJson(handlerMethod)) {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"success\":false,\"message\":\"" + REJECTED_MESSAGE + "\"}");
+        } else {
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write(REJECTED_MESSAGE);
+        }
+    }
+
+    private static boolean isJson(HandlerMethod handlerMethod) {
+        return handlerMethod.hasMethodAnnotation(ResponseBody.class)
+                || AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), ResponseBody.class);
+    }
+
+    private static String tagOf(AdmissionControlled.Key key) {
+        return key.name().toLowerCase(Locale.ROOT);
+    }
+}
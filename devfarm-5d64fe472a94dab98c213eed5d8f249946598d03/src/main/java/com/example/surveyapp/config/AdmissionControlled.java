@@ -0,0 +1,29 @@
+package com.example.surveyapp.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Controller metodunu giriş denetimine (AdmissionControlInterceptor) bağlar: istek, verilen
+ * anahtarların her biri için token bucket'tan ve genel eşzamanlılık sınırından geçemezse
+ * controller ve veritabanı çalışmadan 429 ile reddedilir.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AdmissionControlled {
+
+    Key[] value();
+
+    enum Key {
+        /** Oturumdaki kullanıcı; oturum yoksa istemci adresi */
+        USER,
+        /** walletAddress parametresi, yoksa oturumdaki cüzdan adresi */
+        WALLET,
+        /** URL'deki anket ID'si ({id}) */
+        SURVEY
+    }
+}
@@ -1,19 +1,33 @@
 package com.example.surveyapp.config;
 
+import com.example.surveyapp.service.UserService;
 import com.mchange.v2.c3p0.ComboPooledDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.PropertySource;
 import org.springframework.context.MessageSource;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.core.Ordered;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
-import org.springframework.orm.jpa.support.OpenEntityManagerInViewFilter;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.thymeleaf.spring6.SpringTemplateEngine;
@@ -22,8 +36,10 @@ import org.thymeleaf.spring6.view.ThymeleafViewResolver;
 import org.thymeleaf.extras.java8time.dialect.Java8TimeDialect;
 import org.thymeleaf.templatemode.TemplateMode;
 
+import javax.cache.CacheManager;
 import javax.sql.DataSource;
 import java.beans.PropertyVetoException;
+import java.util.List;
 import java.util.Properties;
 
 @Configuration
@@ -31,14 +47,77 @@ import java.util.Properties;
 @EnableTransactionManagement
 @EnableWebMvc
 @EnableJpaRepositories(basePackages = "com.example.surveyapp.repository")
+@EnableScheduling
+@PropertySource("classpath:application.properties")
 public class AppConfig implements WebMvcConfigurer {
 
+    private static final Logger logger = LoggerFactory.getLogger(AppConfig.class);
+
+    private static final String PRIMARY_JDBC_URL =
+            "jdbc:mysql://35.195.19.175:3306/devfarm_db?useSSL=false&serverTimezone=UTC&useCursorFetch=true&rewriteBatchedStatements=true";
+
+    @Autowired
+    private ObjectProvider<UserService> userServiceProvider;
+
+    @Autowired
+    private ObjectProvider<ViewModelGuard> viewModelGuardProvider;
+
+    @Autowired
+    private ObjectProvider<AdmissionControlInterceptor> admissionControlProvider;
+
+    @Value("${datasource.replica.urls:}")
+    private String replicaUrls;
+
+    @Value("${datasource.replica.selection:round-robin}")
+    private String replicaSelection;
+
+    @Value("${datasource.read-your-writes.window-ms:5000}")
+    private long readYourWritesWindowMs;
+
+    @Value("${jpa.cache.entity.max-entries:20000}")
+    private long entityCacheMaxEntries;
+
+    @Value("${jpa.cache.collection.max-entries:10000}")
+    private long collectionCacheMaxEntries;
+
+    @Value("${jpa.cache.query.max-entries:100}")
+    private long queryCacheMaxEntries;
+
+    @Value("${template.cache.enabled:true}")
+    private boolean templateCacheEnabled;
+
+    @Value("${template.cache.ttl-ms:3600000}")
+    private long templateCacheTtlMs;
+
+    /**
+     * Uygulamanın kullandığı DataSource. Bağlantı ilk SQL çalışana kadar alınmaz; böylece
+     * yönlendirme kararı verilirken transaction'ın salt okunur olup olmadığı bilinir.
+     */
     @Bean
+    @Primary
     public DataSource dataSource() {
+        return new LazyConnectionDataSourceProxy(routingDataSource());
+    }
+
+    // Salt okunur transaction'lar datasource.replica.urls'deki replikalara dağıtılır
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource() {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(pooledDataSource(PRIMARY_JDBC_URL),
+                ReplicaRoutingDataSource.Selection.valueOf(replicaSelection.trim().toUpperCase().replace('-', '_')));
+        int index = 0;
+        for (String url : replicaUrls.split(",")) {
+            if (!url.isBlank()) {
+                routing.addReplica("replica-" + index++, pooledDataSource(url.trim()));
+            }
+        }
+        return routing;
+    }
+
+    private ComboPooledDataSource pooledDataSource(String jdbcUrl) {
         ComboPooledDataSource dataSource = new ComboPooledDataSource();
         try {
             dataSource.setDriverClass("com.mysql.cj.jdbc.Driver");
-            dataSource.setJdbcUrl("jdbc:mysql://35.195.19.175:3306/devfarm_db?useSSL=false&serverTimezone=UTC");
+            dataSource.setJdbcUrl(jdbcUrl);
             dataSource.setUser("devfarm-project");
             dataSource.setPassword("Narucu.12");
             dataSource.setMinPoolSize(5);
@@ -51,38 +130,53 @@ public class AppConfig implements WebMvcConfigurer {
         return dataSource;
     }
 
+    // Hibernate ikinci seviye ve sorgu önbelleği; bölgeler jpa.cache.* sınırlarıyla oluşturulur
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        return SecondLevelCache.createCacheManager(entityCacheMaxEntries, collectionCacheMaxEntries, queryCacheMaxEntries);
+    }
+
     @Bean
-    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, CacheManager secondLevelCacheManager) {
         LocalContainerEntityManagerFactoryBean emf = new LocalContainerEntityManagerFactoryBean();
         emf.setDataSource(dataSource);
         emf.setPackagesToScan("com.example.surveyapp.model");
         emf.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
-        emf.setJpaProperties(jpaProperties());
+        emf.setJpaProperties(jpaProperties(secondLevelCacheManager));
         return emf;
     }
 
-    private Properties jpaProperties() {
+    private Properties jpaProperties(CacheManager secondLevelCacheManager) {
         Properties props = new Properties();
         props.setProperty("hibernate.dialect", "org.hibernate.dialect.MySQL8Dialect");
         props.setProperty("hibernate.hbm2ddl.auto", "update");
-        props.setProperty("hibernate.show_sql", "true");
-        props.setProperty("hibernate.format_sql", "true");
+        // SQL konsola (System.out) değil org.hibernate.SQL kategorisine yazılır; log4j2.xml'de varsayılan olarak kapalı
+        props.setProperty("hibernate.show_sql", "false");
         
         // Özellikle varsayılan değerleri uygula
         props.setProperty("hibernate.hbm2ddl.auto", "update");
         props.setProperty("hibernate.globally_quoted_identifiers", "true");
         
-        // Lazy loading ve session yönetimi için ek ayarlar
-        props.setProperty("hibernate.enable_lazy_load_no_trans", "true");
+        // Transaction dışında lazy yükleme yapılmaz; sayfalara yalnızca görünüm modelleri verilir
+        props.setProperty("hibernate.enable_lazy_load_no_trans", "false");
         props.setProperty("hibernate.jdbc.batch_size", "50");
+        props.setProperty("hibernate.default_batch_fetch_size", "50");
         
         // Performance & connection handling
+        // Cascade ile yazılan anket/soru/seçenek INSERT'leri tabloya göre gruplanır ki batch'ler bölünmesin
+        props.setProperty("hibernate.order_inserts", "true");
         props.setProperty("hibernate.order_updates", "true");
         props.setProperty("hibernate.connection.release_mode", "after_transaction");
+        SecondLevelCache.configure(props, secondLevelCacheManager);
         
         return props;
     }
 
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
     @Bean
     public PlatformTransactionManager transactionManager(LocalContainerEntityManagerFactoryBean entityManagerFactory) {
         JpaTransactionManager transactionManager = new JpaTransactionManager();
@@ -97,14 +191,17 @@ public class AppConfig implements WebMvcConfigurer {
         templateResolver.setSuffix(".html");
         templateResolver.setTemplateMode(TemplateMode.HTML);
         templateResolver.setCharacterEncoding("UTF-8");
-        templateResolver.setCacheable(false);
+        // Üretimde şablonlar bir kez ayrıştırılıp TTL süresince önbellekte tutulur;
+        // geliştirmede -Dtemplate.cache.enabled=false ile her istekte yeniden okunur
+        templateResolver.setCacheable(templateCacheEnabled);
+        templateResolver.setCacheTTLMs(templateCacheTtlMs);
         
         // Thymeleaf şablon çözümünü zorlayalım
         templateResolver.setForceTemplateMode(true);
         templateResolver.setCheckExistence(true);
         
-        System.out.println("Template resolver initialized: prefix=" + templateResolver.getPrefix() 
-            + ", suffix=" + templateResolver.getSuffix());
+        logger.info("Template resolver initialized: prefix={}, suffix={}, cacheable={}",
+                templateResolver.getPrefix(), templateResolver.getSuffix(), templateCacheEnabled);
         
         return templateResolver;
     }
@@ -120,9 +217,10 @@ public class AppConfig implements WebMvcConfigurer {
         
         // Zaman işlemleri için Java8TimeDialect ekleyelim
         templateEngine.addDialect(new Java8TimeDialect());
-        
-        System.out.println("Template engine initialized with template resolver: " + templateResolver());
-        
+
+        // Sonuç sayfaları istek dışında önceden işlenirken de @{/...} bağlantıları çözülebilsin
+        templateEngine.setLinkBuilder(new ContextPathLinkBuilder());
+
         return templateEngine;
     }
 
@@ -134,9 +232,7 @@ public class AppConfig implements WebMvcConfigurer {
         viewResolver.setContentType("text/html; charset=UTF-8");
         viewResolver.setForceContentType(true);
         viewResolver.setOrder(1);
-        viewResolver.setCache(false);
-        
-        System.out.println("ThymeleafViewResolver initialized with template engine: " + templateEngine());
+        viewResolver.setCache(templateCacheEnabled);
         
         return viewResolver;
     }
@@ -151,9 +247,14 @@ public class AppConfig implements WebMvcConfigurer {
         return messageSource;
     }
 
+    // @Scheduled işleri (oy sayaç flush'ı, ödeme kuyruğu) birbirini bekletmesin diye ayrı thread'lerde çalışır
     @Bean
-    public OpenEntityManagerInViewFilter openEntityManagerInViewFilter() {
-        return new OpenEntityManagerInViewFilter();
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(4);
+        scheduler.setThreadNamePrefix("scheduler-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        return scheduler;
     }
 
     @Override
@@ -163,4 +264,17 @@ public class AppConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/static/**")
                 .addResourceLocations("classpath:/static/");
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Metrik ölçümünden hemen sonra: reddedilen istekler ölçülür ama başka hiçbir iş yapılmaz
+        registry.addInterceptor(admissionControlProvider.getObject()).order(Ordered.HIGHEST_PRECEDENCE + 1);
+        registry.addInterceptor(new ReadYourWritesInterceptor(readYourWritesWindowMs));
+        registry.addInterceptor(viewModelGuardProvider.getObject());
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver(userServiceProvider));
+    }
 }
\ No newline at end of file
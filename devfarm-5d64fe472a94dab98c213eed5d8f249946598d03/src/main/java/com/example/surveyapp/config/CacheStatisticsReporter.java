@@ -0,0 +1,59 @@
+package com.example.surveyapp.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * İkinci seviye önbellek bölgelerinin isabet oranlarını düzenli aralıklarla loglar.
+ */
+@Component
+public class CacheStatisticsReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheStatisticsReporter.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Bölge adı -> Hibernate istatistikleri (isabet, ıska, yazma, bellekteki kayıt sayısı).
+     */
+    public Map<String, CacheRegionStatistics> getRegionStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, CacheRegionStatistics> regions = new LinkedHashMap<>();
+        for (String region : SecondLevelCache.ENTITY_REGIONS) {
+            regions.put(region, statistics.getDomainDataRegionStatistics(region));
+        }
+        for (String region : SecondLevelCache.COLLECTION_REGIONS) {
+            regions.put(region, statistics.getDomainDataRegionStatistics(region));
+        }
+        for (String region : SecondLevelCache.QUERY_REGIONS) {
+            regions.put(region, statistics.getQueryRegionStatistics(region));
+        }
+        return regions;
+    }
+
+    @Scheduled(fixedDelayString = "${jpa.cache.stats-log-interval-ms:60000}")
+    public void report() {
+        getRegionStatistics().forEach((region, stats) -> {
+            if (stats == null) {
+                return;
+            }
+            long lookups = stats.getHitCount() + stats.getMissCount();
+            if (lookups > 0) {
+                logger.info("L2 cache region {}: {} hits, {} misses ({}% hit ratio), {} entries",
+                        region, stats.getHitCount(), stats.getMissCount(),
+                        String.format("%.1f", 100.0 * stats.getHitCount() / lookups), stats.getElementCountInMemory());
+            }
+        });
+    }
+}
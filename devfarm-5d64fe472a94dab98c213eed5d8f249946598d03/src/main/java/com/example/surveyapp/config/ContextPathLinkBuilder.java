@@ -0,0 +1,26 @@
+package com.example.surveyapp.config;
+
+import org.thymeleaf.context.IExpressionContext;
+import org.thymeleaf.context.IWebContext;
+import org.thymeleaf.linkbuilder.StandardLinkBuilder;
+
+import java.util.Map;
+
+/**
+ * Şablonlar bir HTTP isteği dışında (ör. sonuç sayfalarını arka planda önceden işlerken)
+ * işlendiğinde {@code @{/...}} bağlantılarının bağlam yolunu {@value #CONTEXT_PATH_VARIABLE}
+ * değişkeninden alır. Web bağlamında standart davranış değişmez.
+ */
+public class ContextPathLinkBuilder extends StandardLinkBuilder {
+
+    public static final String CONTEXT_PATH_VARIABLE = "contextPath";
+
+    @Override
+    protected String computeContextPath(IExpressionContext context, String base, Map<String, Object> parameters) {
+        if (!(context instanceof IWebContext) && context.containsVariable(CONTEXT_PATH_VARIABLE)) {
+            Object contextPath = context.getVariable(CONTEXT_PATH_VARIABLE);
+            return contextPath != null ? contextPath.toString() : "";
+        }
+        return super.computeContextPath(context, base, parameters);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.surveyapp.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Controller metot parametresine oturum açmış kullanıcıyı (SessionUser) enjekte eder.
+ * Oturum yoksa veya kullanıcı artık mevcut değilse parametre null olur.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
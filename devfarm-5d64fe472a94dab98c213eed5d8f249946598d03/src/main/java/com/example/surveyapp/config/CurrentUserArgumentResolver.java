@@ -0,0 +1,53 @@
+package com.example.surveyapp.config;
+
+import com.example.surveyapp.dto.SessionUser;
+import com.example.surveyapp.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * {@link CurrentUser} ile işaretlenen SessionUser parametrelerini oturumdaki
+ * e-posta adresinden çözer. Kullanıcı bilgisi UserService'in önbelleğinden gelir,
+ * böylece her istekte veritabanına gidilmez.
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    // UserService, web yapılandırması oluşturulurken henüz hazır olmayabilir
+    private final ObjectProvider<UserService> userService;
+
+    public CurrentUserArgumentResolver(ObjectProvider<UserService> userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && SessionUser.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        HttpSession session = request != null ? request.getSession(false) : null;
+        if (session == null) {
+            return null;
+        }
+        String email = (String) session.getAttribute("loggedInUser");
+        if (email == null) {
+            return null;
+        }
+        SessionUser user = userService.getObject().getSessionUser(email);
+        if (user == null) {
+            // Kullanıcı silinmiş; oturumu anonim hale getir
+            session.removeAttribute("loggedInUser");
+        }
+        return user;
+    }
+}
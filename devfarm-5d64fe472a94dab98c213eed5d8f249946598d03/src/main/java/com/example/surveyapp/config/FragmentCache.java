@@ -0,0 +1,119 @@
+package com.example.surveyapp.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateSpec;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sık tekrarlanan şablon parçalarının (anket kartları, soru blokları) işlenmiş
+ * HTML çıktısını tutar. Anahtar çağıranın verdiği sürüm bilgisini ve dili içerir;
+ * entity değiştiğinde anahtar da değiştiği için ayrıca geçersiz kılma gerekmez,
+ * eski kayıtlar kullanılmadıkça sınır aşıldığında düşer.
+ * <p>
+ * Şablonlardan {@code th:utext="${@fragmentCache.render(#ctx, ...)}"} ile çağrılır;
+ * parça mevcut şablonun değişkenleriyle (döngü değişkenleri dahil) işlenir.
+ * İsabet/ıska ({@code cache.gets}) ve kayıt sayısı {@code cache=fragments} etiketiyle yayımlanır.
+ */
+@Component
+public class FragmentCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(FragmentCache.class);
+    private static final String CACHE_NAME = "fragments";
+
+    private final LinkedHashMap<String, String> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Autowired
+    private SpringTemplateEngine templateEngine;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Geliştirmede şablon önbelleğiyle birlikte kapatılır, parçalar her istekte yeniden işlenir
+    @Value("${template.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${template.fragment-cache.max-entries:5000}")
+    private int maxEntries;
+
+    @PostConstruct
+    public void bindMetrics() {
+        FunctionCounter.builder("cache.gets", this, FragmentCache::getHits)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", this, FragmentCache::getMisses)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, FragmentCache::getSize)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Şablondaki parçayı işler; aynı anahtar ve dil için daha önce işlenmişse önbellekteki HTML döner.
+     *
+     * @param context  Çağıran şablonun bağlamı ({@code #ctx})
+     * @param template Parçanın bulunduğu şablon adı
+     * @param fragment th:fragment adı
+     * @param key      Parçayı ve sürümünü belirleyen anahtar
+     */
+    public String render(IContext context, String template, String fragment, String key) {
+        if (!enabled) {
+            return process(context, template, fragment);
+        }
+
+        String cacheKey = key + '|' + context.getLocale();
+        synchronized (this) {
+            String cached = entries.get(cacheKey);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+
+        misses.incrementAndGet();
+        String html = process(context, template, fragment);
+        synchronized (this) {
+            entries.put(cacheKey, html);
+            if (entries.size() > maxEntries) {
+                entries.remove(entries.keySet().iterator().next());
+            }
+        }
+        logger.debug("Rendered fragment {} :: {} for key {}", template, fragment, cacheKey);
+        return html;
+    }
+
+    private String process(IContext context, String template, String fragment) {
+        StringWriter writer = new StringWriter();
+        templateEngine.process(new TemplateSpec(template, Set.of(fragment), TemplateMode.HTML, null), context, writer);
+        return writer.toString();
+    }
+
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
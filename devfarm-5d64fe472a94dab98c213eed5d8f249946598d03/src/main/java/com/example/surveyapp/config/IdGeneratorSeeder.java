@@ -0,0 +1,72 @@
+package com.example.surveyapp.config;
+
+import com.example.surveyapp.model.IdGenerators;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * IDENTITY'den tablo tabanlı üretece geçişte mevcut kayıtlarla çakışmayı önler.
+ * <p>
+ * Uygulama açılırken her entity tipi için id_generator satırını tablodaki en büyük
+ * ID'nin en az bir ayırma bloğu ilerisine taşır. Satır zaten ilerideyse dokunulmaz,
+ * bu yüzden her açılışta çalışması güvenlidir.
+ */
+@Component
+public class IdGeneratorSeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorSeeder.class);
+
+    // id_generator segmenti -> entity adı; entity'lerdeki @TableGenerator pkColumnValue değerleriyle aynı olmalı
+    private static final Map<String, String> SEGMENTS = Map.of(
+            "survey", "Survey",
+            "question", "Question",
+            "option", "Option",
+            "vote", "Vote",
+            "user", "User",
+            "payout", "Payout");
+
+    private static final String SELECT_SQL = "SELECT " + IdGenerators.VALUE_COLUMN + " FROM " + IdGenerators.TABLE
+            + " WHERE " + IdGenerators.SEGMENT_COLUMN + " = ?";
+    private static final String INSERT_SQL = "INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.SEGMENT_COLUMN
+            + ", " + IdGenerators.VALUE_COLUMN + ") VALUES (?, ?)";
+    private static final String UPDATE_SQL = "UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN
+            + " = ? WHERE " + IdGenerators.SEGMENT_COLUMN + " = ? AND " + IdGenerators.VALUE_COLUMN + " < ?";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void seed() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            SEGMENTS.forEach((segment, entity) -> {
+                Long maxId = entityManager.createQuery("select max(e.id) from " + entity + " e", Long.class)
+                        .getSingleResult();
+                // Pooled optimizer bir bloğu okunan değerin altından dağıtabilir; bir blok pay bırakılır
+                long floor = (maxId != null ? maxId : 0L) + IdGenerators.ALLOCATION_SIZE + 1;
+
+                List<Long> current = jdbcTemplate.queryForList(SELECT_SQL, Long.class, segment);
+                if (current.isEmpty()) {
+                    jdbcTemplate.update(INSERT_SQL, segment, floor);
+                    logger.info("Initialized ID generator '{}' at {}", segment, floor);
+                } else if (jdbcTemplate.update(UPDATE_SQL, floor, segment, floor) > 0) {
+                    logger.info("Moved ID generator '{}' from {} to {}", segment, current.get(0), floor);
+                }
+            });
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.surveyapp.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+/**
+ * {@link Idempotent} controller metotlarını idempotency deposuna bağlar.
+ * Depo kayıt sayısı ve ömrüyle sınırlıdır ({@code idempotency.*} ayarları).
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    /**
+     * Altyapı rolünde tanımlanır ki {@code @EnableTransactionManagement}'ın proxy oluşturucusu
+     * tarafından controller'lara uygulansın.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor idempotentMethodAdvisor(@Value("${idempotency.max-entries:50000}") int maxEntries,
+                                                  @Value("${idempotency.ttl-ms:600000}") long ttlMs,
+                                                  @Value("${idempotency.wait-timeout-ms:30000}") long waitTimeoutMs,
+                                                  MeterRegistry meterRegistry) {
+        IdempotencyStore store = new IdempotencyStore(maxEntries, ttlMs);
+        Gauge.builder("idempotency.keys", store, IdempotencyStore::size).register(meterRegistry);
+        return new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(Idempotent.class),
+                new IdempotentMethodInterceptor(store, waitTimeoutMs, meterRegistry));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.surveyapp.config;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Süren ve tamamlanan idempotency anahtarlarının sınırlı deposu.
+ * <p>
+ * Her anahtar, ilk çalıştırmanın sonucunu taşıyan bir CompletableFuture'a ve isteğin içeriğine
+ * bağlanır; süren bir çalıştırmanın tekrarları aynı future'ı bekler. Kayıtlar eklenme sırasıyla tutulur ve hepsinin
+ * ömrü aynı olduğu için baştan silinir: süresi dolan kayıtlar her eklemede, sınır aşılınca da
+ * en eski kayıt.
+ */
+final class IdempotencyStore {
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private final int maxEntries;
+    private final long ttlMs;
+
+    IdempotencyStore(int maxEntries, long ttlMs) {
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Anahtar yoksa verilen içerik ve future ile kaydeder ve null döner; varsa mevcut kaydı döner.
+     */
+    synchronized Entry putIfAbsent(String key, Object payload, CompletableFuture<Object> future) {
+        long now = System.currentTimeMillis();
+        evictExpired(now);
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        entries.put(key, new Entry(payload, future, now + ttlMs));
+        if (entries.size() > maxEntries) {
+            Iterator<Entry> eldest = entries.values().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        return null;
+    }
+
+    /**
+     * Başarısız bir çalıştırmanın anahtarını siler ki istemci yeniden deneyebilsin.
+     */
+    synchronized void remove(String key, CompletableFuture<Object> future) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.future == future) {
+            entries.remove(key);
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && iterator.next().getValue().expiresAt <= now) {
+            iterator.remove();
+        }
+    }
+
+    static final class Entry {
+        private final Object payload;
+        private final CompletableFuture<Object> future;
+        private final long expiresAt;
+
+        private Entry(Object payload, CompletableFuture<Object> future, long expiresAt) {
+            this.payload = payload;
+            this.future = future;
+            this.expiresAt = expiresAt;
+        }
+
+        Object getPayload() {
+            return payload;
+        }
+
+        CompletableFuture<Object> getFuture() {
+            return future;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.surveyapp.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Controller metodunu idempotency anahtarına bağlar. İstek {@code Idempotency-Key} başlığı veya
+ * {@code idempotencyKey} form alanı taşıyorsa aynı kullanıcı, adres ve anahtarla gelen tekrarlar
+ * metodu yeniden çalıştırmaz; ilk çalıştırmanın dönüş değerini alır (bkz. IdempotentMethodInterceptor).
+ * <p>
+ * Yalnızca sonucu dönüş değerinden ibaret olan metotlara (redirect, ResponseEntity) uygulanmalıdır;
+ * Model'e eklenen değerler tekrarlara aktarılmaz.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Idempotent {
+}
@@ -0,0 +1,166 @@
+package com.example.surveyapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link Idempotent} controller metotlarının tekrarlarını ilk çalıştırmanın sonucuyla yanıtlar.
+ * <p>
+ * Anahtar kapsamı kullanıcı (oturumdaki e-posta, yoksa istemci adresi), istek adresi ve
+ * istemcinin verdiği anahtardır; böylece aynı anahtar başka bir anket veya kullanıcı için
+ * sonuç döndürmez. İlk çalıştırma sürerken gelen tekrar onu bekler. Çalıştırma istisnayla
+ * biterse anahtar silinir: bekleyenler aynı istisnayı alır, sonraki deneme yeniden çalışır.
+ * <p>
+ * Aynı anahtar farklı bir içerikle (istek parametreleri, gövde veya yol değişkenleri) gelirse
+ * ilk sonuç döndürülmez, istek 422 ile reddedilir; aksi halde istemcinin yeni isteği sessizce
+ * yok sayılırdı.
+ */
+public class IdempotentMethodInterceptor implements MethodInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotentMethodInterceptor.class);
+
+    static final String HEADER = "Idempotency-Key";
+    static final String PARAMETER = "idempotencyKey";
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyStore store;
+    private final long waitTimeoutMs;
+    private final MeterRegistry meterRegistry;
+
+    public IdempotentMethodInterceptor(IdempotencyStore store, long waitTimeoutMs, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return invocation.proceed();
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        String key = clientKey(request);
+        if (key == null) {
+            return invocation.proceed();
+        }
+
+        String scope = principal(request) + '|' + request.getMethod() + ' ' + request.getRequestURI() + '|' + key;
+        List<Object> payload = payload(invocation);
+        CompletableFuture<Object> execution = new CompletableFuture<>();
+        IdempotencyStore.Entry first = store.putIfAbsent(scope, payload, execution);
+        if (first != null) {
+            if (!first.getPayload().equals(payload)) {
+                throw payloadMismatch(invocation, key);
+            }
+            return replay(invocation, first.getFuture(), key);
+        }
+
+        try {
+            Object result = invocation.proceed();
+            execution.complete(result);
+            return result;
+        } catch (Throwable e) {
+            store.remove(scope, execution);
+            execution.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object replay(MethodInvocation invocation, CompletableFuture<Object> first, String key) throws Throwable {
+        String handler = invocation.getMethod().getName();
+        logger.info("Duplicate {} request with idempotency key {}, {} first execution",
+                handler, key, first.isDone() ? "replaying" : "waiting for");
+        Counter.builder("idempotency.replayed")
+                .tag("handler", handler)
+                .tag("in_flight", Boolean.toString(!first.isDone()))
+                .register(meterRegistry)
+                .increment();
+        try {
+            return first.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Aynı istek hâlâ işleniyor, lütfen biraz sonra tekrar deneyin");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "İstek yarıda kesildi");
+        }
+    }
+
+    private ResponseStatusException payloadMismatch(MethodInvocation invocation, String key) {
+        String handler = invocation.getMethod().getName();
+        logger.warn("Idempotency key {} reused for {} with a different payload", key, handler);
+        Counter.builder("idempotency.rejected")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .increment();
+        return new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Bu idempotency anahtarı farklı bir istek için kullanılmış");
+    }
+
+    /**
+     * İsteğin içeriği: istekten bağlanan (parametre, gövde, yol değişkeni) argümanlar. Map'ler
+     * kopyalanır ki metot onları değiştirse de karşılaştırma ilk isteğin içeriğiyle yapılsın.
+     */
+    private static List<Object> payload(MethodInvocation invocation) {
+        Method method = invocation.getMethod();
+        Object[] arguments = invocation.getArguments();
+        List<Object> payload = new ArrayList<>();
+        for (int i = 0; i < arguments.length; i++) {
+            MethodParameter parameter = new MethodParameter(method, i);
+            if (parameter.hasParameterAnnotation(RequestParam.class)
+                    || parameter.hasParameterAnnotation(RequestBody.class)
+                    || parameter.hasParameterAnnotation(PathVariable.class)) {
+                payload.add(arguments[i] instanceof Map<?, ?> map ? new LinkedHashMap<>(map) : arguments[i]);
+            }
+        }
+        return payload;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        String key = request.getHeader(HEADER);
+        if (key == null || key.isEmpty()) {
+            key = request.getParameter(PARAMETER);
+        }
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            logger.warn("Ignoring idempotency key longer than {} characters", MAX_KEY_LENGTH);
+            return null;
+        }
+        return key;
+    }
+
+    private static String principal(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        Object email = session != null ? session.getAttribute("loggedInUser") : null;
+        return email != null ? email.toString() : "addr:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.surveyapp.config;
+
+import com.mchange.v2.c3p0.ComboPooledDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Bağlantı havuzu ve Hibernate göstergelerini metrik kayıt defterine bağlar.
+ * <p>
+ * Her c3p0 havuzu için meşgul/boşta/en fazla bağlantı sayısı ve bağlantı bekleyen thread sayısı
+ * ({@code pool} etiketiyle) raporlanır; Hibernate istatistikleri (sorgular, entity yüklemeleri,
+ * ikinci seviye önbellek bölgelerinin isabet/ıska sayıları) hibernate-micrometer ile yayımlanır.
+ */
+@Component
+public class PersistenceMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void bind() {
+        routingDataSource.getPools().forEach(this::bindPool);
+        HibernateMetrics.monitor(meterRegistry, entityManagerFactory.unwrap(SessionFactory.class), "surveyapp");
+    }
+
+    private void bindPool(String name, DataSource dataSource) {
+        if (!(dataSource instanceof ComboPooledDataSource pool)) {
+            return;
+        }
+        gauge("db.pool.connections.busy", name, pool, ComboPooledDataSource::getNumBusyConnectionsDefaultUser);
+        gauge("db.pool.connections.idle", name, pool, ComboPooledDataSource::getNumIdleConnectionsDefaultUser);
+        gauge("db.pool.connections.pending", name, pool, ComboPooledDataSource::getNumThreadsAwaitingCheckoutDefaultUser);
+        gauge("db.pool.connections.max", name, pool, ComboPooledDataSource::getMaxPoolSize);
+    }
+
+    private void gauge(String metric, String poolName, ComboPooledDataSource pool, PoolStatistic statistic) {
+        Gauge.builder(metric, pool, read(statistic))
+                .tag("pool", poolName)
+                .register(meterRegistry);
+    }
+
+    private static ToDoubleFunction<ComboPooledDataSource> read(PoolStatistic statistic) {
+        return pool -> {
+            try {
+                return statistic.read(pool);
+            } catch (SQLException e) {
+                return Double.NaN;
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface PoolStatistic {
+        int read(ComboPooledDataSource pool) throws SQLException;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.surveyapp.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Oy verme gibi bir yazma isteğinden sonra aynı oturumun okumalarını belirli bir süre
+ * birincil veritabanına sabitler; böylece kullanıcı replikalar henüz yetişmeden
+ * kendi oyunu görmemezlik yaşamaz.
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    private static final String PRIMARY_UNTIL_ATTRIBUTE = "readPrimaryUntil";
+
+    private final long windowMs;
+
+    public ReadYourWritesInterceptor(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        HttpSession session = request.getSession(false);
+        if (session != null && session.getAttribute(PRIMARY_UNTIL_ATTRIBUTE) instanceof Long until
+                && until > System.currentTimeMillis()) {
+            ReplicaRoutingDataSource.forcePrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaRoutingDataSource.clearForcePrimary();
+        if (isWrite(request)) {
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                session.setAttribute(PRIMARY_UNTIL_ATTRIBUTE, System.currentTimeMillis() + windowMs);
+            }
+        }
+    }
+
+    private boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.surveyapp.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Okuma replikalarının sağlık ve gecikme ölçümlerini düzenli aralıklarla yeniler.
+ */
+@Component
+public class ReplicaHealthChecker {
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Scheduled(fixedDelayString = "${datasource.replica.health-check-interval-ms:5000}")
+    public void check() {
+        routingDataSource.checkReplicas();
+    }
+}
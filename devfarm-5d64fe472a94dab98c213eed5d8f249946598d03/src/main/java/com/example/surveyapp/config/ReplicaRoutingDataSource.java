@@ -0,0 +1,184 @@
+package com.example.surveyapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Salt okunur transaction'ları okuma replikalarına, diğer her şeyi birincil veritabanına yönlendirir.
+ * <p>
+ * Karar bağlantı istendiği anda verilir; bu yüzden {@code LazyConnectionDataSourceProxy}
+ * arkasında kullanılmalıdır, aksi halde JPA bağlantıyı transaction'ın salt okunur
+ * bilgisi kaydedilmeden önce alır. Sağlıksız replikalar seçimden çıkarılır; hiç sağlıklı
+ * replika yoksa veya istek {@link #forcePrimary()} ile birincile sabitlenmişse (yazdığını
+ * okuma penceresi) okumalar da birincile gider.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // Yazdığını okuma: bu thread'deki istek yakın zamanda yazdıysa replikalar atlanır
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    public enum Selection {
+        ROUND_ROBIN,
+        LEAST_LATENCY
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Selection selection;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Selection selection) {
+        this.primary = primary;
+        this.selection = selection;
+    }
+
+    public void addReplica(String name, DataSource dataSource) {
+        replicas.add(new Replica(name, dataSource));
+    }
+
+    public static void forcePrimary() {
+        PRIMARY_ONLY.set(Boolean.TRUE);
+    }
+
+    public static void clearForcePrimary() {
+        PRIMARY_ONLY.remove();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = routeToReplica() ? selectReplica() : null;
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.markDown(e);
+                logger.warn("Replica {} unavailable, falling back to primary: {}", replica.name, e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    private boolean routeToReplica() {
+        return !replicas.isEmpty()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && PRIMARY_ONLY.get() == null;
+    }
+
+    private Replica selectReplica() {
+        if (selection == Selection.LEAST_LATENCY) {
+            Replica best = null;
+            for (Replica replica : replicas) {
+                if (replica.healthy && (best == null || replica.latencyMs < best.latencyMs)) {
+                    best = replica;
+                }
+            }
+            return best;
+        }
+
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Her replikaya kısa bir doğrulama bağlantısı açar; sağlık durumunu ve gecikme
+     * ortalamasını günceller. Zamanlayıcı tarafından düzenli aralıklarla çağrılır.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            long started = System.nanoTime();
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(2)) {
+                    throw new SQLException("Bağlantı doğrulanamadı");
+                }
+                replica.markUp((System.nanoTime() - started) / 1_000_000.0);
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+    }
+
+    // Bean kapanırken alttaki bağlantı havuzları da kapatılır
+    @Override
+    public void close() {
+        close(primary);
+        replicas.forEach(replica -> close(replica.dataSource));
+    }
+
+    private void close(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                logger.warn("Failed to close data source: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Havuz adı -> alttaki DataSource; birincil "primary", replikalar eklendikleri adla.
+     */
+    public Map<String, DataSource> getPools() {
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        pools.put("primary", primary);
+        replicas.forEach(replica -> pools.put(replica.name, replica.dataSource));
+        return pools;
+    }
+
+    public int getHealthyReplicaCount() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    private static final class Replica {
+        // Gecikme ortalamasında son ölçümün ağırlığı
+        private static final double LATENCY_WEIGHT = 0.3;
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile double latencyMs;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private void markUp(double sampleMs) {
+            latencyMs = latencyMs == 0 ? sampleMs : latencyMs + LATENCY_WEIGHT * (sampleMs - latencyMs);
+            if (!healthy) {
+                logger.info("Replica {} is healthy again ({} ms)", name, String.format("%.1f", latencyMs));
+                healthy = true;
+            }
+        }
+
+        private void markDown(SQLException e) {
+            if (healthy) {
+                logger.warn("Replica {} marked unhealthy: {}", name, e.getMessage());
+                healthy = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.surveyapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Her controller metodunun süresini {@code http.server.requests} zamanlayıcısına yazar.
+ * URI etiketi eşleşen kalıptır ({@code /surveys/{id}/vote}); böylece etiket sayısı
+ * ID'lerle büyümez. Statik kaynaklar ve eşleşmeyen istekler ölçülmez.
+ */
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+
+    private static final String SAMPLE_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".sample";
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            request.setAttribute(SAMPLE_ATTRIBUTE, Timer.start(meterRegistry));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(SAMPLE_ATTRIBUTE) instanceof Timer.Sample sample)) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        sample.stop(Timer.builder("http.server.requests")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .tag("handler", ((HandlerMethod) handler).getMethod().getName())
+                .tag("status", Integer.toString(response.getStatus()))
+                .tag("exception", ex != null ? ex.getClass().getSimpleName() : "none")
+                .register(meterRegistry));
+    }
+}
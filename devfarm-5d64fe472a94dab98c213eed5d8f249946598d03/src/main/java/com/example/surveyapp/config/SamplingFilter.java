@@ -0,0 +1,58 @@
+package com.example.surveyapp.config;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.filter.AbstractFilter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sıcak yollardaki (oy verme gibi) logların yalnızca her N kaydından birini geçiren log4j2 filtresi.
+ * <p>
+ * log4j2.xml'de bir Logger'ın altına yazılır ve yalnızca o kategoriye uygulanır:
+ * {@code <SamplingFilter rate="100" level="INFO"/>}. {@code level} ve daha az önemli
+ * seviyeler örneklenir; daha önemli seviyeler (varsayılanla WARN ve ERROR) her zaman geçer.
+ */
+@Plugin(name = "SamplingFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+public final class SamplingFilter extends AbstractFilter {
+
+    private final int rate;
+    private final Level level;
+    private final AtomicLong counter = new AtomicLong();
+
+    private SamplingFilter(int rate, Level level, Result onMatch, Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.rate = rate;
+        this.level = level;
+    }
+
+    @Override
+    public Result filter(LogEvent event) {
+        // log4j2'de küçük intLevel daha önemli seviyedir
+        if (rate <= 1 || event.getLevel().intLevel() < level.intLevel()) {
+            return onMatch;
+        }
+        return counter.getAndIncrement() % rate == 0 ? onMatch : onMismatch;
+    }
+
+    @Override
+    public String toString() {
+        return "SamplingFilter[rate=" + rate + ", level=" + level + "]";
+    }
+
+    @PluginFactory
+    public static SamplingFilter createFilter(@PluginAttribute(value = "rate", defaultInt = 1) int rate,
+                                              @PluginAttribute("level") Level level,
+                                              @PluginAttribute("onMatch") Result onMatch,
+                                              @PluginAttribute("onMismatch") Result onMismatch) {
+        return new SamplingFilter(rate,
+                level != null ? level : Level.INFO,
+                onMatch != null ? onMatch : Result.NEUTRAL,
+                onMismatch != null ? onMismatch : Result.DENY);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.surveyapp.config;
+
+import com.example.surveyapp.model.CacheRegions;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Hibernate ikinci seviye önbelleği: JCache API'si üzerinden bellek içi Ehcache.
+ * <p>
+ * Bütün bölgeler burada kayıt sayısıyla sınırlanarak önceden oluşturulur ve Hibernate'e
+ * eksik bölgeyi kendisi (sınırsız) oluşturmak yerine hata vermesi söylenir; böylece
+ * önbelleğin bellek kullanımı her zaman bu sınırlarla belirlidir.
+ */
+public final class SecondLevelCache {
+
+    static final List<String> ENTITY_REGIONS = List.of(
+            CacheRegions.USER, CacheRegions.SURVEY, CacheRegions.QUESTION, CacheRegions.OPTION);
+    static final List<String> COLLECTION_REGIONS = List.of(
+            CacheRegions.SURVEY_QUESTIONS, CacheRegions.QUESTION_OPTIONS);
+    static final List<String> QUERY_REGIONS = List.of(
+            CacheRegions.ACTIVE_SURVEYS_QUERY, "default-query-results-region");
+
+    // Tablo başına tek kayıt tutar; taşarsa sorgu önbelleği tutarlılığını kaybeder, o yüzden bol tutulur
+    private static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+    private static final long TIMESTAMPS_MAX_ENTRIES = 1000;
+
+    private SecondLevelCache() {
+    }
+
+    public static CacheManager createCacheManager(long entityMaxEntries, long collectionMaxEntries, long queryMaxEntries) {
+        CacheManager cacheManager = Caching.getCachingProvider(EhcacheCachingProvider.class.getName())
+                .getCacheManager();
+        ENTITY_REGIONS.forEach(region -> createRegion(cacheManager, region, entityMaxEntries));
+        COLLECTION_REGIONS.forEach(region -> createRegion(cacheManager, region, collectionMaxEntries));
+        QUERY_REGIONS.forEach(region -> createRegion(cacheManager, region, queryMaxEntries));
+        createRegion(cacheManager, TIMESTAMPS_REGION, TIMESTAMPS_MAX_ENTRIES);
+        return cacheManager;
+    }
+
+    private static void createRegion(CacheManager cacheManager, String region, long maxEntries) {
+        if (cacheManager.getCache(region) != null) {
+            cacheManager.destroyCache(region);
+        }
+        cacheManager.createCache(region, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                        ResourcePoolsBuilder.heap(maxEntries))));
+    }
+
+    /**
+     * İkinci seviye ve sorgu önbelleğini, bölge istatistikleriyle birlikte JPA ayarlarına ekler.
+     */
+    public static void configure(Properties props, CacheManager cacheManager) {
+        props.setProperty("hibernate.cache.use_second_level_cache", "true");
+        props.setProperty("hibernate.cache.use_query_cache", "true");
+        props.setProperty("hibernate.cache.region.factory_class", "jcache");
+        props.put("hibernate.javax.cache.cache_manager", cacheManager);
+        props.setProperty("hibernate.javax.cache.missing_cache_strategy", "fail");
+        // Bölge başına isabet oranları için; oturum başına istatistik logu kapalı
+        props.setProperty("hibernate.generate_statistics", "true");
+        props.setProperty("hibernate.session.events.log", "false");
+    }
+}
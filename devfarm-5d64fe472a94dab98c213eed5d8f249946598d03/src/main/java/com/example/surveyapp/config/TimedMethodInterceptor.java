@@ -0,0 +1,49 @@
+package com.example.surveyapp.config;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * {@link Timed} metotlarının süresini servis sınıfı, metot ve sonuç (istisna adı) etiketleriyle kaydeder.
+ * Metrik adı anotasyonun değeridir; boşsa {@value #DEFAULT_NAME} kullanılır.
+ */
+public class TimedMethodInterceptor implements MethodInterceptor {
+
+    static final String DEFAULT_NAME = "service.calls";
+
+    private final MeterRegistry meterRegistry;
+
+    public TimedMethodInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Class<?> targetClass = AopUtils.getTargetClass(invocation.getThis());
+            // Proxy arayüz metodunu verir; anotasyon uygulama sınıfındaki metotta
+            Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+            Timed timed = AnnotationUtils.findAnnotation(method, Timed.class);
+            String name = timed != null && !timed.value().isEmpty() ? timed.value() : DEFAULT_NAME;
+            sample.stop(Timer.builder(name)
+                    .tag("class", targetClass.getSimpleName())
+                    .tag("method", method.getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
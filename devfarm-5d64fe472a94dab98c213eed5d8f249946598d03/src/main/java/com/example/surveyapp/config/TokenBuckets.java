@@ -0,0 +1,81 @@
+package com.example.surveyapp.config;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Anahtar başına kilitsiz token bucket'lar.
+ * <p>
+ * Her bucket GCRA biçiminde tek bir AtomicLong'dur: bir sonraki token'ın teorik varış zamanı
+ * (nanoTime). İstek, bu zaman şu andan en fazla {@code burst - 1} aralık ileride ise kabul edilir
+ * ve zaman bir aralık ileri itilir; güncelleme CAS ile yapılır.
+ * <p>
+ * Anahtar sayısı {@code maxKeys} ile sınırlıdır. Sınır aşılınca önce dolmuş (boşta) bucket'lar
+ * silinir; bunları silmek davranışı değiştirmez. Yine de sığmazsa rastgele anahtarlar silinir,
+ * yani bellek her durumda sınırlı kalır.
+ */
+final class TokenBuckets {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    TokenBuckets(double ratePerSecond, int burst, int maxKeys) {
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.toleranceNanos = intervalNanos * (Math.max(burst, 1) - 1);
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Anahtarın bucket'ından bir token almayı dener.
+     *
+     * @return kabul edildiyse 0, edilmediyse bir sonraki token'a kalan süre (ns)
+     */
+    long tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                evict(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long arrival = bucket.get();
+            long start = Math.max(arrival, now);
+            if (start - now > toleranceNanos) {
+                return start - now - toleranceNanos;
+            }
+            if (bucket.compareAndSet(arrival, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    // Aynı anda tek thread temizler; diğerleri beklemeden devam eder
+    private void evict(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.values().removeIf(bucket -> bucket.get() <= now);
+            Iterator<Map.Entry<String, AtomicLong>> iterator = buckets.entrySet().iterator();
+            int target = maxKeys - maxKeys / 10;
+            while (buckets.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.surveyapp.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Sıkı yükleme modunun bekçisi.
+ * <p>
+ * Open-session-in-view ve transaction dışı lazy yükleme kapalı olduğu için bir şablonun
+ * yüklenmemiş bir ilişkiye dokunması render sırasında hata verir. Bu sınıf iki şeyi garanti eder:
+ * açılışta transaction dışı lazy yüklemenin kapalı olduğunu doğrular (açıksa uygulama başlamaz),
+ * her istekte de render başlamadan önce modelde kalıcı entity, Hibernate proxy'si veya
+ * lazy koleksiyon bulunmadığını kontrol eder. Yeni oluşturulmuş form nesneleri (ID'siz entity'ler)
+ * serbesttir; veritabanından gelen her şey görünüm modeli olarak verilmelidir.
+ */
+@Component
+public class ViewModelGuard implements HandlerInterceptor {
+
+    private static final String LAZY_LOAD_NO_TRANS = "hibernate.enable_lazy_load_no_trans";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void verifyStrictFetchMode() {
+        Object lazyLoadNoTrans = entityManagerFactory.getProperties().get(LAZY_LOAD_NO_TRANS);
+        if (lazyLoadNoTrans != null && Boolean.parseBoolean(lazyLoadNoTrans.toString())) {
+            throw new IllegalStateException(LAZY_LOAD_NO_TRANS + " açık olmamalı: şablonlar yalnızca görünüm modellerini okumalı");
+        }
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView == null || modelAndView.getViewName() == null
+                || modelAndView.getViewName().startsWith("redirect:")) {
+            return;
+        }
+        for (Map.Entry<String, Object> attribute : modelAndView.getModel().entrySet()) {
+            Object value = attribute.getValue();
+            if (value instanceof Collection<?> collection && !(value instanceof PersistentCollection<?>)) {
+                value = collection.isEmpty() ? null : collection.iterator().next();
+            }
+            if (isPersistentState(value)) {
+                throw new IllegalStateException("Şablona entity verilemez, görünüm modeli kullanılmalı: model."
+                        + attribute.getKey() + " (" + modelAndView.getViewName() + ")");
+            }
+        }
+    }
+
+    private boolean isPersistentState(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof HibernateProxy || value instanceof PersistentCollection<?>) {
+            return true;
+        }
+        return value.getClass().isAnnotationPresent(Entity.class)
+                && entityManagerFactory.getPersistenceUnitUtil().getIdentifier(value) != null;
+    }
+}
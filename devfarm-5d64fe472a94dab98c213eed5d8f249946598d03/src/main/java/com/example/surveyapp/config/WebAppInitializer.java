@@ -1,6 +1,5 @@
 package com.example.surveyapp.config;
 
-import org.springframework.orm.jpa.support.OpenEntityManagerInViewFilter;
 import org.springframework.web.filter.CharacterEncodingFilter;
 import org.springframework.web.servlet.support.AbstractAnnotationConfigDispatcherServletInitializer;
 
@@ -29,9 +28,8 @@ public class WebAppInitializer extends AbstractAnnotationConfigDispatcherServlet
         characterEncodingFilter.setEncoding("UTF-8");
         characterEncodingFilter.setForceEncoding(true);
         
-        return new Filter[] { 
-            characterEncodingFilter,
-            new OpenEntityManagerInViewFilter() 
-        };
+        // Open-session-in-view kullanılmaz: bağlantılar servis transaction'ı bitince bırakılır,
+        // şablonlar yalnızca hazırlanmış görünüm modellerini okur
+        return new Filter[] { characterEncodingFilter };
     }
 }
\ No newline at end of file
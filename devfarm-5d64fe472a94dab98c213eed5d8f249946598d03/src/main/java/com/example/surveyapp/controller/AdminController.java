@@ -1,9 +1,14 @@
 package com.example.surveyapp.controller;
 
-import com.example.surveyapp.model.Survey;
-import com.example.surveyapp.model.User;
+import com.example.surveyapp.config.CurrentUser;
+import com.example.surveyapp.dto.SessionUser;
+import com.example.surveyapp.dto.SurveyPage;
+import com.example.surveyapp.dto.SurveySummary;
+import com.example.surveyapp.dto.UserRow;
+import com.example.surveyapp.model.RollupGranularity;
 import com.example.surveyapp.service.SurveyService;
 import com.example.surveyapp.service.UserService;
+import com.example.surveyapp.service.VoteRollupService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,17 +19,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import jakarta.servlet.http.HttpSession;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/admin")
 public class AdminController {
 
     private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+    private static final int SURVEY_PAGE_SIZE = 50;
 
     @Autowired
     private UserService userService;
@@ -32,39 +37,44 @@ public class AdminController {
     @Autowired
     private SurveyService surveyService;
 
+    @Autowired
+    private VoteRollupService voteRollupService;
+
     @GetMapping
-    public String showAdminPanel(Model model, HttpSession session,
+    public String showAdminPanel(Model model, @CurrentUser SessionUser user,
                               @RequestParam(value = "success", required = false) String success,
                               @RequestParam(value = "error", required = false) String error,
-                              @RequestParam(value = "viewType", required = false, defaultValue = "thymeleaf") String viewType) {
+                              @RequestParam(value = "viewType", required = false, defaultValue = "thymeleaf") String viewType,
+                              @RequestParam(value = "cursor", required = false) String cursor) {
         logger.info("GET /admin - Showing admin panel, viewType: {}", viewType);
-        String loggedInUserEmail = (String) session.getAttribute("loggedInUser");
-        logger.debug("loggedInUserEmail: {}", loggedInUserEmail);
-        if (loggedInUserEmail == null) {
+        logger.debug("Current user: {}", user);
+        if (user == null) {
             logger.warn("No logged-in user found, redirecting to login");
             return "redirect:/login?error=" + URLEncoder.encode("Lütfen önce giriş yapın.", StandardCharsets.UTF_8);
         }
 
-        User user = userService.findUserByEmail(loggedInUserEmail);
-        logger.debug("User found: {}, role: {}", user.getEmail(), user.getRole());
-        if (!"admin".equals(user.getRole())) {
-            logger.warn("User {} does not have admin privileges, redirecting to surveys", loggedInUserEmail);
+        if (!user.isAdmin()) {
+            logger.warn("User {} does not have admin privileges, redirecting to surveys", user.getEmail());
             return "redirect:/surveys?error=" + URLEncoder.encode("Bu sayfaya erişim yetkiniz yok.", StandardCharsets.UTF_8);
         }
 
         // Tüm kullanıcıları getir (admin hariç)
-        List<User> users = userService.findAllUsers().stream()
-                .filter(u -> !"admin".equals(u.getRole()))
-                .collect(Collectors.toList());
+        List<UserRow> users = userService.getNonAdminUserRows();
         logger.debug("Found {} non-admin users", users.size());
 
-        // Tüm anketleri getir
-        List<Survey> surveys = surveyService.getAllActiveSurveys();
-        logger.debug("Found {} active surveys", surveys.size());
+        // Aktif anketleri sayfa sayfa getir
+        SurveyPage surveyPage = surveyService.getActiveSurveyPage(cursor, SURVEY_PAGE_SIZE);
+        logger.debug("Found {} active surveys on page", surveyPage.getItems().size());
 
         model.addAttribute("users", users);
-        model.addAttribute("surveys", surveys);
-        model.addAttribute("loggedInUser", loggedInUserEmail);
+        model.addAttribute("surveys", surveyPage.getItems());
+        // Listedeki anketlerin son 24 saatlik oy hareketi tek sorguyla okunur
+        model.addAttribute("activity", voteRollupService.getActivity(
+                surveyPage.getItems().stream().map(SurveySummary::getId).toList(),
+                RollupGranularity.HOUR, VoteRollupService.RECENT_HOURS, LocalDateTime.now()));
+        model.addAttribute("nextCursor", surveyPage.getNextCursor());
+        model.addAttribute("firstPage", cursor == null || cursor.isEmpty());
+        model.addAttribute("loggedInUser", user.getEmail());
         
         if (success != null) {
             model.addAttribute("success", success);
@@ -73,12 +83,10 @@ public class AdminController {
             model.addAttribute("error", error);
         }
         
-        // Debug: Model içeriğini konsola yazdır
-        System.out.println("=== MODEL CONTENT ===");
-        for (String key : model.asMap().keySet()) {
-            System.out.println(key + ": " + model.asMap().get(key));
+        // Model içeriği yalnızca debug seviyesinde yazılır (kullanıcı listesi büyük olabilir)
+        if (logger.isDebugEnabled()) {
+            logger.debug("Admin panel model: {}", model.asMap());
         }
-        System.out.println("=====================");
         
         // JSP ve Thymeleaf arasında geçiş yapmak için parametre kontrol et
         if ("jsp".equals(viewType)) {
@@ -86,27 +94,20 @@ public class AdminController {
             return "forward:/admin.jsp";
         } else {
             logger.info("Using Thymeleaf view for admin panel");
-            
-            // Thymeleaf ile ilgili bilgileri konsola yazdır
-            System.out.println("Trying to render Thymeleaf template: admin-panel.html");
-            System.out.println("Template location: classpath:/templates/admin-panel.html");
-            
             return "admin-panel";
         }
     }
 
     @PostMapping("/deactivate-survey")
-    public String deactivateSurvey(@RequestParam("surveyId") Long surveyId, HttpSession session) {
+    public String deactivateSurvey(@RequestParam("surveyId") Long surveyId, @CurrentUser SessionUser user) {
         logger.info("POST /admin/deactivate-survey - Deactivating survey with ID: {}", surveyId);
-        String loggedInUserEmail = (String) session.getAttribute("loggedInUser");
-        if (loggedInUserEmail == null) {
+        if (user == null) {
             logger.warn("No logged-in user found, redirecting to login");
             return "redirect:/login?error=" + URLEncoder.encode("Lütfen önce giriş yapın.", StandardCharsets.UTF_8);
         }
 
-        User user = userService.findUserByEmail(loggedInUserEmail);
-        if (!"admin".equals(user.getRole())) {
-            logger.warn("User {} does not have admin privileges", loggedInUserEmail);
+        if (!user.isAdmin()) {
+            logger.warn("User {} does not have admin privileges", user.getEmail());
             return "redirect:/surveys?error=" + URLEncoder.encode("Bu işlemi gerçekleştirme yetkiniz yok.", StandardCharsets.UTF_8);
         }
 
@@ -120,17 +121,15 @@ public class AdminController {
     }
 
     @PostMapping("/delete-user")
-    public String deleteUser(@RequestParam("userId") Long userId, HttpSession session) {
+    public String deleteUser(@RequestParam("userId") Long userId, @CurrentUser SessionUser admin) {
         logger.info("POST /admin/delete-user - Deleting user with ID: {}", userId);
-        String loggedInUserEmail = (String) session.getAttribute("loggedInUser");
-        if (loggedInUserEmail == null) {
+        if (admin == null) {
             logger.warn("No logged-in user found, redirecting to login");
             return "redirect:/login?error=" + URLEncoder.encode("Lütfen önce giriş yapın.", StandardCharsets.UTF_8);
         }
 
-        User admin = userService.findUserByEmail(loggedInUserEmail);
-        if (!"admin".equals(admin.getRole())) {
-            logger.warn("User {} does not have admin privileges", loggedInUserEmail);
+        if (!admin.isAdmin()) {
+            logger.warn("User {} does not have admin privileges", admin.getEmail());
             return "redirect:/surveys?error=" + URLEncoder.encode("Bu işlemi gerçekleştirme yetkiniz yok.", StandardCharsets.UTF_8);
         }
 
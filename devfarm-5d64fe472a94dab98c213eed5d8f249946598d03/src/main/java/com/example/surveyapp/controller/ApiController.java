@@ -1,5 +1,9 @@
 package com.example.surveyapp.controller;
 
+import com.example.surveyapp.config.AdmissionControlled;
+import com.example.surveyapp.config.CurrentUser;
+import com.example.surveyapp.config.Idempotent;
+import com.example.surveyapp.dto.SessionUser;
 import com.example.surveyapp.model.User;
 import com.example.surveyapp.service.UserService;
 import org.slf4j.Logger;
@@ -112,14 +116,15 @@ public class ApiController {
     }
     
     @PostMapping("/send-eth")
-    public ResponseEntity<?> sendEthToWallet(@RequestBody Map<String, Object> request, HttpSession session) {
+    @AdmissionControlled({AdmissionControlled.Key.USER, AdmissionControlled.Key.WALLET})
+    @Idempotent
+    public ResponseEntity<?> sendEthToWallet(@RequestBody Map<String, Object> request, @CurrentUser SessionUser user) {
         logger.info("POST /api/send-eth - Sending ETH to wallet");
         Map<String, Object> response = new HashMap<>();
         
         try {
             // Kullanıcı kontrolü
-            String loggedInUserEmail = (String) session.getAttribute("loggedInUser");
-            if (loggedInUserEmail == null) {
+            if (user == null) {
                 logger.warn("No logged-in user found");
                 response.put("success", false);
                 response.put("message", "Lütfen önce giriş yapın");
@@ -144,8 +149,6 @@ public class ApiController {
                 return ResponseEntity.badRequest().body(response);
             }
             
-            User user = userService.findUserByEmail(loggedInUserEmail);
-            
             // Cüzdan adresi uyumu kontrolü
             if (user.getWalletAddress() == null || !user.getWalletAddress().equalsIgnoreCase(walletAddress)) {
                 logger.warn("Wallet address mismatch. User: {}, Request: {}", 
@@ -0,0 +1,22 @@
+package com.example.surveyapp.controller;
+
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Prometheus'un kazıdığı uç nokta; tüm metrikler metin formatında (0.0.4) döner.
+ */
+@RestController
+public class MetricsController {
+
+    @Autowired
+    private PrometheusMeterRegistry meterRegistry;
+
+    @GetMapping(value = "/metrics", produces = TextFormat.CONTENT_TYPE_004)
+    public String scrape() {
+        return meterRegistry.scrape();
+    }
+}
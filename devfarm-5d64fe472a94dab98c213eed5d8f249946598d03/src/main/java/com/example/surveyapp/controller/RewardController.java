@@ -1,8 +1,10 @@
 package com.example.surveyapp.controller;
 
-import com.example.surveyapp.model.User;
+import com.example.surveyapp.config.AdmissionControlled;
+import com.example.surveyapp.config.CurrentUser;
+import com.example.surveyapp.config.Idempotent;
+import com.example.surveyapp.dto.SessionUser;
 import com.example.surveyapp.service.RewardService;
-import com.example.surveyapp.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,9 +12,9 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.servlet.http.HttpSession;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.UUID;
 
 @Controller
 @RequestMapping("/rewards")
@@ -20,32 +22,28 @@ public class RewardController {
 
     private static final Logger logger = LoggerFactory.getLogger(RewardController.class);
 
-    @Autowired
-    private UserService userService;
-
     @Autowired
     private RewardService rewardService;
 
     @GetMapping
-    public String showRewardsPage(Model model, HttpSession session) {
+    public String showRewardsPage(Model model, @CurrentUser SessionUser user) {
         logger.info("GET /rewards - Showing rewards page");
         
         // Kullanıcı giriş yapmış mı kontrol et
-        String loggedInUserEmail = (String) session.getAttribute("loggedInUser");
-        if (loggedInUserEmail == null) {
+        if (user == null) {
             logger.warn("No logged-in user found, redirecting to login");
             return "redirect:/login?error=" + URLEncoder.encode("Lütfen önce giriş yapın.", StandardCharsets.UTF_8);
         }
         
-        // Kullanıcı bilgilerini getir
-        User user = userService.findUserByEmail(loggedInUserEmail);
-        
         // Model'e veri ekle
         model.addAttribute("user", user);
-        model.addAttribute("loggedInUser", loggedInUserEmail);
+        model.addAttribute("loggedInUser", user.getEmail());
         model.addAttribute("userPoints", user.getPoints());
-        model.addAttribute("hasWallet", user.getWalletAddress() != null && !user.getWalletAddress().isEmpty());
+        model.addAttribute("hasWallet", user.getHasWallet());
         model.addAttribute("walletAddress", user.getWalletAddress());
+        model.addAttribute("payouts", rewardService.getRecentPayouts(user.getId()));
+        // Tekrarlanan dönüştürme isteği ikinci bir ödeme oluşturmaz
+        model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
         
         // Test ağı bilgilerini gönder
         model.addAttribute("chainId", "11155112");
@@ -56,27 +54,25 @@ public class RewardController {
     }
     
     @PostMapping("/convert")
+    @AdmissionControlled({AdmissionControlled.Key.USER, AdmissionControlled.Key.WALLET})
+    @Idempotent
     public String convertPointsToEth(@RequestParam("points") int points, 
                                     @RequestParam("walletAddress") String walletAddress,
-                                    HttpSession session, Model model) {
+                                    @CurrentUser SessionUser currentUser, Model model) {
         logger.info("POST /rewards/convert - Converting points to ETH");
         
         // Kullanıcı giriş yapmış mı kontrol et
-        String loggedInUserEmail = (String) session.getAttribute("loggedInUser");
-        if (loggedInUserEmail == null) {
+        if (currentUser == null) {
             logger.warn("No logged-in user found, redirecting to login");
             return "redirect:/login?error=" + URLEncoder.encode("Lütfen önce giriş yapın.", StandardCharsets.UTF_8);
         }
         
         try {
-            // Kullanıcı bilgilerini getir
-            User user = userService.findUserByEmail(loggedInUserEmail);
-            
-            // Puanları ETH'ye çevir
-            var result = rewardService.convertPointsToEth(user, walletAddress, points);
+            // Puanları ETH'ye çevir - puan ve cüzdan kontrolü servis içinde güncel kayıt üzerinden yapılır
+            var result = rewardService.convertPointsToEth(currentUser.getId(), walletAddress, points);
             
             if ((boolean) result.get("success")) {
-                logger.info("Successfully converted points to ETH for user: {}", loggedInUserEmail);
+                logger.info("Successfully converted points to ETH for user: {}", currentUser.getEmail());
                 return "redirect:/rewards?success=" + URLEncoder.encode((String) result.get("message"), StandardCharsets.UTF_8);
             } else {
                 logger.warn("Failed to convert points to ETH: {}", result.get("message"));
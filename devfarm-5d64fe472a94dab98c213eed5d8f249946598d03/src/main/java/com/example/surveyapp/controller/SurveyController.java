@@ -1,57 +1,100 @@
 package com.example.surveyapp.controller;
 
+import com.example.surveyapp.config.AdmissionControlled;
+import com.example.surveyapp.config.CurrentUser;
+import com.example.surveyapp.config.Idempotent;
+import com.example.surveyapp.dto.AnswerFilter;
+import com.example.surveyapp.dto.SessionUser;
+import com.example.surveyapp.dto.SurveyDefinition;
+import com.example.surveyapp.dto.SurveyPage;
+import com.example.surveyapp.dto.SurveyResults;
+import com.example.surveyapp.dto.SurveySummary;
 import com.example.surveyapp.model.Option;
 import com.example.surveyapp.model.Question;
+import com.example.surveyapp.model.RollupGranularity;
 import com.example.surveyapp.model.Survey;
-import com.example.surveyapp.model.User;
-import com.example.surveyapp.model.Vote;
-import com.example.surveyapp.repository.VoteRepository;
+import com.example.surveyapp.service.ResultsSnapshotService;
+import com.example.surveyapp.service.SurveyAnalyticsService;
+import com.example.surveyapp.service.SurveyResultsService;
 import com.example.surveyapp.service.SurveyService;
-import com.example.surveyapp.service.UserService;
+import com.example.surveyapp.service.VoteRollupService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 @Controller
 @RequestMapping("/surveys")
 public class SurveyController {
 
     private static final Logger logger = LoggerFactory.getLogger(SurveyController.class);
+    private static final int SURVEY_PAGE_SIZE = 20;
+    private static final int VOTE_PAGE_SIZE = 50;
+
+    // Tomcat'in sendfile istek öznitelikleri (bkz. DefaultServlet)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
 
     @Autowired
     private SurveyService surveyService;
 
     @Autowired
-    private UserService userService;
+    private SurveyResultsService surveyResultsService;
+
+    @Autowired
+    private ResultsSnapshotService resultsSnapshotService;
 
     @Autowired
-    private VoteRepository voteRepository;
+    private VoteRollupService voteRollupService;
+
+    @Autowired
+    private SurveyAnalyticsService surveyAnalyticsService;
 
     @GetMapping
-    public String listSurveys(@RequestParam(value = "success", required = false) String success, Model model, HttpSession session) {
+    public String listSurveys(@RequestParam(value = "success", required = false) String success,
+                              @RequestParam(value = "cursor", required = false) String cursor,
+                              Model model, @CurrentUser SessionUser user) {
         logger.info("GET /surveys - Listing surveys");
-        String loggedInUser = (String) session.getAttribute("loggedInUser");
-        if (loggedInUser == null) {
+        if (user == null) {
             logger.warn("No logged-in user found, redirecting to login");
             return "redirect:/login?error=" + URLEncoder.encode("Lütfen önce giriş yapın.", StandardCharsets.UTF_8);
         }
-        List<Survey> surveys = surveyService.getAllActiveSurveys();
-        logger.info("Loaded {} surveys to display", surveys.size());
-        User user = userService.findUserByEmail(loggedInUser);
-        model.addAttribute("surveys", surveys);
-        model.addAttribute("loggedInUser", loggedInUser);
+        SurveyPage page = surveyService.getActiveSurveyPage(cursor, SURVEY_PAGE_SIZE);
+        logger.info("Loaded {} surveys to display", page.getItems().size());
+        model.addAttribute("surveys", page.getItems());
+        model.addAttribute("votedSurveyIds", surveyService.getVotedSurveyIds(user.getId(),
+                page.getItems().stream().map(SurveySummary::getId).collect(Collectors.toList())));
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("firstPage", cursor == null || cursor.isEmpty());
+        model.addAttribute("loggedInUser", user.getEmail());
         model.addAttribute("userPoints", user.getPoints());
         model.addAttribute("user", user); // Role için user nesnesini ekle
         model.addAttribute("success", success != null ? URLDecoder.decode(success, StandardCharsets.UTF_8) : null);
@@ -60,35 +103,25 @@ public class SurveyController {
     }
 
     @GetMapping("/create")
-    public String showCreateSurveyForm(Model model, HttpSession session) {
+    public String showCreateSurveyForm(Model model, @CurrentUser SessionUser currentUser) {
         logger.info("GET /surveys/create - Showing create survey form");
-        String loggedInUser = (String) session.getAttribute("loggedInUser");
-        if (loggedInUser == null) {
+        if (currentUser == null) {
             logger.warn("No logged-in user found, redirecting to login");
             return "redirect:/login?error=" + URLEncoder.encode("Lütfen önce giriş yapın.", StandardCharsets.UTF_8);
         }
-        model.addAttribute("loggedInUser", loggedInUser);
+        model.addAttribute("loggedInUser", currentUser.getEmail());
         model.addAttribute("survey", new Survey());
         return "survey-create";
     }
 
     @PostMapping("/create")
-    public String createSurvey(@ModelAttribute Survey survey, Model model, HttpSession session) {
+    public String createSurvey(@ModelAttribute Survey survey, Model model, @CurrentUser SessionUser currentUser) {
         logger.info("POST /surveys/create - Creating survey with title: {}", survey.getTitle());
-        String loggedInUserEmail = (String) session.getAttribute("loggedInUser");
-        if (loggedInUserEmail == null) {
+        if (currentUser == null) {
             logger.warn("No logged-in user found, redirecting to login");
             return "redirect:/login?error=" + URLEncoder.encode("Lütfen önce giriş yapın.", StandardCharsets.UTF_8);
         }
         try {
-            User user = userService.findUserByEmail(loggedInUserEmail);
-            if (user == null) {
-                logger.error("User not found with email: {}", loggedInUserEmail);
-                model.addAttribute("error", "Kullanıcı bulunamadı");
-                return "survey-create";
-            }
-
-            survey.setCreatedBy(user);
             survey.setActive(true);
 
             logger.debug("Received survey data: Title={}, Description={}, Questions={}", survey.getTitle(), survey.getDescription(), survey.getQuestions());
@@ -148,7 +181,7 @@ public class SurveyController {
                 return "survey-create";
             }
             
-            surveyService.createSurvey(survey, user);
+            surveyService.createSurvey(survey, currentUser.getId());
             logger.info("Survey created successfully with title: {} and {} questions", survey.getTitle(), survey.getQuestions() != null ? survey.getQuestions().size() : 0);
             return "redirect:/surveys?success=" + URLEncoder.encode("Anket başarıyla oluşturuldu!", StandardCharsets.UTF_8);
         } catch (Exception e) {
@@ -163,38 +196,23 @@ public class SurveyController {
     public String showSurveyDetails(@PathVariable(name = "id") Long id, 
                                    @RequestParam(value = "error", required = false) String error,
                                    @RequestParam(value = "success", required = false) String success,
-                                   Model model, HttpSession session) {
+                                   Model model, @CurrentUser SessionUser currentUser) {
         logger.info("GET /surveys/{} - Starting survey detail view", id);
         
         try {
             // Kullanıcı kontrolü
-            String loggedInUserEmail = (String) session.getAttribute("loggedInUser");
-            if (loggedInUserEmail == null) {
+            if (currentUser == null) {
                 logger.warn("No logged-in user, redirecting to login");
                 return "redirect:/login?error=" + URLEncoder.encode("Lütfen giriş yapın", StandardCharsets.UTF_8);
             }
             
-            // Temel işlemler
-            User currentUser = userService.findUserByEmail(loggedInUserEmail);
-            if (currentUser == null) {
-                logger.error("User not found with email: {}", loggedInUserEmail);
-                return "redirect:/login?error=" + URLEncoder.encode("Kullanıcı bilgileri bulunamadı", StandardCharsets.UTF_8);
-            }
-            
-            Survey survey = null;
+            SurveyDefinition survey = null;
             
             try {
-                // Anket yükleme
-                survey = surveyService.getSurveyById(id);
-                
-                if (survey == null) {
-                    logger.warn("Survey not found with ID: {}", id);
-                    return "redirect:/surveys?error=" + URLEncoder.encode("Anket bulunamadı", StandardCharsets.UTF_8);
-                }
+                // Anket yapısı önbellekten gelir
+                survey = surveyService.getSurveyDefinition(id);
                 
-                logger.info("Found survey: {}, with {} questions", 
-                    survey.getTitle(), 
-                    survey.getQuestions() != null ? survey.getQuestions().size() : 0);
+                logger.info("Found survey: {}, with {} questions", survey.getTitle(), survey.getQuestions().size());
             } catch (Exception e) {
                 logger.error("Error retrieving survey: {}", e.getMessage());
                 return "redirect:/surveys?error=" + URLEncoder.encode("Anket yüklenirken hata oluştu: " + e.getMessage(), StandardCharsets.UTF_8);
@@ -202,21 +220,18 @@ public class SurveyController {
             
             // Determine if user has already voted on this survey
             boolean hasVoted = false;
-            if (survey.getQuestions() != null && !survey.getQuestions().isEmpty()) {
-                // Check if user has voted on the first question
-                Question firstQuestion = survey.getQuestions().get(0);
-                hasVoted = voteRepository.existsByUserAndQuestion(currentUser, firstQuestion);
+            if (!survey.getQuestions().isEmpty()) {
+                hasVoted = surveyService.hasVotedOnSurvey(currentUser.getId(), id);
                 logger.debug("User {} has voted on survey {}: {}", currentUser.getEmail(), id, hasVoted);
             }
             
             // Model verilerini ekle
             model.addAttribute("survey", survey);
-            model.addAttribute("loggedInUser", loggedInUserEmail);
-            boolean isOwner = survey.getCreatedBy() != null && 
-                    currentUser != null && 
-                    survey.getCreatedBy().getId().equals(currentUser.getId());
-            model.addAttribute("isOwner", isOwner);
+            model.addAttribute("loggedInUser", currentUser.getEmail());
+            model.addAttribute("isOwner", survey.isOwnedBy(currentUser.getId()));
             model.addAttribute("hasVoted", hasVoted);
+            // Formun çift gönderimi tekrar oy denemesi yerine ilk sonucu alır
+            model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
             
             // Add error and success messages if they exist
             if (error != null) {
@@ -234,101 +249,49 @@ public class SurveyController {
     }
 
     @PostMapping("/{id}/vote")
-    public String voteSurvey(@PathVariable(name = "id") Long id, @RequestParam Map<String, String> allParams, HttpSession session) {
+    @AdmissionControlled({AdmissionControlled.Key.USER, AdmissionControlled.Key.SURVEY})
+    @Idempotent
+    public String voteSurvey(@PathVariable(name = "id") Long id, @RequestParam Map<String, String> allParams,
+                             @CurrentUser SessionUser currentUser) {
         logger.info("POST /surveys/{}/vote - Starting vote handling", id);
         
         try {
             // Kullanıcı kontrolü
-            String loggedInUserEmail = (String) session.getAttribute("loggedInUser");
-            if (loggedInUserEmail == null) {
+            if (currentUser == null) {
                 logger.warn("No logged-in user, redirecting to login");
                 return "redirect:/login?error=" + URLEncoder.encode("Lütfen giriş yapın", StandardCharsets.UTF_8);
             }
             
-            User user = userService.findUserByEmail(loggedInUserEmail);
-            if (user == null) {
-                logger.error("User not found: {}", loggedInUserEmail);
-                return "redirect:/login?error=" + URLEncoder.encode("Kullanıcı bilgileri bulunamadı", StandardCharsets.UTF_8);
-            }
-            
-            // Anket kontrolü 
-            Survey survey = null;
-            try {
-                survey = surveyService.getSurveyById(id);
-                if (survey == null) {
-                    logger.warn("Survey not found with ID: {}", id);
-                    return "redirect:/surveys?error=" + URLEncoder.encode("Anket bulunamadı", StandardCharsets.UTF_8);
-                }
-                
-                if (!survey.getActive()) {
-                    logger.warn("Attempted to vote on inactive survey: {}", id);
-                    return "redirect:/surveys/" + id + "?error=" + URLEncoder.encode("Bu anket artık aktif değil", StandardCharsets.UTF_8);
-                }
-                
-                // Check if the user created this survey - creators shouldn't vote on their own surveys
-                if (survey.getCreatedBy() != null && user.getId().equals(survey.getCreatedBy().getId())) {
-                    logger.warn("User {} attempted to vote on their own survey: {}", user.getEmail(), id);
-                    return "redirect:/surveys/" + id + "?error=" + URLEncoder.encode("Kendi anketinize oy veremezsiniz", StandardCharsets.UTF_8);
-                }
-            } catch (Exception e) {
-                logger.error("Error retrieving survey: {}", e.getMessage());
-                return "redirect:/surveys?error=" + URLEncoder.encode("Anket yüklenirken hata oluştu: " + e.getMessage(), StandardCharsets.UTF_8);
-            }
-            
             // Log the received parameters for debugging
             logger.debug("Received parameters: {}", allParams);
             
-            // Oy işlemi
-            boolean voteRegistered = false;
-            StringBuilder errors = new StringBuilder();
-            
-            // Count how many questions in the survey
-            int totalQuestions = survey.getQuestions() != null ? survey.getQuestions().size() : 0;
-            int answeredQuestions = 0;
-            
-            for (String key : allParams.keySet()) {
-                if (key != null && key.startsWith("option-")) {
-                    try {
-                        Long questionId = Long.parseLong(key.replace("option-", ""));
-                        String optionValue = allParams.get(key);
-                        
-                        if (optionValue == null || optionValue.isEmpty()) {
-                            logger.warn("Empty option value for question ID: {}", questionId);
+            // Oy pusulasını oluştur: soru ID -> seçenek ID
+            Map<Long, Long> ballot = new LinkedHashMap<>();
+            try {
+                for (Map.Entry<String, String> param : allParams.entrySet()) {
+                    if (param.getKey() != null && param.getKey().startsWith("option-")) {
+                        if (param.getValue() == null || param.getValue().isEmpty()) {
+                            logger.warn("Empty option value for parameter: {}", param.getKey());
                             continue;
                         }
-                        
-                        Long optionId = Long.parseLong(optionValue);
-                        
-                        logger.info("Processing vote - Question ID: {}, Option ID: {}", questionId, optionId);
-                        surveyService.vote(questionId, optionId, user);
-                        voteRegistered = true;
-                        answeredQuestions++;
-                    } catch (NumberFormatException e) {
-                        logger.error("Invalid number format in vote parameters: {}", e.getMessage());
-                        errors.append("Geçersiz sayı formatı; ");
-                    } catch (Exception e) {
-                        logger.error("Error processing vote: {}", e.getMessage());
-                        errors.append(e.getMessage()).append("; ");
+                        ballot.put(Long.parseLong(param.getKey().replace("option-", "")), Long.parseLong(param.getValue()));
                     }
                 }
+            } catch (NumberFormatException e) {
+                logger.error("Invalid number format in vote parameters: {}", e.getMessage());
+                return "redirect:/surveys/" + id + "?error=" + URLEncoder.encode("Oy verme sırasında hatalar oluştu: Geçersiz sayı formatı", StandardCharsets.UTF_8);
             }
             
-            // Check if all questions were answered
-            if (answeredQuestions < totalQuestions) {
-                logger.warn("Not all questions were answered: {}/{} for survey: {}", answeredQuestions, totalQuestions, id);
-                return "redirect:/surveys/" + id + "?error=" + URLEncoder.encode("Lütfen tüm soruları yanıtlayın", StandardCharsets.UTF_8);
-            }
-            
-            if (!voteRegistered) {
-                String errorMsg = errors.length() > 0 ? 
-                        "Oy verme sırasında hatalar oluştu: " + errors.toString() : 
-                        "Hiçbir oy kaydedilemedi";
-                logger.warn("{} for survey: {}, user: {}", errorMsg, id, user.getEmail());
-                return "redirect:/surveys/" + id + "?error=" + URLEncoder.encode(errorMsg, StandardCharsets.UTF_8);
+            // Oy işlemi - tüm cevaplar tek transaction içinde kaydedilir
+            try {
+                surveyService.submitBallot(id, ballot, currentUser.getId());
+            } catch (RuntimeException e) {
+                logger.warn("Ballot rejected for survey: {}, user: {}: {}", id, currentUser.getEmail(), e.getMessage());
+                return "redirect:/surveys/" + id + "?error=" + URLEncoder.encode(e.getMessage(), StandardCharsets.UTF_8);
             }
             
             // Başarılı
-            logger.info("Vote successful for survey: {}, user: {}", id, user.getEmail());
+            logger.info("Vote successful for survey: {}, user: {}", id, currentUser.getEmail());
             return "redirect:/surveys/" + id + "?success=" + URLEncoder.encode("Oyunuz başarıyla kaydedildi! +5 puan kazandınız.", StandardCharsets.UTF_8);
         } catch (Exception e) {
             logger.error("Unexpected error during voting: {}", e.getMessage(), e);
@@ -337,67 +300,282 @@ public class SurveyController {
     }
 
     @GetMapping("/{id}/results")
-    public String showSurveyResults(@PathVariable(name = "id") Long id, Model model, HttpSession session) {
+    public String showSurveyResults(@PathVariable(name = "id") Long id,
+                                    @RequestParam(value = "votesPage", required = false) Integer votesPage,
+                                    Model model, @CurrentUser SessionUser user, Locale locale,
+                                    HttpServletRequest request, HttpServletResponse response) throws IOException {
         logger.info("GET /surveys/{}/results - Showing survey results", id);
-        String loggedInUserEmail = (String) session.getAttribute("loggedInUser");
-        if (loggedInUserEmail == null) {
+        if (user == null) {
             logger.warn("No logged-in user found, redirecting to login");
             return "redirect:/login?error=" + URLEncoder.encode("Lütfen önce giriş yapın.", StandardCharsets.UTF_8);
         }
 
-        Survey survey = surveyService.getSurveyById(id);
+        SurveyDefinition survey = findSurveyDefinition(id);
         if (survey == null) {
-            logger.warn("Survey not found with ID: {}", id);
             return "redirect:/surveys?error=" + URLEncoder.encode("Anket bulunamadı.", StandardCharsets.UTF_8);
         }
 
         // Yetki kontrolü: Sadece anket sahibi sonuçları görebilir
-        if (!survey.getCreatedBy().getEmail().equals(loggedInUserEmail)) {
-            logger.warn("User {} is not authorized to view results of survey {}", loggedInUserEmail, id);
+        if (!survey.isOwnedBy(user.getId())) {
+            logger.warn("User {} is not authorized to view results of survey {}", user.getEmail(), id);
             return "redirect:/surveys/" + id + "?error=" + URLEncoder.encode("Bu anketin sonuçlarını görme yetkiniz yok.", StandardCharsets.UTF_8);
         }
 
-        // Anket sonuçlarını al
-        List<Vote> votes = surveyService.getVotesBySurvey(id);
-        User user = userService.findUserByEmail(loggedInUserEmail);
+        // Bitmiş anketin sonuçları değişmez: önceden üretilmiş sayfa dosyadan gönderilir,
+        // oy listesi veya başka dil istendiğinde sayımlar görüntü satırından alınır
+        SurveyResults results = null;
+        if (!survey.getActive()) {
+            if (votesPage == null && ResultsSnapshotService.SNAPSHOT_LOCALE.equals(locale)) {
+                ResultsSnapshotService.Artifact artifact = resultsSnapshotService.getArtifact(survey, ResultsSnapshotService.Format.HTML);
+                if (artifact != null) {
+                    sendArtifact(artifact, request, response);
+                    return null;
+                }
+            }
+            results = resultsSnapshotService.getResults(survey);
+        }
+
+        // Anket sonuçlarını al - sayımlar veritabanında toplanır
+        if (results == null) {
+            results = surveyResultsService.getResults(id);
+        }
         model.addAttribute("survey", survey);
-        model.addAttribute("votes", votes);
-        model.addAttribute("loggedInUser", loggedInUserEmail);
+        model.addAttribute("results", results);
+        model.addAttribute("activity", voteRollupService.getRecentActivity(survey));
+        // Tekil oylar yalnızca istendiğinde sayfa sayfa yüklenir
+        if (votesPage != null) {
+            model.addAttribute("votes", surveyResultsService.getVoteRows(id, votesPage, VOTE_PAGE_SIZE));
+        }
+        model.addAttribute("loggedInUser", user.getEmail());
         model.addAttribute("userPoints", user.getPoints());
         return "survey-results";
     }
 
+    /**
+     * Çapraz analiz: satır ve sütun sorusunun çapraz tablosu, sütun sorusunun dağılımı ve
+     * zaman dilimlerine göre kırılımı. Filtre seçenekleri ve zaman aralığı üçüne de uygulanır.
+     */
+    @GetMapping("/{id}/analytics")
+    public String showSurveyAnalytics(@PathVariable(name = "id") Long id,
+                                      @RequestParam(value = "rowQuestion", required = false) Long rowQuestionId,
+                                      @RequestParam(value = "columnQuestion", required = false) Long columnQuestionId,
+                                      @RequestParam(value = "filter", required = false) List<Long> filterOptionIds,
+                                      @RequestParam(value = "from", required = false)
+                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                      @RequestParam(value = "to", required = false)
+                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                      @RequestParam(value = "segment", defaultValue = "DAY") RollupGranularity segment,
+                                      Model model, @CurrentUser SessionUser user) {
+        logger.info("GET /surveys/{}/analytics - Showing survey analytics", id);
+        if (user == null) {
+            logger.warn("No logged-in user found, redirecting to login");
+            return "redirect:/login?error=" + URLEncoder.encode("Lütfen önce giriş yapın.", StandardCharsets.UTF_8);
+        }
+
+        SurveyDefinition survey = findSurveyDefinition(id);
+        if (survey == null) {
+            return "redirect:/surveys?error=" + URLEncoder.encode("Anket bulunamadı.", StandardCharsets.UTF_8);
+        }
+        if (!survey.isOwnedBy(user.getId())) {
+            logger.warn("User {} is not authorized to view analytics of survey {}", user.getEmail(), id);
+            return "redirect:/surveys/" + id + "?error=" + URLEncoder.encode("Bu anketin sonuçlarını görme yetkiniz yok.", StandardCharsets.UTF_8);
+        }
+
+        model.addAttribute("survey", survey);
+        model.addAttribute("segment", segment);
+        model.addAttribute("granularities", RollupGranularity.values());
+        model.addAttribute("from", from);
+        model.addAttribute("to", to);
+        model.addAttribute("loggedInUser", user.getEmail());
+        model.addAttribute("userPoints", user.getPoints());
+        if (survey.getQuestions().isEmpty()) {
+            model.addAttribute("filter", AnswerFilter.NONE);
+            return "survey-analytics";
+        }
+
+        // Varsayılan: ilk soru satırlarda, ikinci soru (yoksa yine ilki) sütunlarda
+        if (rowQuestionId == null) {
+            rowQuestionId = survey.getQuestions().get(0).getId();
+        }
+        if (columnQuestionId == null) {
+            columnQuestionId = survey.getQuestions().get(Math.min(1, survey.getQuestions().size() - 1)).getId();
+        }
+        model.addAttribute("rowQuestionId", rowQuestionId);
+        model.addAttribute("columnQuestionId", columnQuestionId);
+        try {
+            AnswerFilter filter = AnswerFilter.of(survey, filterOptionIds, from, to);
+            model.addAttribute("filter", filter);
+            model.addAttribute("respondents", surveyAnalyticsService.countRespondents(survey, filter));
+            model.addAttribute("crosstab", surveyAnalyticsService.crosstab(survey, rowQuestionId, columnQuestionId, filter));
+            model.addAttribute("breakdown", surveyAnalyticsService.breakdown(survey, columnQuestionId, filter));
+            model.addAttribute("segments", surveyAnalyticsService.segmentByTime(survey, columnQuestionId, filter, segment));
+        } catch (RuntimeException e) {
+            logger.warn("Error computing analytics for survey {}: {}", id, e.getMessage());
+            if (!model.containsAttribute("filter")) {
+                model.addAttribute("filter", AnswerFilter.NONE);
+            }
+            model.addAttribute("error", e.getMessage());
+        }
+        return "survey-analytics";
+    }
+
+    @GetMapping("/{id}/results.json")
+    public void exportSurveyResults(@PathVariable(name = "id") Long id, @CurrentUser SessionUser user,
+                                    HttpServletRequest request, HttpServletResponse response) throws IOException {
+        logger.info("GET /surveys/{}/results.json - Exporting results", id);
+        if (user == null) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        SurveyDefinition survey = findSurveyDefinition(id);
+        if (survey == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!survey.isOwnedBy(user.getId())) {
+            logger.warn("User {} is not authorized to export results of survey {}", user.getEmail(), id);
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+
+        SurveyResults results = null;
+        if (!survey.getActive()) {
+            ResultsSnapshotService.Artifact artifact = resultsSnapshotService.getArtifact(survey, ResultsSnapshotService.Format.JSON);
+            if (artifact != null) {
+                sendArtifact(artifact, request, response);
+                return;
+            }
+            results = resultsSnapshotService.getResults(survey);
+        }
+        if (results == null) {
+            results = surveyResultsService.getResults(id);
+        }
+        response.setContentType(ResultsSnapshotService.Format.JSON.getContentType());
+        ResultsSnapshotService.writeJson(results, response.getOutputStream());
+    }
+
+    @GetMapping("/{id}/results/votes.csv")
+    public void exportSurveyVotes(@PathVariable(name = "id") Long id, @CurrentUser SessionUser user,
+                                  HttpServletResponse response) throws IOException {
+        logger.info("GET /surveys/{}/results/votes.csv - Exporting votes", id);
+        if (user == null) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        SurveyDefinition survey = findSurveyDefinition(id);
+        if (survey == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!survey.isOwnedBy(user.getId())) {
+            logger.warn("User {} is not authorized to export votes of survey {}", user.getEmail(), id);
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+
+        response.setContentType("text/csv; charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"survey-" + id + "-votes.csv\"");
+        surveyResultsService.exportVoteRows(id, response.getWriter());
+    }
+
+    /**
+     * Anket yapısını önbellekten getirir; anket yoksa hata yerine null döner ki çağıran
+     * yönlendirme veya 404 ile yanıt verebilsin.
+     */
+    private SurveyDefinition findSurveyDefinition(Long id) {
+        try {
+            return surveyService.getSurveyDefinition(id);
+        } catch (RuntimeException e) {
+            logger.warn("Survey not found with ID: {}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Önceden üretilmiş gzip'li sonuç dosyasını gönderir. İstemci gzip kabul ediyorsa dosya
+     * olduğu gibi, kopyalanmadan yazılır: Tomcat destekliyorsa sendfile ile, değilse
+     * FileChannel.transferTo ile. ETag içeriğin özetidir; If-None-Match eşleşirse 304 döner.
+     */
+    private void sendArtifact(ResultsSnapshotService.Artifact artifact, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        boolean gzip = acceptsGzip(request);
+        // Gzip'li ve açık gösterimin baytları farklıdır, güçlü ETag'leri de ayrı tutulur
+        String etag = "\"" + artifact.getEtag() + (gzip ? "-gzip" : "") + "\"";
+        response.setHeader("Vary", "Accept-Encoding");
+        // Sonuçlar yalnızca anket sahibine gösterilir; tarayıcı saklayabilir ama her seferinde doğrular
+        response.setHeader("Cache-Control", "private, no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        response.setContentType(artifact.getFormat().getContentType());
+        if (!gzip) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(artifact.getPath()))) {
+                in.transferTo(response.getOutputStream());
+            }
+            return;
+        }
+
+        response.setHeader("Content-Encoding", "gzip");
+        response.setContentLengthLong(artifact.getLength());
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, artifact.getPath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, artifact.getLength());
+            return;
+        }
+        try (FileChannel file = FileChannel.open(artifact.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < artifact.getLength()) {
+                position += file.transferTo(position, artifact.getLength() - position, out);
+            }
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
     @GetMapping("/my-surveys")
-    public String listMySurveys(Model model, HttpSession session) {
+    public String listMySurveys(Model model, @CurrentUser SessionUser user) {
         logger.info("GET /surveys/my-surveys - Listing my surveys");
-        String loggedInUserEmail = (String) session.getAttribute("loggedInUser");
-        if (loggedInUserEmail == null) {
+        if (user == null) {
             logger.warn("No logged-in user found, redirecting to login");
             return "redirect:/login?error=" + URLEncoder.encode("Lütfen önce giriş yapın.", StandardCharsets.UTF_8);
         }
 
-        User user = userService.findUserByEmail(loggedInUserEmail);
-        List<Survey> mySurveys = surveyService.getSurveysByUser(user);
-        logger.info("Loaded {} surveys for user {}", mySurveys.size(), loggedInUserEmail);
+        List<SurveySummary> mySurveys = surveyService.getSurveySummariesByUser(user.getId());
+        logger.info("Loaded {} surveys for user {}", mySurveys.size(), user.getEmail());
         model.addAttribute("surveys", mySurveys);
-        model.addAttribute("loggedInUser", loggedInUserEmail);
+        model.addAttribute("loggedInUser", user.getEmail());
         model.addAttribute("userPoints", user.getPoints());
         return "my-surveys";
     }
 
     @PostMapping("/{id}/end")
-    public String endSurvey(@PathVariable(name = "id") Long id, HttpSession session) {
+    public String endSurvey(@PathVariable(name = "id") Long id, @CurrentUser SessionUser currentUser) {
         logger.info("POST /surveys/{}/end - Ending survey", id);
-        String loggedInUserEmail = (String) session.getAttribute("loggedInUser");
-        if (loggedInUserEmail == null) {
+        if (currentUser == null) {
             logger.warn("No logged-in user found, redirecting to login");
             return "redirect:/login?error=" + URLEncoder.encode("Lütfen önce giriş yapın.", StandardCharsets.UTF_8);
         }
 
         try {
-            User user = userService.findUserByEmail(loggedInUserEmail);
-            surveyService.endSurvey(id, user);
-            logger.info("Survey {} ended by user {}", id, loggedInUserEmail);
+            surveyService.endSurvey(id, currentUser);
+            logger.info("Survey {} ended by user {}", id, currentUser.getEmail());
             return "redirect:/surveys/my-surveys?success=" + URLEncoder.encode("Anket başarıyla sonlandırıldı!", StandardCharsets.UTF_8);
         } catch (RuntimeException e) {
             logger.error("Error ending survey: {}", e.getMessage(), e);
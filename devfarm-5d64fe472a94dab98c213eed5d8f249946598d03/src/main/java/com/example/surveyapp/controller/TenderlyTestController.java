@@ -1,5 +1,6 @@
 package com.example.surveyapp.controller;
 
+import com.example.surveyapp.service.JsonRpcClient;
 import com.example.surveyapp.service.TenderlyBalanceService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,9 +26,9 @@ public class TenderlyTestController {
 
     @Autowired
     private TenderlyBalanceService tenderlyBalanceService;
-    
-    // URL'yi sabit tanımlama
-    private final String tenderlyRpcUrl = "https://virtual.sepolia.rpc.tenderly.co/d88ec9b6-956d-486e-b852-76fcd37861b3";
+
+    @Autowired
+    private JsonRpcClient jsonRpcClient;
 
     /**
      * Test amaçlı basit endpoint - cüzdana 1 ETH yükler
@@ -39,7 +40,7 @@ public class TenderlyTestController {
         Map<String, Object> response = new HashMap<>();
         response.put("walletAddress", walletAddress);
         response.put("amount", 1);
-        response.put("tenderlyUrl", tenderlyRpcUrl);
+        response.put("tenderlyUrl", jsonRpcClient.getRpcUrl());
         
         try {
             // Önce mevcut bakiyeyi kontrol et
@@ -1,7 +1,7 @@
 package com.example.surveyapp.controller;
 
+import com.example.surveyapp.service.JsonRpcClient;
 import com.example.surveyapp.service.TenderlyBalanceService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,14 +11,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigInteger;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.TimeUnit;
-import okhttp3.MediaType;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.RequestBody;
-import okhttp3.Response;
+import java.util.List;
 
 /**
  * Basit test kontrolcüsü - Tenderly ayarlarını test etmek için
@@ -28,23 +21,12 @@ import okhttp3.Response;
 public class TestBalanceController {
 
     private static final Logger logger = LoggerFactory.getLogger(TestBalanceController.class);
-    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
-    private final String tenderlyRpcUrl = "https://virtual.sepolia.rpc.tenderly.co/d88ec9b6-956d-486e-b852-76fcd37861b3";
     
     @Autowired
     private TenderlyBalanceService tenderlyBalanceService;
     
-    private final OkHttpClient httpClient;
-    private final ObjectMapper objectMapper;
-    
-    public TestBalanceController() {
-        this.httpClient = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .build();
-        this.objectMapper = new ObjectMapper();
-    }
+    @Autowired
+    private JsonRpcClient jsonRpcClient;
     
     /**
      * En basit test - sadece true/false döner
@@ -135,31 +117,13 @@ public class TestBalanceController {
             // 1 ETH değeri (wei cinsinden hex)
             String ethAmountHex = "0x" + BigInteger.TEN.pow(18).toString(16);
             
-            // JSON-RPC isteği oluştur
-            Map<String, Object> requestMap = new HashMap<>();
-            requestMap.put("jsonrpc", "2.0");
-            requestMap.put("method", "tenderly_setBalance");
-            requestMap.put("id", 1);
-            requestMap.put("params", new String[]{address, ethAmountHex});
-            
-            String requestBody = objectMapper.writeValueAsString(requestMap);
-            logger.info("İstek gönderiliyor: URL={}, Body={}", tenderlyRpcUrl, requestBody);
+            // Paylaşılan istemci üzerinden ham JSON-RPC çağrısı
+            logger.info("İstek gönderiliyor: URL={}, tenderly_setBalance({}, {})", jsonRpcClient.getRpcUrl(), address, ethAmountHex);
+            JsonRpcClient.Result result = jsonRpcClient.batch(List.of(
+                    new JsonRpcClient.Call("tenderly_setBalance", address, ethAmountHex))).get(0);
+            logger.info("RPC yanıtı: result={}, error={}", result.getResult(), result.getError());
             
-            // HTTP isteği oluştur
-            Request request = new Request.Builder()
-                    .url(tenderlyRpcUrl)
-                    .post(RequestBody.create(requestBody, JSON))
-                    .header("Content-Type", "application/json")
-                    .build();
-            
-            // İsteği gönder
-            try (Response response = httpClient.newCall(request).execute()) {
-                String responseBody = response.body() != null ? response.body().string() : "Boş yanıt";
-                logger.info("RPC yanıtı: Kod={}, Mesaj={}, Body={}", 
-                        response.code(), response.message(), responseBody);
-                
-                return "RPC test sonucu: " + response.code() + " - " + responseBody;
-            }
+            return "RPC test sonucu: " + (result.isSuccess() ? "OK - " + result.getResult() : "HATA - " + result.getError());
             
         } catch (Exception e) {
             logger.error("Doğrudan RPC testi hatası: ", e);
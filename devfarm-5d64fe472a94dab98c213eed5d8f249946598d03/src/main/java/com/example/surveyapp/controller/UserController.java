@@ -1,5 +1,7 @@
 package com.example.surveyapp.controller;
 
+import com.example.surveyapp.config.CurrentUser;
+import com.example.surveyapp.dto.SessionUser;
 import com.example.surveyapp.model.User;
 import com.example.surveyapp.service.UserService;
 import org.slf4j.Logger;
@@ -85,11 +87,10 @@ public class UserController {
     @PostMapping("/user/update-wallet")
     @ResponseBody
     public ResponseEntity<?> updateWalletAddress(@RequestParam("walletAddress") String walletAddress, 
-                                              HttpSession session) {
+                                              @CurrentUser SessionUser currentUser) {
         logger.info("POST /user/update-wallet - Updating wallet address");
         
-        String loggedInUserEmail = (String) session.getAttribute("loggedInUser");
-        if (loggedInUserEmail == null) {
+        if (currentUser == null) {
             logger.warn("No logged-in user found");
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
@@ -98,12 +99,9 @@ public class UserController {
         }
         
         try {
-            // Kullanıcı bilgilerini getir
-            User user = userService.findUserByEmail(loggedInUserEmail);
-            
             // Cüzdan adresini güncelle
-            userService.updateUserWalletAddress(user, walletAddress);
-            logger.info("Wallet address updated for user: {}", loggedInUserEmail);
+            userService.updateUserWalletAddress(currentUser.getId(), walletAddress);
+            logger.info("Wallet address updated for user: {}", currentUser.getEmail());
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
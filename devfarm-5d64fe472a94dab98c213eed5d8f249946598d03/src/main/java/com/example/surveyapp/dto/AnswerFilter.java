@@ -0,0 +1,84 @@
+package com.example.surveyapp.dto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Analizde hangi katılımcıların sayılacağı: seçilen seçeneklerin soru başına en az birini
+ * işaretlemiş (aynı sorudaki seçenekler "veya", farklı sorular "ve" ile birleşir) ve ilk
+ * oyunu [from, to) aralığında vermiş olanlar. Boş alanlar kısıt koymaz.
+ */
+public final class AnswerFilter {
+
+    public static final AnswerFilter NONE = new AnswerFilter(Map.of(), null, null);
+
+    private final Map<Long, Set<Long>> options;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    public AnswerFilter(Map<Long, Set<Long>> options, LocalDateTime from, LocalDateTime to) {
+        Map<Long, Set<Long>> copy = new HashMap<>();
+        options.forEach((questionId, optionIds) -> copy.put(questionId, Set.copyOf(optionIds)));
+        this.options = Map.copyOf(copy);
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Seçenek ID'lerini anketin sorularına göre gruplar; ankete ait olmayan seçenek hata verir.
+     */
+    public static AnswerFilter of(SurveyDefinition survey, Collection<Long> optionIds, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new RuntimeException("Başlangıç zamanı bitiş zamanından önce olmalıdır.");
+        }
+        Map<Long, Set<Long>> options = new HashMap<>();
+        if (optionIds != null) {
+            for (Long optionId : optionIds) {
+                QuestionDefinition question = findQuestionOf(survey, optionId)
+                        .orElseThrow(() -> new RuntimeException("Seçenek bu ankete ait değil: " + optionId));
+                options.computeIfAbsent(question.getId(), id -> new HashSet<>()).add(optionId);
+            }
+        }
+        return new AnswerFilter(options, from, to);
+    }
+
+    private static Optional<QuestionDefinition> findQuestionOf(SurveyDefinition survey, Long optionId) {
+        return survey.getQuestions().stream().filter(q -> q.findOption(optionId).isPresent()).findFirst();
+    }
+
+    public Map<Long, Set<Long>> getOptions() { return options; }
+    public LocalDateTime getFrom() { return from; }
+    public LocalDateTime getTo() { return to; }
+
+    public boolean isEmpty() {
+        return options.isEmpty() && from == null && to == null;
+    }
+
+    public boolean contains(Long optionId) {
+        return options.values().stream().anyMatch(ids -> ids.contains(optionId));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AnswerFilter that = (AnswerFilter) o;
+        return options.equals(that.options) && Objects.equals(from, that.from) && Objects.equals(to, that.to);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(options, from, to);
+    }
+
+    @Override
+    public String toString() {
+        return "AnswerFilter{options=" + options + ", from=" + from + ", to=" + to + "}";
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.surveyapp.dto;
+
+import java.util.List;
+
+/**
+ * İki boyutlu sayım tablosu: satırlar bir sorunun seçenekleri veya zaman dilimleri,
+ * sütunlar başka bir sorunun seçenekleri. Her hücre, satır ve sütun koşulunu birlikte
+ * sağlayan katılımcı sayısıdır.
+ */
+public final class Crosstab {
+
+    private final String rowTitle;
+    private final String columnTitle;
+    private final List<String> rowLabels;
+    private final List<String> columnLabels;
+    private final long[][] counts;
+    private final long[] rowTotals;
+    private final long[] columnTotals;
+    private final long total;
+
+    public Crosstab(String rowTitle, String columnTitle, List<String> rowLabels, List<String> columnLabels, long[] cells) {
+        this.rowTitle = rowTitle;
+        this.columnTitle = columnTitle;
+        this.rowLabels = List.copyOf(rowLabels);
+        this.columnLabels = List.copyOf(columnLabels);
+        int rows = rowLabels.size();
+        int columns = columnLabels.size();
+        this.counts = new long[rows][columns];
+        this.rowTotals = new long[rows];
+        this.columnTotals = new long[columns];
+        long sum = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                long count = cells[r * columns + c];
+                counts[r][c] = count;
+                rowTotals[r] += count;
+                columnTotals[c] += count;
+                sum += count;
+            }
+        }
+        this.total = sum;
+    }
+
+    public String getRowTitle() { return rowTitle; }
+    public String getColumnTitle() { return columnTitle; }
+    public List<String> getRowLabels() { return rowLabels; }
+    public List<String> getColumnLabels() { return columnLabels; }
+    public long getTotal() { return total; }
+
+    public long getCount(int row, int column) { return counts[row][column]; }
+    public long getRowTotal(int row) { return rowTotals[row]; }
+    public long getColumnTotal(int column) { return columnTotals[column]; }
+
+    /**
+     * Hücrenin satır toplamı içindeki yüzdesi ("satırdakilerin yüzde kaçı bu sütunu seçti").
+     */
+    public double getRowPercentage(int row, int column) {
+        return rowTotals[row] == 0 ? 0.0 : counts[row][column] * 100.0 / rowTotals[row];
+    }
+
+    @Override
+    public String toString() {
+        return "Crosstab{rows='" + rowTitle + "', columns='" + columnTitle + "', total=" + total + "}";
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.surveyapp.dto;
+
+import com.example.surveyapp.model.Option;
+
+/**
+ * Bir seçeneğin değişmez kopyası. Oy sayısı bilinçli olarak tutulmaz.
+ */
+public final class OptionDefinition {
+
+    private final Long id;
+    private final String text;
+
+    public OptionDefinition(Long id, String text) {
+        this.id = id;
+        this.text = text;
+    }
+
+    public static OptionDefinition from(Option option) {
+        return new OptionDefinition(option.getId(), option.getText());
+    }
+
+    public Long getId() { return id; }
+    public String getText() { return text; }
+
+    @Override
+    public String toString() {
+        return "OptionDefinition{id=" + id + ", text='" + text + "'}";
+    }
+}
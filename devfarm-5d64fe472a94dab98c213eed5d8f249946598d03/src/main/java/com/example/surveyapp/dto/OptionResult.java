@@ -0,0 +1,24 @@
+package com.example.surveyapp.dto;
+
+/**
+ * Bir seçeneğin toplam oy sayısı ve soru içindeki yüzdesi.
+ */
+public final class OptionResult {
+
+    private final Long id;
+    private final String text;
+    private final long count;
+    private final double percentage;
+
+    public OptionResult(Long id, String text, long count, double percentage) {
+        this.id = id;
+        this.text = text;
+        this.count = count;
+        this.percentage = percentage;
+    }
+
+    public Long getId() { return id; }
+    public String getText() { return text; }
+    public long getCount() { return count; }
+    public double getPercentage() { return percentage; }
+}
@@ -0,0 +1,31 @@
+package com.example.surveyapp.dto;
+
+import com.example.surveyapp.model.PayoutStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ödüller sayfasında gösterilen bir ödeme talebi.
+ */
+public final class PayoutRow {
+
+    private final Long id;
+    private final int points;
+    private final String walletAddress;
+    private final PayoutStatus status;
+    private final LocalDateTime createdAt;
+
+    public PayoutRow(Long id, int points, String walletAddress, PayoutStatus status, LocalDateTime createdAt) {
+        this.id = id;
+        this.points = points;
+        this.walletAddress = walletAddress;
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public int getPoints() { return points; }
+    public String getWalletAddress() { return walletAddress; }
+    public PayoutStatus getStatus() { return status; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,40 @@
+package com.example.surveyapp.dto;
+
+import com.example.surveyapp.model.Question;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bir sorunun ve seçeneklerinin değişmez kopyası.
+ */
+public final class QuestionDefinition {
+
+    private final Long id;
+    private final String text;
+    private final List<OptionDefinition> options;
+
+    public QuestionDefinition(Long id, String text, List<OptionDefinition> options) {
+        this.id = id;
+        this.text = text;
+        this.options = List.copyOf(options);
+    }
+
+    public static QuestionDefinition from(Question question) {
+        return new QuestionDefinition(question.getId(), question.getText(),
+                question.getOptions().stream().map(OptionDefinition::from).toList());
+    }
+
+    public Long getId() { return id; }
+    public String getText() { return text; }
+    public List<OptionDefinition> getOptions() { return options; }
+
+    public Optional<OptionDefinition> findOption(Long optionId) {
+        return options.stream().filter(o -> o.getId().equals(optionId)).findFirst();
+    }
+
+    @Override
+    public String toString() {
+        return "QuestionDefinition{id=" + id + ", text='" + text + "'}";
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.surveyapp.dto;
+
+import java.util.List;
+
+/**
+ * Bir sorunun seçenek bazında toplanmış sonuçları.
+ */
+public final class QuestionResult {
+
+    private final Long id;
+    private final String text;
+    private final long totalVotes;
+    private final List<OptionResult> options;
+
+    public QuestionResult(Long id, String text, long totalVotes, List<OptionResult> options) {
+        this.id = id;
+        this.text = text;
+        this.totalVotes = totalVotes;
+        this.options = List.copyOf(options);
+    }
+
+    public Long getId() { return id; }
+    public String getText() { return text; }
+    public long getTotalVotes() { return totalVotes; }
+    public List<OptionResult> getOptions() { return options; }
+}
@@ -0,0 +1,55 @@
+package com.example.surveyapp.dto;
+
+import com.example.surveyapp.model.User;
+
+/**
+ * Oturum açmış kullanıcının istek işlerken gereken alanlarının değişmez kopyası.
+ * version, kopya her yenilendiğinde artar; eski bir kopyanın yenisinin
+ * üzerine yazılmasını engellemek için kullanılır.
+ */
+public final class SessionUser {
+
+    private final Long id;
+    private final String email;
+    private final String fullName;
+    private final String role;
+    private final int points;
+    private final String walletAddress;
+    private final long version;
+
+    public SessionUser(Long id, String email, String fullName, String role, int points, String walletAddress, long version) {
+        this.id = id;
+        this.email = email;
+        this.fullName = fullName;
+        this.role = role;
+        this.points = points;
+        this.walletAddress = walletAddress;
+        this.version = version;
+    }
+
+    public static SessionUser from(User user, long version) {
+        return new SessionUser(user.getId(), user.getEmail(), user.getFullName(), user.getRole(), user.getPoints(),
+                user.getWalletAddress(), version);
+    }
+
+    public Long getId() { return id; }
+    public String getEmail() { return email; }
+    public String getFullName() { return fullName; }
+    public String getRole() { return role; }
+    public int getPoints() { return points; }
+    public String getWalletAddress() { return walletAddress; }
+    public long getVersion() { return version; }
+
+    public boolean isAdmin() {
+        return "admin".equals(role);
+    }
+
+    public boolean getHasWallet() {
+        return walletAddress != null && !walletAddress.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "SessionUser{id=" + id + ", email='" + email + "', version=" + version + "}";
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.surveyapp.dto;
+
+import com.example.surveyapp.model.Survey;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bir anketin yapısının (başlık, sorular, seçenek metinleri) veritabanından
+ * bağımsız, değişmez kopyası. Önbellekte tutulur ve sayfalara doğrudan verilir.
+ */
+public final class SurveyDefinition {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final boolean active;
+    private final LocalDateTime createdAt;
+    private final long version;
+    private final Long createdById;
+    private final String createdByEmail;
+    private final String createdByName;
+    private final List<QuestionDefinition> questions;
+
+    public SurveyDefinition(Long id, String title, String description, boolean active, LocalDateTime createdAt,
+                            long version, Long createdById, String createdByEmail, String createdByName,
+                            List<QuestionDefinition> questions) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.active = active;
+        this.createdAt = createdAt;
+        this.version = version;
+        this.createdById = createdById;
+        this.createdByEmail = createdByEmail;
+        this.createdByName = createdByName;
+        this.questions = List.copyOf(questions);
+    }
+
+    public static SurveyDefinition from(Survey survey) {
+        return new SurveyDefinition(survey.getId(), survey.getTitle(), survey.getDescription(), survey.getActive(),
+                survey.getCreatedAt(), survey.getVersion(), survey.getCreatedBy().getId(), survey.getCreatedBy().getEmail(),
+                survey.getCreatedBy().getFullName(),
+                survey.getQuestions().stream().map(QuestionDefinition::from).toList());
+    }
+
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public boolean getActive() { return active; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public long getVersion() { return version; }
+    public Long getCreatedById() { return createdById; }
+    public String getCreatedByEmail() { return createdByEmail; }
+    public String getCreatedByName() { return createdByName; }
+    public List<QuestionDefinition> getQuestions() { return questions; }
+
+    public boolean isOwnedBy(Long userId) {
+        return createdById != null && createdById.equals(userId);
+    }
+
+    public Optional<QuestionDefinition> findQuestion(Long questionId) {
+        return questions.stream().filter(q -> q.getId().equals(questionId)).findFirst();
+    }
+
+    /**
+     * Önbellek ağırlığı: anket + soru + seçenek sayısı.
+     */
+    public int getWeight() {
+        int weight = 1 + questions.size();
+        for (QuestionDefinition question : questions) {
+            weight += question.getOptions().size();
+        }
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return "SurveyDefinition{id=" + id + ", title='" + title + "'}";
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.surveyapp.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keyset sayfalamasıyla okunmuş bir anket listesi sayfası. nextCursor, bir
+ * sonraki sayfanın son görülen (createdAt, id) değerini taşır; son sayfada null'dır.
+ */
+public final class SurveyPage {
+
+    private final List<SurveySummary> items;
+    private final String nextCursor;
+
+    public SurveyPage(List<SurveySummary> items, String nextCursor) {
+        this.items = List.copyOf(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<SurveySummary> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean getHasNext() { return nextCursor != null; }
+
+    public static String cursorOf(SurveySummary last) {
+        return last.getCreatedAt() + "_" + last.getId();
+    }
+
+    public static LocalDateTime cursorCreatedAt(String cursor) {
+        return LocalDateTime.parse(cursor.substring(0, cursor.lastIndexOf('_')));
+    }
+
+    public static Long cursorId(String cursor) {
+        return Long.parseLong(cursor.substring(cursor.lastIndexOf('_') + 1));
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.surveyapp.dto;
+
+import java.util.List;
+
+/**
+ * Bir anketin GROUP BY ile hesaplanmış sonuçları. Tekil oy satırları içermez.
+ */
+public final class SurveyResults {
+
+    private final SurveyDefinition survey;
+    private final long totalVotes;
+    private final List<QuestionResult> questions;
+
+    public SurveyResults(SurveyDefinition survey, long totalVotes, List<QuestionResult> questions) {
+        this.survey = survey;
+        this.totalVotes = totalVotes;
+        this.questions = List.copyOf(questions);
+    }
+
+    public SurveyDefinition getSurvey() { return survey; }
+    public long getTotalVotes() { return totalVotes; }
+    public List<QuestionResult> getQuestions() { return questions; }
+}
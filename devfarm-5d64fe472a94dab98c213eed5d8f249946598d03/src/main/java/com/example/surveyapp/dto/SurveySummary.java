@@ -0,0 +1,47 @@
+package com.example.surveyapp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Anket listesi için hafif projeksiyon; soru ve seçenekler yüklenmez.
+ */
+public final class SurveySummary {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final String creatorName;
+    private final String creatorEmail;
+    private final LocalDateTime createdAt;
+    private final boolean active;
+    private final long version;
+    private final long questionCount;
+
+    public SurveySummary(Long id, String title, String description, String creatorName, String creatorEmail,
+                         LocalDateTime createdAt, boolean active, long version, Long questionCount) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.creatorName = creatorName;
+        this.creatorEmail = creatorEmail;
+        this.createdAt = createdAt;
+        this.active = active;
+        this.version = version;
+        this.questionCount = questionCount != null ? questionCount : 0;
+    }
+
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public String getCreatorName() { return creatorName; }
+    public String getCreatorEmail() { return creatorEmail; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public boolean getActive() { return active; }
+    public long getVersion() { return version; }
+    public long getQuestionCount() { return questionCount; }
+
+    @Override
+    public String toString() {
+        return "SurveySummary{id=" + id + ", title='" + title + "'}";
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.surveyapp.dto;
+
+/**
+ * Admin panelindeki kullanıcı listesinin bir satırı.
+ */
+public final class UserRow {
+
+    private final Long id;
+    private final String email;
+    private final String fullName;
+    private final int points;
+
+    public UserRow(Long id, String email, String fullName, int points) {
+        this.id = id;
+        this.email = email;
+        this.fullName = fullName;
+        this.points = points;
+    }
+
+    public Long getId() { return id; }
+    public String getEmail() { return email; }
+    public String getFullName() { return fullName; }
+    public int getPoints() { return points; }
+}
@@ -0,0 +1,77 @@
+package com.example.surveyapp.dto;
+
+import com.example.surveyapp.model.RollupGranularity;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bir anketin ardışık zaman dilimlerindeki oy sayıları (grafikler için). Dilimler eskiden
+ * yeniye sıralıdır; oy almayan dilimler sıfır olarak yer alır.
+ */
+public final class VoteActivity {
+
+    private static final Map<RollupGranularity, DateTimeFormatter> LABEL_FORMATS = Map.of(
+            RollupGranularity.MINUTE, DateTimeFormatter.ofPattern("HH:mm"),
+            RollupGranularity.HOUR, DateTimeFormatter.ofPattern("dd.MM HH:00"),
+            RollupGranularity.DAY, DateTimeFormatter.ofPattern("dd.MM.yyyy"));
+
+    private final RollupGranularity granularity;
+    private final LocalDateTime from;
+    private final long[] totals;
+    private final Map<Long, long[]> optionCounts;
+    private final long total;
+    private final long max;
+
+    public VoteActivity(RollupGranularity granularity, LocalDateTime from, Map<Long, long[]> optionCounts, int buckets) {
+        this.granularity = granularity;
+        this.from = from;
+        this.optionCounts = Map.copyOf(optionCounts);
+        this.totals = new long[buckets];
+        for (long[] counts : optionCounts.values()) {
+            for (int i = 0; i < buckets; i++) {
+                totals[i] += counts[i];
+            }
+        }
+        long sum = 0;
+        long highest = 0;
+        for (long count : totals) {
+            sum += count;
+            highest = Math.max(highest, count);
+        }
+        this.total = sum;
+        this.max = highest;
+    }
+
+    public RollupGranularity getGranularity() { return granularity; }
+    public LocalDateTime getFrom() { return from; }
+    public long[] getTotals() { return totals.clone(); }
+    public long getTotal() { return total; }
+    public long getMax() { return max; }
+
+    /**
+     * Seçeneğin dilim başına oy sayıları; oy almamışsa sıfırlar.
+     */
+    public long[] getOptionCounts(Long optionId) {
+        long[] counts = optionCounts.get(optionId);
+        return counts != null ? counts.clone() : new long[totals.length];
+    }
+
+    public List<String> getLabels() {
+        List<String> labels = new ArrayList<>(totals.length);
+        for (int i = 0; i < totals.length; i++) {
+            labels.add(formatBucket(granularity, from.plus(i, granularity.getUnit())));
+        }
+        return labels;
+    }
+
+    /**
+     * Dilim başlangıcının dilim genişliğine uygun etiketi (ör. saatlik dilimde "05.03 14:00").
+     */
+    public static String formatBucket(RollupGranularity granularity, LocalDateTime bucketStart) {
+        return LABEL_FORMATS.get(granularity).format(bucketStart);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.surveyapp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sonuç sayfasında ve dışa aktarımda kullanılan tek bir oy satırı.
+ */
+public final class VoteRow {
+
+    private final String voterEmail;
+    private final String questionText;
+    private final String optionText;
+    private final LocalDateTime timestamp;
+
+    public VoteRow(String voterEmail, String questionText, String optionText, LocalDateTime timestamp) {
+        this.voterEmail = voterEmail;
+        this.questionText = questionText;
+        this.optionText = optionText;
+        this.timestamp = timestamp;
+    }
+
+    public String getVoterEmail() { return voterEmail; }
+    public String getQuestionText() { return questionText; }
+    public String getOptionText() { return optionText; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+}
@@ -0,0 +1,15 @@
+package com.example.surveyapp.event;
+
+/**
+ * Bir anket sonlandırıldığında (active = false) yayınlanır.
+ */
+public class SurveyEndedEvent {
+
+    private final Long surveyId;
+
+    public SurveyEndedEvent(Long surveyId) {
+        this.surveyId = surveyId;
+    }
+
+    public Long getSurveyId() { return surveyId; }
+}
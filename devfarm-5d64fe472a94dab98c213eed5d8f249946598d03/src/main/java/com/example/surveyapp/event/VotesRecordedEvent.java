@@ -0,0 +1,45 @@
+package com.example.surveyapp.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bir kullanıcının oy(lar)ı veritabanına yazıldığında yayınlanır.
+ * Dinleyiciler commit sonrasında çalışır, böylece geri alınan oylar sayılmaz.
+ * Tüm soruları kapsayan oy pusulası {@code ballot} ile işaretlenir; tek soruluk oylar işaretlenmez.
+ */
+public class VotesRecordedEvent {
+
+    private final Long userId;
+    private final Long surveyId;
+    private final List<RecordedVote> votes;
+    private final LocalDateTime timestamp;
+    private final boolean ballot;
+
+    public VotesRecordedEvent(Long userId, Long surveyId, List<RecordedVote> votes, LocalDateTime timestamp, boolean ballot) {
+        this.userId = userId;
+        this.surveyId = surveyId;
+        this.votes = List.copyOf(votes);
+        this.timestamp = timestamp;
+        this.ballot = ballot;
+    }
+
+    public Long getUserId() { return userId; }
+    public Long getSurveyId() { return surveyId; }
+    public List<RecordedVote> getVotes() { return votes; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public boolean isBallot() { return ballot; }
+
+    public static class RecordedVote {
+        private final Long questionId;
+        private final Long optionId;
+
+        public RecordedVote(Long questionId, Long optionId) {
+            this.questionId = questionId;
+            this.optionId = optionId;
+        }
+
+        public Long getQuestionId() { return questionId; }
+        public Long getOptionId() { return optionId; }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.surveyapp.model;
+
+/**
+ * Hibernate ikinci seviye önbellek bölge adları.
+ * <p>
+ * Her bölge açılışta sınırlı boyutta önceden oluşturulur (bkz. config.SecondLevelCache);
+ * burada olmayan bir bölge adı kullanılırsa uygulama başlamaz.
+ */
+public final class CacheRegions {
+
+    public static final String USER = "user";
+    public static final String SURVEY = "survey";
+    public static final String QUESTION = "question";
+    public static final String OPTION = "option";
+
+    public static final String SURVEY_QUESTIONS = "survey.questions";
+    public static final String QUESTION_OPTIONS = "question.options";
+
+    public static final String ACTIVE_SURVEYS_QUERY = "query.active-surveys";
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.surveyapp.model;
+
+/**
+ * Entity ID'leri için ortak tablo tabanlı (pooled) üreteç ayarları.
+ * <p>
+ * IDENTITY, ID'yi ancak INSERT çalıştıktan sonra öğrenebildiği için Hibernate'in
+ * INSERT'leri JDBC batch'ine toplamasını engeller. Bunun yerine her entity tipi
+ * {@value #TABLE} tablosundan tek seferde {@value #ALLOCATION_SIZE} ID ayırır;
+ * ID'ler bellekte dağıtılır ve INSERT'ler hibernate.jdbc.batch_size kadar gruplanır.
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generator";
+    public static final String SEGMENT_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
@@ -1,14 +1,24 @@
 package com.example.surveyapp.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
 import java.util.Objects;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+// Seçenek metni değişmez; vote_count yalnızca VoteTallyService tarafından JDBC ile artırılır
+// ve her flush'tan sonra ilgili önbellek kayıtları silinir
 @Entity
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheRegions.OPTION)
 @Table(name = "options")
 public class Option {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "option_id")
+    @TableGenerator(name = "option_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "option", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     
     @Column(name = "text")
@@ -0,0 +1,106 @@
+package com.example.surveyapp.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Puan → ETH dönüşümü için kalıcı ödeme kuyruğu (outbox) kaydı. Talep anında
+ * puanlar düşülür ve kayıt PENDING olarak yazılır; ETH yüklemesini PayoutWorker
+ * arka planda yapar.
+ */
+@Entity
+@Table(name = "payouts", indexes = {
+        @Index(name = "idx_payout_status_next", columnList = "status, nextAttemptAt, id"),
+        @Index(name = "idx_payout_user", columnList = "user_id, createdAt")
+})
+public class Payout {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "payout_id")
+    @TableGenerator(name = "payout_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "payout", allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private String walletAddress;
+
+    // 1 puan = 1 ETH
+    private int points;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PayoutStatus status = PayoutStatus.PENDING;
+
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+
+    // Bakiye yazılmadan önce kaydedilir: okunan bakiye ve yazılacak bakiye (wei). Yazmanın sonucu
+    // alınamazsa sonraki denemede cüzdan bakiyesi bunlarla karşılaştırılır; null ise gönderim sürmüyor
+    @Column(precision = 38, scale = 0)
+    private BigInteger baseBalance;
+    @Column(precision = 38, scale = 0)
+    private BigInteger targetBalance;
+
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        if (this.nextAttemptAt == null) {
+            this.nextAttemptAt = this.createdAt;
+        }
+    }
+
+    // Getters ve Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+    public String getWalletAddress() { return walletAddress; }
+    public void setWalletAddress(String walletAddress) { this.walletAddress = walletAddress; }
+    public int getPoints() { return points; }
+    public void setPoints(int points) { this.points = points; }
+    public PayoutStatus getStatus() { return status; }
+    public void setStatus(PayoutStatus status) { this.status = status; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public BigInteger getBaseBalance() { return baseBalance; }
+    public void setBaseBalance(BigInteger baseBalance) { this.baseBalance = baseBalance; }
+    public BigInteger getTargetBalance() { return targetBalance; }
+    public void setTargetBalance(BigInteger targetBalance) { this.targetBalance = targetBalance; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    // toString, equals, hashCode
+    @Override
+    public String toString() {
+        return "Payout{id=" + id + ", wallet='" + walletAddress + "', points=" + points + ", status=" + status + "}";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Payout payout = (Payout) o;
+        return Objects.equals(id, payout.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
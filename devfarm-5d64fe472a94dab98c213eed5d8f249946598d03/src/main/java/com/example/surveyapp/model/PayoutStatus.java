@@ -0,0 +1,16 @@
+package com.example.surveyapp.model;
+
+/**
+ * Ödeme kuyruğundaki bir kaydın durumu.
+ */
+public enum PayoutStatus {
+    // Gönderilmeyi bekliyor (ilk deneme veya yeniden deneme)
+    PENDING,
+    // Cüzdana başarıyla yüklendi
+    SENT,
+    // Deneme hakkı bitti; puanlar kullanıcıya iade edildi
+    FAILED,
+    // Bakiye yazıldı ama sonucu alınamadı ve cüzdan bakiyesi beklenmedik şekilde değişti;
+    // yüklemenin yapılıp yapılmadığı bilinmediği için ne yeniden denenir ne de puan iade edilir
+    UNCONFIRMED
+}
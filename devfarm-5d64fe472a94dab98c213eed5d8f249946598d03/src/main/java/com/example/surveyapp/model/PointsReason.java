@@ -0,0 +1,15 @@
+package com.example.surveyapp.model;
+
+/**
+ * Puan defterindeki bir hareketin nedeni.
+ */
+public enum PointsReason {
+    // Ankete oy verme ödülü
+    VOTE,
+    // ETH ödemesi için ayrılan (düşülen) puan
+    PAYOUT_RESERVE,
+    // Başarısız ödeme sonrası iade
+    PAYOUT_REFUND,
+    // Elle veya eski API üzerinden yapılan düzeltme
+    ADJUSTMENT
+}
@@ -0,0 +1,69 @@
+package com.example.surveyapp.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Puan defteri (yalnızca ekleme yapılır). Kullanıcının points sütunu bu
+ * hareketlerin toplamıdır; satırlar PointsLedgerService tarafından transaction
+ * sonunda toplu (JDBC batch) olarak yazılır.
+ */
+@Entity
+@Table(name = "points_transaction", indexes = @Index(name = "idx_points_tx_user", columnList = "user_id, id"))
+public class PointsTransaction {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "delta", nullable = false)
+    private int delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reason", nullable = false, length = 32)
+    private PointsReason reason;
+
+    // İlgili kayıt: oy için anket id'si, ödeme için payout id'si
+    @Column(name = "reference_id")
+    private Long referenceId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Getters ve Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public int getDelta() { return delta; }
+    public void setDelta(int delta) { this.delta = delta; }
+    public PointsReason getReason() { return reason; }
+    public void setReason(PointsReason reason) { this.reason = reason; }
+    public Long getReferenceId() { return referenceId; }
+    public void setReferenceId(Long referenceId) { this.referenceId = referenceId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    // toString, equals, hashCode
+    @Override
+    public String toString() {
+        return "PointsTransaction{id=" + id + ", userId=" + userId + ", delta=" + delta + ", reason=" + reason + "}";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PointsTransaction that = (PointsTransaction) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -1,15 +1,24 @@
 package com.example.surveyapp.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+// Sorular ve seçenek listeleri anket oluşturulduktan sonra değişmez
 @Entity
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheRegions.QUESTION)
 public class Question {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "question_id")
+    @TableGenerator(name = "question_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "question", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     private String text;
 
@@ -18,6 +27,8 @@ public class Question {
     private Survey survey;
 
     @OneToMany(mappedBy = "question", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheRegions.QUESTION_OPTIONS)
     private List<Option> options = new ArrayList<>();
 
     // Getters ve Setters
@@ -1,6 +1,8 @@
 package com.example.surveyapp.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
@@ -10,21 +12,32 @@ import java.util.List;
 import java.util.Objects;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+// Aktiflik ve versiyon değişebildiği için önbellek kaydı güncellemede silinir (nonstrict)
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = CacheRegions.SURVEY)
+@Table(indexes = @Index(name = "idx_survey_active_created", columnList = "active, createdAt, id"))
 public class Survey {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "survey_id")
+    @TableGenerator(name = "survey_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "survey", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     private String title;
     private String description;
     private boolean active;
     private LocalDateTime createdAt;
 
+    // Her güncellemede artar; önbelleğe alınmış sayfa parçalarının anahtarında kullanılır
+    @Version
+    private long version;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "created_by", nullable = false)
     private User createdBy;
 
     @OneToMany(mappedBy = "survey", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheRegions.SURVEY_QUESTIONS)
     private List<Question> questions = new ArrayList<>();
 
     @PrePersist
@@ -44,6 +57,8 @@ public class Survey {
     public void setActive(boolean active) { this.active = active; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
     public User getCreatedBy() { return createdBy; }
     public void setCreatedBy(User createdBy) { this.createdBy = createdBy; }
     public List<Question> getQuestions() { return questions; }
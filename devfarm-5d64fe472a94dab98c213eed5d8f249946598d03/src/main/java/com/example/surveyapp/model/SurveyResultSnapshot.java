@@ -0,0 +1,67 @@
+package com.example.surveyapp.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Sonlandırılmış bir anketin kesinleşmiş sonuçları. Anket bittikten sonra oylar
+ * değişmediği için bir kez yazılır; sonuç sayfası oyları yeniden saymak yerine bu
+ * satırdan (ve ondan üretilen dosyalardan) sunulur. Sayımlar seçenek başına
+ * (optionId, oy sayısı) çiftleri olarak tek bir ikili sütunda tutulur
+ * (bkz. ResultsSnapshotService).
+ */
+@Entity
+@Immutable
+@Table(name = "survey_result_snapshot")
+public class SurveyResultSnapshot {
+    @Id
+    @Column(name = "survey_id")
+    private Long surveyId;
+
+    @Column(name = "total_votes", nullable = false)
+    private long totalVotes;
+
+    @Lob
+    @Column(name = "option_counts", nullable = false)
+    private byte[] optionCounts;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters ve Setters
+    public Long getSurveyId() { return surveyId; }
+    public void setSurveyId(Long surveyId) { this.surveyId = surveyId; }
+    public long getTotalVotes() { return totalVotes; }
+    public void setTotalVotes(long totalVotes) { this.totalVotes = totalVotes; }
+    public byte[] getOptionCounts() { return optionCounts; }
+    public void setOptionCounts(byte[] optionCounts) { this.optionCounts = optionCounts; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    // toString, equals, hashCode
+    @Override
+    public String toString() {
+        return "SurveyResultSnapshot{surveyId=" + surveyId + ", totalVotes=" + totalVotes + ", createdAt=" + createdAt + "}";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SurveyResultSnapshot that = (SurveyResultSnapshot) o;
+        return Objects.equals(surveyId, that.surveyId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(surveyId);
+    }
+}
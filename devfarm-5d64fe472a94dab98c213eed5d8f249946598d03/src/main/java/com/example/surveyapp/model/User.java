@@ -1,16 +1,26 @@
 package com.example.surveyapp.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import java.util.Objects;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 
 
+// Puan sütunu yalnızca PointsLedgerService tarafından atomik olarak güncellenir;
+// entity kaydedilirken sadece değişen sütunlar yazılır ki bu güncellemeler ezilmesin.
+// Puan güncellemesinden sonra önbellekteki kayıt yalnızca o kullanıcı için silinir.
 @Entity
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = CacheRegions.USER)
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_id")
+    @TableGenerator(name = "user_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "user", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     private String fullName;
 
@@ -11,7 +11,9 @@ import jakarta.persistence.Id;
 })
 public class Vote {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "vote_id")
+    @TableGenerator(name = "vote_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "vote", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne
@@ -29,9 +31,12 @@ public class Vote {
     @Column(name = "timestamp")
     private LocalDateTime timestamp;
     
+    // Oy günlüğünden sonradan işlenen oylar asıl oy verme zamanını taşır
     @PrePersist
     protected void onCreate() {
-        timestamp = LocalDateTime.now();
+        if (timestamp == null) {
+            timestamp = LocalDateTime.now();
+        }
     }
 
     // Getters and Setters
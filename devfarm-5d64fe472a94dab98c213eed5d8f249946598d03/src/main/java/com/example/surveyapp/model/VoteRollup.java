@@ -0,0 +1,45 @@
+package com.example.surveyapp.model;
+
+import jakarta.persistence.*;
+
+import java.util.Objects;
+
+/**
+ * Anket ve seçenek başına dakika, saat ve gün dilimlerindeki oy sayıları. Satırlar oylar
+ * commit edildikçe VoteRollupService tarafından toplu upsert ile artırılır; eski dakika ve
+ * saat dilimleri periyodik olarak silinir (gün dilimleri tutulur).
+ */
+@Entity
+@Table(name = "vote_rollup", indexes = @Index(name = "idx_vote_rollup_survey", columnList = "survey_id, granularity, bucket_start"))
+public class VoteRollup {
+    @EmbeddedId
+    private VoteRollupId id;
+
+    @Column(name = "vote_count", nullable = false)
+    private long voteCount;
+
+    // Getters ve Setters
+    public VoteRollupId getId() { return id; }
+    public void setId(VoteRollupId id) { this.id = id; }
+    public long getVoteCount() { return voteCount; }
+    public void setVoteCount(long voteCount) { this.voteCount = voteCount; }
+
+    // toString, equals, hashCode
+    @Override
+    public String toString() {
+        return "VoteRollup{id=" + id + ", voteCount=" + voteCount + "}";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        VoteRollup that = (VoteRollup) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.surveyapp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * vote_rollup anahtarı: anket, seçenek, dilim genişliği ve dilimin başlangıcı.
+ */
+@Embeddable
+public class VoteRollupId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "survey_id", nullable = false)
+    private Long surveyId;
+
+    @Column(name = "option_id", nullable = false)
+    private Long optionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 8)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    protected VoteRollupId() {
+    }
+
+    public VoteRollupId(Long surveyId, Long optionId, RollupGranularity granularity, LocalDateTime bucketStart) {
+        this.surveyId = surveyId;
+        this.optionId = optionId;
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+    }
+
+    public Long getSurveyId() { return surveyId; }
+    public Long getOptionId() { return optionId; }
+    public RollupGranularity getGranularity() { return granularity; }
+    public LocalDateTime getBucketStart() { return bucketStart; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        VoteRollupId that = (VoteRollupId) o;
+        return Objects.equals(surveyId, that.surveyId) && Objects.equals(optionId, that.optionId)
+                && granularity == that.granularity && Objects.equals(bucketStart, that.bucketStart);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(surveyId, optionId, granularity, bucketStart);
+    }
+
+    @Override
+    public String toString() {
+        return surveyId + "/" + optionId + "/" + granularity + "/" + bucketStart;
+    }
+}
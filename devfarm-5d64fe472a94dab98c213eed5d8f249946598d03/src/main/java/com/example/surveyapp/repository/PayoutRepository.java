@@ -0,0 +1,37 @@
+package com.example.surveyapp.repository;
+
+import com.example.surveyapp.dto.PayoutRow;
+import com.example.surveyapp.model.Payout;
+import com.example.surveyapp.model.PayoutStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface PayoutRepository extends JpaRepository<Payout, Long> {
+
+    // Zamanı gelmiş kayıtları kilitleyerek alır; başka bir worker'ın kilitlediği satırlar atlanır (SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select p from Payout p where p.status = :status and p.nextAttemptAt <= :now order by p.id")
+    List<Payout> findDueForUpdate(@Param("status") PayoutStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    // Sonucu bilinmeyen bakiye yazmaları: zamanı gelmemiş olsalar da aynı cüzdanın yeni ödemelerinden önce uzlaştırılır
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select p from Payout p where p.status = :status and p.targetBalance is not null " +
+           "and p.walletAddress in :wallets order by p.id")
+    List<Payout> findInFlightForUpdate(@Param("status") PayoutStatus status, @Param("wallets") Collection<String> wallets);
+
+    @Query("select new com.example.surveyapp.dto.PayoutRow(p.id, p.points, p.walletAddress, p.status, p.createdAt) " +
+           "from Payout p where p.user.id = :userId order by p.createdAt desc, p.id desc")
+    List<PayoutRow> findRecentByUserId(@Param("userId") Long userId, Pageable pageable);
+}
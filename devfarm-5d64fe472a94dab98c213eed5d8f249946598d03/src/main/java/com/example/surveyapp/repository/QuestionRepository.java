@@ -2,7 +2,12 @@ package com.example.surveyapp.repository;
 
 import com.example.surveyapp.model.Question;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface QuestionRepository extends JpaRepository<Question, Long> {
+    @Query("select distinct q from Question q left join fetch q.options where q.survey.id = :surveyId")
+    List<Question> findWithOptionsBySurveyId(@Param("surveyId") Long surveyId);
 }
\ No newline at end of file
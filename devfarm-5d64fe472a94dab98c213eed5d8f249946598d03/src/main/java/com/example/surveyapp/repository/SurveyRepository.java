@@ -1,13 +1,58 @@
 package com.example.surveyapp.repository;
 
+import com.example.surveyapp.dto.SurveySummary;
+import com.example.surveyapp.model.CacheRegions;
 import com.example.surveyapp.model.Survey;
-import com.example.surveyapp.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface SurveyRepository extends JpaRepository<Survey, Long> {
-    List<Survey> findByActiveTrue();
-    List<Survey> findByCreatedBy(User user);
+    // Anket, oluşturan kullanıcı ve sorular tek sorguda; seçenekler QuestionRepository ile ikinci sorguda
+    @Query("select distinct s from Survey s join fetch s.createdBy left join fetch s.questions where s.id = :id")
+    Optional<Survey> findWithQuestionsById(@Param("id") Long id);
+
+    // Önbellek atlanarak anketin güncel durumu; oy yazılmadan hemen önce kontrol edilir
+    @Query("select s.active from Survey s where s.id = :id")
+    Optional<Boolean> findActiveById(@Param("id") Long id);
+
+    @Query("select new com.example.surveyapp.dto.SurveySummary(s.id, s.title, s.description, u.fullName, u.email, s.createdAt, s.active, s.version, " +
+           "(select count(q) from Question q where q.survey = s)) " +
+           "from Survey s join s.createdBy u where u.id = :userId " +
+           "order by s.createdAt desc, s.id desc")
+    List<SurveySummary> findSummariesByCreatorId(@Param("userId") Long userId);
+
+    // Keyset sayfalama: (active, createdAt, id) indeksi üzerinde sıralı okuma, OFFSET kullanılmaz.
+    // Sayfalar sorgu önbelleğinde tutulur; Survey, User veya Question tablosuna yapılan her yazma
+    // bu bölgedeki kayıtları geçersiz kılar, oy yazmaları etkilemez
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = CacheRegions.ACTIVE_SURVEYS_QUERY)
+    })
+    @Query("select new com.example.surveyapp.dto.SurveySummary(s.id, s.title, s.description, u.fullName, u.email, s.createdAt, s.active, s.version, " +
+           "(select count(q) from Question q where q.survey = s)) " +
+           "from Survey s join s.createdBy u where s.active = true " +
+           "order by s.createdAt desc, s.id desc")
+    List<SurveySummary> findActiveSummaries(Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = CacheRegions.ACTIVE_SURVEYS_QUERY)
+    })
+    @Query("select new com.example.surveyapp.dto.SurveySummary(s.id, s.title, s.description, u.fullName, u.email, s.createdAt, s.active, s.version, " +
+           "(select count(q) from Question q where q.survey = s)) " +
+           "from Survey s join s.createdBy u where s.active = true " +
+           "and (s.createdAt < :createdAt or (s.createdAt = :createdAt and s.id < :id)) " +
+           "order by s.createdAt desc, s.id desc")
+    List<SurveySummary> findActiveSummariesBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                  Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.example.surveyapp.repository;
+
+import com.example.surveyapp.model.SurveyResultSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SurveyResultSnapshotRepository extends JpaRepository<SurveyResultSnapshot, Long> {
+}
@@ -1,13 +1,19 @@
 package com.example.surveyapp.repository;
 
+import com.example.surveyapp.dto.UserRow;
 import com.example.surveyapp.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByWalletAddress(String walletAddress);
-}
 
+    @Query("select new com.example.surveyapp.dto.UserRow(u.id, u.email, u.fullName, u.points) from User u " +
+           "where u.role is null or u.role <> 'admin' order by u.id")
+    List<UserRow> findNonAdminRows();
+}
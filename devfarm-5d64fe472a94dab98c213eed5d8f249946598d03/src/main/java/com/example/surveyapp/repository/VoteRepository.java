@@ -1,14 +1,54 @@
 package com.example.surveyapp.repository;
 
-import com.example.surveyapp.model.Question;
-import com.example.surveyapp.model.User;
+import com.example.surveyapp.dto.VoteRow;
 import com.example.surveyapp.model.Vote;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface VoteRepository extends JpaRepository<Vote, Long> {
-    boolean existsByUserAndQuestion(User user, Question question);
-    List<Vote> findByQuestionSurveyId(Long surveyId);
-}
\ No newline at end of file
+    // [questionId, surveyId, anketteki soru sayısı] - kullanıcının oy indeksini yüklemek için
+    @Query("select q.id, q.survey.id, (select count(q2) from Question q2 where q2.survey = q.survey) " +
+           "from Vote v join v.question q where v.user.id = :userId")
+    List<Object[]> findVotedQuestionAndSurveyIdsByUserId(@Param("userId") Long userId);
+
+    // [optionId, oy sayısı] çiftleri - sonuçlar entity yüklenmeden veritabanında toplanır
+    @Query("select v.option.id, count(v) from Vote v where v.question.survey.id = :surveyId group by v.option.id")
+    List<Object[]> countByOptionForSurvey(@Param("surveyId") Long surveyId);
+
+    @Query("select new com.example.surveyapp.dto.VoteRow(u.email, q.text, o.text, v.timestamp) " +
+           "from Vote v join v.user u join v.question q join v.option o " +
+           "where q.survey.id = :surveyId order by v.id")
+    Slice<VoteRow> findVoteRowsBySurveyId(@Param("surveyId") Long surveyId, Pageable pageable);
+
+    // Dışa aktarım için imleçle okunur; çağıran transaction içinde olmalı ve stream'i kapatmalı
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select new com.example.surveyapp.dto.VoteRow(u.email, q.text, o.text, v.timestamp) " +
+           "from Vote v join v.user u join v.question q join v.option o " +
+           "where q.survey.id = :surveyId order by v.id")
+    Stream<VoteRow> streamVoteRowsBySurveyId(@Param("surveyId") Long surveyId);
+
+    // [surveyId, optionId, timestamp] - oy özetlerinin ilk doldurulması için imleçle okunur
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select q.survey.id, v.option.id, v.timestamp from Vote v join v.question q " +
+           "where v.timestamp < :before")
+    Stream<Object[]> streamTimestampsBefore(@Param("before") LocalDateTime before);
+
+    // [userId, questionId, optionId, timestamp] - analiz matrisinin yüklenmesi için imleçle okunur
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select v.user.id, q.id, v.option.id, v.timestamp from Vote v join v.question q " +
+           "where q.survey.id = :surveyId")
+    Stream<Object[]> streamAnswersBySurveyId(@Param("surveyId") Long surveyId);
+}
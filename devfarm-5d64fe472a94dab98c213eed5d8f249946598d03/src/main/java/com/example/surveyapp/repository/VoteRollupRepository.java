@@ -0,0 +1,31 @@
+package com.example.surveyapp.repository;
+
+import com.example.surveyapp.model.RollupGranularity;
+import com.example.surveyapp.model.VoteRollup;
+import com.example.surveyapp.model.VoteRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface VoteRollupRepository extends JpaRepository<VoteRollup, VoteRollupId> {
+
+    // [surveyId, optionId, dilim başlangıcı, oy sayısı] - (survey_id, granularity, bucket_start) indeksinde aralık taraması
+    @Query("select r.id.surveyId, r.id.optionId, r.id.bucketStart, r.voteCount from VoteRollup r " +
+           "where r.id.surveyId in :surveyIds and r.id.granularity = :granularity " +
+           "and r.id.bucketStart >= :from and r.id.bucketStart < :to")
+    List<Object[]> findBuckets(@Param("surveyIds") Collection<Long> surveyIds,
+                               @Param("granularity") RollupGranularity granularity,
+                               @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select max(r.id.bucketStart) from VoteRollup r where r.id.surveyId = :surveyId and r.id.granularity = :granularity")
+    LocalDateTime findLatestBucket(@Param("surveyId") Long surveyId, @Param("granularity") RollupGranularity granularity);
+
+    @Modifying
+    @Query("delete from VoteRollup r where r.id.granularity = :granularity and r.id.bucketStart < :before")
+    int deleteOlderThan(@Param("granularity") RollupGranularity granularity, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,71 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.event.VotesRecordedEvent;
+import com.example.surveyapp.model.PointsReason;
+import com.example.surveyapp.model.User;
+import com.example.surveyapp.model.Vote;
+import com.example.surveyapp.repository.OptionRepository;
+import com.example.surveyapp.repository.QuestionRepository;
+import com.example.surveyapp.repository.UserRepository;
+import com.example.surveyapp.repository.VoteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Doğrulanmış bir oy pusulasını veritabanına yazar: vote satırlarını ekler, oy sayaçları ve
+ * oy indeksi için {@link VotesRecordedEvent} yayınlar ve oy puanını verir.
+ * <p>
+ * Çağıranın transaction'ı içinde çalışır ve flush etmez; eşzamanlı tekrarlar çağıranın
+ * flush'ında (user_id, question_id) unique kısıtından DataIntegrityViolationException olarak
+ * döner. Hem senkron oy verme yolu hem de {@link VoteJournalApplier} tarafından kullanılır.
+ */
+@Service
+public class BallotRecorder {
+
+    static final int POINTS_PER_VOTE = 5;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private OptionRepository optionRepository;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private PointsLedgerService pointsLedgerService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long userId, Long surveyId, List<VotesRecordedEvent.RecordedVote> votes, LocalDateTime timestamp) {
+        // Doğrulama çağıran tarafından yapıldı; Vote satırları için yalnızca referans gerekir
+        User user = userRepository.getReferenceById(userId);
+        List<Vote> entities = new ArrayList<>(votes.size());
+        for (VotesRecordedEvent.RecordedVote recorded : votes) {
+            Vote vote = new Vote();
+            vote.setUser(user);
+            vote.setQuestion(questionRepository.getReferenceById(recorded.getQuestionId()));
+            vote.setOption(optionRepository.getReferenceById(recorded.getOptionId()));
+            vote.setTimestamp(timestamp);
+            entities.add(vote);
+        }
+        voteRepository.saveAll(entities);
+
+        eventPublisher.publishEvent(new VotesRecordedEvent(userId, surveyId, votes, timestamp, true));
+
+        pointsLedgerService.award(userId, POINTS_PER_VOTE * votes.size(), PointsReason.VOTE, surveyId);
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.surveyapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import okhttp3.ConnectionPool;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tenderly RPC uç noktası için paylaşılan JSON-RPC 2.0 istemcisi.
+ * <p>
+ * Tüm servisler aynı OkHttpClient'ı kullanır; bağlantılar havuzda tutulur ve
+ * TLS üzerinde HTTP/2 ile yeniden kullanılır. {@link #batch(List)} birden
+ * fazla çağrıyı tek bir HTTP isteğinde (JSON-RPC batch dizisi) gönderir.
+ * Uç nokta tenderly.rpc.url ile ayarlanır; testlerde yerel bir sunucuya
+ * yönlendirilebilir. Her HTTP isteğinin süresi {@code rpc.client.requests} zamanlayıcısına
+ * JSON-RPC metodu (batch'lerde "batch") ve sonuç etiketleriyle yazılır.
+ */
+@Component
+public class JsonRpcClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonRpcClient.class);
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    @Value("${tenderly.rpc.url}")
+    private String rpcUrl;
+
+    @Value("${rpc.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${rpc.read-timeout-ms:15000}")
+    private long readTimeoutMs;
+
+    @Value("${rpc.call-timeout-ms:30000}")
+    private long callTimeoutMs;
+
+    @Value("${rpc.pool.max-idle-connections:5}")
+    private int maxIdleConnections;
+
+    @Value("${rpc.pool.keep-alive-ms:300000}")
+    private long keepAliveMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private OkHttpClient httpClient;
+
+    @PostConstruct
+    public void init() {
+        this.httpClient = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveMs, TimeUnit.MILLISECONDS))
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMs, TimeUnit.MILLISECONDS)
+                .writeTimeout(readTimeoutMs, TimeUnit.MILLISECONDS)
+                .callTimeout(callTimeoutMs, TimeUnit.MILLISECONDS)
+                .build();
+        logger.info("JSON-RPC client initialised for {}", rpcUrl);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
+
+    public String getRpcUrl() {
+        return rpcUrl;
+    }
+
+    /**
+     * Tek bir çağrı yapar ve "result" alanını döndürür.
+     * @throws JsonRpcException sunucu "error" döndürürse
+     */
+    public Object call(String method, Object... params) throws IOException {
+        Map<String, Object> response = post(method, request(1, method, params), Map.class);
+        if (response.containsKey("error")) {
+            throw new JsonRpcException(method, response.get("error"));
+        }
+        return response.get("result");
+    }
+
+    /**
+     * Çağrıları tek bir HTTP isteğinde gönderir. Sonuçlar çağrı sırasıyla döner;
+     * bir çağrının hatası diğerlerini etkilemez.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Result> batch(List<Call> calls) throws IOException {
+        if (calls.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Map<String, Object>> requests = new ArrayList<>(calls.size());
+        for (int i = 0; i < calls.size(); i++) {
+            requests.add(request(i, calls.get(i).getMethod(), calls.get(i).getParams()));
+        }
+
+        // Yanıtlar sırasız gelebilir; id ile eşlenir
+        Map<Integer, Map<String, Object>> byId = new HashMap<>();
+        for (Map<String, Object> item : (List<Map<String, Object>>) post("batch", requests, List.class)) {
+            if (item.get("id") instanceof Number) {
+                byId.put(((Number) item.get("id")).intValue(), item);
+            }
+        }
+
+        List<Result> results = new ArrayList<>(calls.size());
+        for (int i = 0; i < calls.size(); i++) {
+            Map<String, Object> item = byId.get(i);
+            results.add(item == null ? Result.missing() : new Result(item.get("result"), item.get("error")));
+        }
+        logger.debug("JSON-RPC batch of {} calls completed", calls.size());
+        return results;
+    }
+
+    private Map<String, Object> request(int id, String method, Object[] params) {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("jsonrpc", "2.0");
+        request.put("method", method);
+        request.put("params", params);
+        request.put("id", id);
+        return request;
+    }
+
+    private <T> T post(String operation, Object body, Class<?> responseType) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = execute(body, responseType);
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(meterRegistry.timer("rpc.client.requests", "method", operation, "outcome", outcome));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T execute(Object body, Class<?> responseType) throws IOException {
+        Request request = new Request.Builder()
+                .url(rpcUrl)
+                .post(RequestBody.create(objectMapper.writeValueAsBytes(body), JSON))
+                .build();
+
+        try (Response response = httpClient.newCall(request).execute()) {
+            String responseBody = response.body() != null ? response.body().string() : "";
+            if (!response.isSuccessful()) {
+                throw new IOException("HTTP " + response.code() + " " + response.message() + ": " + responseBody);
+            }
+            if (responseBody.isEmpty()) {
+                throw new IOException("JSON-RPC sunucusundan boş yanıt");
+            }
+            return (T) objectMapper.readValue(responseBody, responseType);
+        }
+    }
+
+    public static final class Call {
+        private final String method;
+        private final Object[] params;
+
+        public Call(String method, Object... params) {
+            this.method = method;
+            this.params = params;
+        }
+
+        public String getMethod() { return method; }
+        public Object[] getParams() { return params; }
+    }
+
+    public static final class Result {
+        private final Object result;
+        private final Object error;
+        private final boolean missing;
+
+        public Result(Object result, Object error) {
+            this(result, error, false);
+        }
+
+        private Result(Object result, Object error, boolean missing) {
+            this.result = result;
+            this.error = error;
+            this.missing = missing;
+        }
+
+        // Batch yanıtında bu çağrının id'si yok: çağrının uygulanıp uygulanmadığı bilinmez
+        static Result missing() {
+            return new Result(null, "Yanıt alınamadı", true);
+        }
+
+        public Object getResult() { return result; }
+        public Object getError() { return error; }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        public boolean isMissing() {
+            return missing;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.surveyapp.service;
+
+import java.io.IOException;
+
+/**
+ * JSON-RPC sunucusunun "error" nesnesi döndürdüğü çağrılar için fırlatılır.
+ */
+public class JsonRpcException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Object error;
+
+    public JsonRpcException(String method, Object error) {
+        super("JSON-RPC " + method + " hatası: " + error);
+        this.error = error;
+    }
+
+    public Object getError() {
+        return error;
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.model.Payout;
+import com.example.surveyapp.model.PayoutStatus;
+import com.example.surveyapp.repository.PayoutRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Ödeme kuyruğunu (payouts tablosu) arka planda boşaltır.
+ * <p>
+ * Her turda zamanı gelmiş kayıtlar kısa bir transaction içinde sahiplenilir,
+ * ardından veritabanı bağlantısı bırakılarak aynı cüzdana giden ödemeler
+ * toplanır ve bakiye okuma/yazma işlemleri JSON-RPC batch istekleriyle yapılır.
+ * Sonuçlar ikinci bir kısa transaction ile yazılır. Başarısız ödemeler üstel
+ * geri çekilmeyle yeniden denenir; deneme hakkı biterse puanlar iade edilir.
+ * <p>
+ * tenderly_setBalance bakiyeyi mutlak değere ayarlar; "okunan bakiye + tutar" yazmak
+ * kendi başına tekrarlanabilir değildir. Bu yüzden yazmadan önce okunan ve yazılacak
+ * bakiye kayda işlenir. Yazmanın sonucu alınamazsa (zaman aşımı, kaybolan yanıt,
+ * süresi dolan sahiplenme) sonraki denemede cüzdan bakiyesi bunlarla karşılaştırılır:
+ * hedefe ulaşılmışsa ödeme gönderilmiş sayılır, bakiye hâlâ okunan değerdeyse yeniden
+ * yazılır; ikisi de değilse ödeme UNCONFIRMED olarak bırakılır ve elle kontrol edilir.
+ */
+@Component
+public class PayoutWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(PayoutWorker.class);
+    private static final BigInteger WEI_PER_ETH = BigInteger.TEN.pow(18);
+
+    @Autowired
+    private PayoutRepository payoutRepository;
+
+    @Autowired
+    private TenderlyBalanceService tenderlyBalanceService;
+
+    @Autowired
+    private PointsLedgerService pointsLedgerService;
+
+    @Value("${payout.worker.batch-size:50}")
+    private int batchSize;
+
+    @Value("${payout.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${payout.backoff.initial-ms:5000}")
+    private long initialBackoffMs;
+
+    @Value("${payout.backoff.max-ms:600000}")
+    private long maxBackoffMs;
+
+    // Sahiplenilen kayıt bu süre içinde sonuçlanmazsa (ör. uygulama çöktüyse) yeniden ele alınır
+    @Value("${payout.claim-lease-ms:120000}")
+    private long claimLeaseMs;
+
+    private final TransactionTemplate transaction;
+
+    @Autowired
+    public PayoutWorker(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${payout.worker.interval-ms:5000}")
+    public void drain() {
+        List<Payout> claimed = transaction.execute(status -> claimDuePayouts());
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+        logger.info("Processing {} pending payouts", claimed.size());
+
+        Round round = new Round();
+        sendPayouts(claimed, round);
+
+        transaction.executeWithoutResult(status -> recordResults(round));
+        logger.info("Payout round finished: {} sent, {} failed, {} unconfirmed",
+                round.sent.size(), round.failures.size(), round.unconfirmed.size());
+    }
+
+    private List<Payout> claimDuePayouts() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Payout> due = payoutRepository.findDueForUpdate(PayoutStatus.PENDING, now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return due;
+        }
+        // Aynı cüzdanın sonucu bilinmeyen yazmaları da alınır; yeni bir yazma onları uzlaştırılamaz hale getirirdi
+        Map<Long, Payout> claimed = new LinkedHashMap<>();
+        due.forEach(payout -> claimed.put(payout.getId(), payout));
+        Set<String> wallets = due.stream().map(Payout::getWalletAddress).collect(Collectors.toSet());
+        for (Payout inFlight : payoutRepository.findInFlightForUpdate(PayoutStatus.PENDING, wallets)) {
+            claimed.putIfAbsent(inFlight.getId(), inFlight);
+        }
+        for (Payout payout : claimed.values()) {
+            payout.setAttempts(payout.getAttempts() + 1);
+            payout.setNextAttemptAt(now.plusNanos(claimLeaseMs * 1_000_000L));
+        }
+        return new ArrayList<>(claimed.values());
+    }
+
+    /**
+     * Aynı cüzdana giden ödemeleri toplar; her cüzdan için tek bakiye okuma ve tek bakiye yazma yapılır.
+     */
+    private void sendPayouts(List<Payout> payouts, Round round) {
+        Map<String, List<Payout>> byWallet = new LinkedHashMap<>();
+        for (Payout payout : payouts) {
+            byWallet.computeIfAbsent(payout.getWalletAddress(), wallet -> new ArrayList<>()).add(payout);
+        }
+
+        Map<String, BigInteger> balances;
+        try {
+            balances = tenderlyBalanceService.getBalances(new ArrayList<>(byWallet.keySet()));
+        } catch (IOException | RuntimeException e) {
+            logger.error("Error reading wallet balances: {}", e.getMessage(), e);
+            balances = Collections.emptyMap();
+        }
+
+        // Önce önceki yazmalar uzlaştırılır; kalanlar bu turda gönderilir
+        Map<String, List<Payout>> toSend = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Payout>> wallet : byWallet.entrySet()) {
+            BigInteger balance = balances.get(wallet.getKey());
+            if (balance == null) {
+                wallet.getValue().forEach(payout -> round.failures.put(payout.getId(), "Bakiye okunamadı"));
+                continue;
+            }
+            for (Payout payout : wallet.getValue()) {
+                if (payout.getTargetBalance() == null) {
+                    toSend.computeIfAbsent(wallet.getKey(), w -> new ArrayList<>()).add(payout);
+                } else if (balance.compareTo(payout.getTargetBalance()) >= 0) {
+                    logger.info("Payout {} was already applied (balance {} >= target {})",
+                            payout.getId(), balance, payout.getTargetBalance());
+                    round.sent.add(payout.getId());
+                } else if (balance.equals(payout.getBaseBalance())) {
+                    toSend.computeIfAbsent(wallet.getKey(), w -> new ArrayList<>()).add(payout);
+                } else {
+                    logger.warn("Payout {} cannot be reconciled: balance {} is neither base {} nor target {}",
+                            payout.getId(), balance, payout.getBaseBalance(), payout.getTargetBalance());
+                    round.unconfirmed.add(payout.getId());
+                }
+            }
+        }
+        if (toSend.isEmpty()) {
+            return;
+        }
+
+        Map<String, BigInteger> newBalances = new LinkedHashMap<>();
+        Map<Long, BigInteger[]> targets = new HashMap<>();
+        for (Map.Entry<String, List<Payout>> wallet : toSend.entrySet()) {
+            BigInteger base = balances.get(wallet.getKey());
+            int totalEth = wallet.getValue().stream().mapToInt(Payout::getPoints).sum();
+            BigInteger target = base.add(WEI_PER_ETH.multiply(BigInteger.valueOf(totalEth)));
+            newBalances.put(wallet.getKey(), target);
+            wallet.getValue().forEach(payout -> targets.put(payout.getId(), new BigInteger[]{base, target}));
+        }
+        // Hedef bakiye yazmadan önce commit edilir; yanıt kaybolsa da sonraki deneme uzlaştırabilir
+        transaction.executeWithoutResult(status -> {
+            for (Payout payout : payoutRepository.findAllById(targets.keySet())) {
+                payout.setBaseBalance(targets.get(payout.getId())[0]);
+                payout.setTargetBalance(targets.get(payout.getId())[1]);
+            }
+        });
+
+        Map<String, Boolean> results;
+        try {
+            results = tenderlyBalanceService.setBalances(newBalances);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Error setting wallet balances: {}", e.getMessage(), e);
+            results = Collections.emptyMap();
+        }
+
+        for (Map.Entry<String, List<Payout>> wallet : toSend.entrySet()) {
+            Boolean result = results.get(wallet.getKey());
+            for (Payout payout : wallet.getValue()) {
+                if (Boolean.TRUE.equals(result)) {
+                    round.sent.add(payout.getId());
+                } else if (result == null) {
+                    // Yanıt yok: hedef kayıtta kalır, sonraki denemede uzlaştırılır
+                    round.failures.put(payout.getId(), "Bakiye güncellemesinin sonucu alınamadı");
+                } else {
+                    // Sunucu hatayla yanıtladı: yazma uygulanmadı, sonraki deneme baştan yapılır
+                    round.failures.put(payout.getId(), "Bakiye güncellenemedi");
+                    round.notApplied.add(payout.getId());
+                }
+            }
+        }
+    }
+
+    private void recordResults(Round round) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Payout payout : payoutRepository.findAllById(round.sent)) {
+            payout.setStatus(PayoutStatus.SENT);
+            payout.setCompletedAt(now);
+            payout.setLastError(null);
+        }
+
+        for (Payout payout : payoutRepository.findAllById(round.unconfirmed)) {
+            markUnconfirmed(payout, now, "Cüzdan bakiyesi beklenmedik şekilde değişti; ödeme doğrulanamadı");
+        }
+
+        for (Payout payout : payoutRepository.findAllById(round.failures.keySet())) {
+            payout.setLastError(round.failures.get(payout.getId()));
+            if (round.notApplied.contains(payout.getId())) {
+                payout.setBaseBalance(null);
+                payout.setTargetBalance(null);
+            }
+            if (payout.getAttempts() < maxAttempts) {
+                payout.setNextAttemptAt(now.plusNanos(backoffMs(payout.getAttempts()) * 1_000_000L));
+            } else if (payout.getTargetBalance() != null) {
+                // Son yazmanın sonucu bilinmiyor: iade edilirse ödeme iki kez yapılmış olabilir
+                markUnconfirmed(payout, now, round.failures.get(payout.getId()));
+            } else {
+                // Deneme hakkı bitti: ödeme iptal edilir ve puanlar iade edilir
+                payout.setStatus(PayoutStatus.FAILED);
+                payout.setCompletedAt(now);
+                pointsLedgerService.refund(payout.getUser().getId(), payout.getPoints(), payout.getId());
+                logger.warn("Payout {} failed permanently after {} attempts, {} points refunded",
+                        payout.getId(), payout.getAttempts(), payout.getPoints());
+            }
+        }
+    }
+
+    private void markUnconfirmed(Payout payout, LocalDateTime now, String error) {
+        payout.setStatus(PayoutStatus.UNCONFIRMED);
+        payout.setCompletedAt(now);
+        payout.setLastError(error);
+        logger.warn("Payout {} left unconfirmed for manual review: {}", payout.getId(), error);
+    }
+
+    /**
+     * Üstel geri çekilme; aynı anda başarısız olan ödemelerin birlikte yeniden denenmemesi için %20'ye kadar sapma eklenir.
+     */
+    private long backoffMs(int attempts) {
+        long delay = initialBackoffMs << Math.min(attempts - 1, 20);
+        delay = Math.min(delay, maxBackoffMs);
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    // Bir turun sonuçları; veritabanına tek transaction'da yazılır
+    private static final class Round {
+        private final List<Long> sent = new ArrayList<>();
+        private final Map<Long, String> failures = new HashMap<>();
+        // Sunucunun hatayla yanıtladığı yazmalar: kayıttaki hedef bakiye temizlenir
+        private final Set<Long> notApplied = new HashSet<>();
+        private final List<Long> unconfirmed = new ArrayList<>();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.model.PointsReason;
+import com.example.surveyapp.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kullanıcı puanlarının tek yazma noktası.
+ * <p>
+ * Bakiye, User entity'si okunmadan atomik {@code points = points + ?} güncellemesiyle
+ * değiştirilir; harcamalar {@code points >= ?} koşuluyla ayrılır, böylece eşzamanlı
+ * oy ve ödeme işlemleri ne güncelleme kaybeder ne de SERIALIZABLE izolasyona ihtiyaç
+ * duyar. Her hareket points_transaction defterine yazılır; bir transaction içindeki
+ * hareketler biriktirilip commit öncesinde tek bir JDBC batch ile eklenir.
+ * <p>
+ * Güncellemeler JPQL yerine JDBC ile yapılır: Hibernate toplu güncellemelerde User
+ * önbellek bölgesinin tamamını boşaltır. Bunun yerine yalnızca değişen kullanıcının
+ * ikinci seviye önbellek kaydı hemen ve commit sonrasında silinir.
+ */
+@Service
+public class PointsLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PointsLedgerService.class);
+    private static final String INSERT_SQL =
+            "INSERT INTO points_transaction (user_id, delta, reason, reference_id, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    private String addPointsSql;
+    private String deductPointsSql;
+
+    // User tablosunun adı dialect'e göre tırnaklanır; Hibernate'in ürettiği ad kullanılır
+    @PostConstruct
+    public void prepareStatements() {
+        String userTable = ((AbstractEntityPersister) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel().getEntityDescriptor(User.class)).getTableName();
+        addPointsSql = "UPDATE " + userTable + " SET points = points + ? WHERE id = ?";
+        // Bakiye yetmiyorsa hiçbir satır güncellenmez (0 döner)
+        deductPointsSql = "UPDATE " + userTable + " SET points = points - ? WHERE id = ? AND points >= ?";
+    }
+
+    /**
+     * Kullanıcıya puan ekler (negatif değer koşulsuz düşüm yapar).
+     */
+    @Transactional
+    public void award(Long userId, int points, PointsReason reason, Long referenceId) {
+        if (updatePoints(userId, addPointsSql, points, userId) == 0) {
+            throw new RuntimeException("Kullanıcı bulunamadı: ID " + userId);
+        }
+        record(userId, points, reason, referenceId);
+    }
+
+    /**
+     * Ödeme için puan ayırır. Bakiye yetersizse hiçbir şey değişmez ve false döner.
+     */
+    @Transactional
+    public boolean reserve(Long userId, int points, Long referenceId) {
+        if (updatePoints(userId, deductPointsSql, points, userId, points) == 0) {
+            logger.warn("Point reservation of {} rejected for user ID {}", points, userId);
+            return false;
+        }
+        record(userId, -points, PointsReason.PAYOUT_RESERVE, referenceId);
+        return true;
+    }
+
+    @Transactional
+    public void refund(Long userId, int points, Long referenceId) {
+        award(userId, points, PointsReason.PAYOUT_REFUND, referenceId);
+    }
+
+    private int updatePoints(Long userId, String sql, Object... args) {
+        int updated = jdbcTemplate.update(sql, args);
+        entityManagerFactory.getCache().evict(User.class, userId);
+        return updated;
+    }
+
+    private void record(Long userId, int delta, PointsReason reason, Long referenceId) {
+        Object[] row = {userId, delta, reason.name(), referenceId, Timestamp.valueOf(LocalDateTime.now())};
+        PendingEntries pending = (PendingEntries) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEntries();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(row, userId, delta);
+    }
+
+    /**
+     * Transaction'a bağlı defter satırları ve oturum önbelleğine commit sonrası uygulanacak farklar.
+     */
+    private class PendingEntries implements TransactionSynchronization {
+        private final List<Object[]> rows = new ArrayList<>();
+        private final Map<Long, Integer> deltas = new HashMap<>();
+
+        void add(Object[] row, Long userId, int delta) {
+            rows.add(row);
+            deltas.merge(userId, delta, Integer::sum);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            logger.debug("Wrote {} points ledger entries", rows.size());
+        }
+
+        @Override
+        public void afterCommit() {
+            deltas.forEach(principalCache::adjustPoints);
+            // Transaction sürerken önbelleğe eski bakiyeyle yeniden yüklenmiş olabilir
+            deltas.keySet().forEach(userId -> entityManagerFactory.getCache().evict(User.class, userId));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PointsLedgerService.this);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.dto.SessionUser;
+import com.example.surveyapp.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Oturum açmış kullanıcıların e-posta ile anahtarlanan küçük önbelleği.
+ * Cüzdan değiştiğinde UserService kaydı yeni bir sürümle yeniler, puan
+ * farkları ise PointsLedgerService tarafından commit sonrası uygulanır;
+ * böylece her istekte kullanıcı için veritabanına gidilmez.
+ */
+@Component
+public class PrincipalCache {
+
+    private final AtomicLong versions = new AtomicLong();
+    private final LinkedHashMap<String, SessionUser> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<Long, String> emailsById = new HashMap<>();
+    // Önbellekte olmayan bir kullanıcı değiştiğinde artar; bundan eski sürümle yüklenen kopyalar önbelleğe yazılmaz
+    private long minimumVersion;
+
+    @Value("${principal.cache.max-entries:10000}")
+    private int maxEntries;
+
+    /**
+     * Önbellekteki kullanıcıyı döndürür; yoksa loader ile yükler. Sürüm yükleme
+     * başlamadan alınır, böylece yükleme sırasında yapılan bir yenileme ezilmez.
+     */
+    public SessionUser get(String email, Function<String, User> loader) {
+        synchronized (this) {
+            SessionUser cached = entries.get(email);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long version = versions.incrementAndGet();
+        User user = loader.apply(email);
+        return user != null ? store(SessionUser.from(user, version)) : null;
+    }
+
+    /**
+     * Kullanıcının güncel halini yeni bir sürümle önbelleğe yazar.
+     */
+    public SessionUser refresh(User user) {
+        return store(SessionUser.from(user, versions.incrementAndGet()));
+    }
+
+    /**
+     * Commit edilmiş bir puan farkını önbellekteki kopyaya uygular; farklar toplanabilir
+     * olduğu için sıradan bağımsızdır ve kullanıcıyı yeniden okumaya gerek kalmaz.
+     */
+    public synchronized void adjustPoints(Long userId, int delta) {
+        String email = emailsById.get(userId);
+        SessionUser current = email != null ? entries.get(email) : null;
+        if (current == null) {
+            minimumVersion = versions.incrementAndGet();
+            return;
+        }
+        entries.put(email, new SessionUser(current.getId(), current.getEmail(), current.getFullName(), current.getRole(),
+                current.getPoints() + delta, current.getWalletAddress(), versions.incrementAndGet()));
+    }
+
+    private synchronized SessionUser store(SessionUser sessionUser) {
+        if (sessionUser.getVersion() < minimumVersion) {
+            return sessionUser;
+        }
+        SessionUser current = entries.get(sessionUser.getEmail());
+        if (current != null && current.getVersion() > sessionUser.getVersion()) {
+            return current;
+        }
+        entries.put(sessionUser.getEmail(), sessionUser);
+        emailsById.put(sessionUser.getId(), sessionUser.getEmail());
+        if (entries.size() > maxEntries) {
+            SessionUser eldest = entries.remove(entries.keySet().iterator().next());
+            emailsById.remove(eldest.getId());
+        }
+        return sessionUser;
+    }
+
+    public synchronized void evict(String email) {
+        SessionUser removed = entries.remove(email);
+        if (removed != null) {
+            emailsById.remove(removed.getId());
+        }
+    }
+
+    public synchronized void evictById(Long userId) {
+        String email = emailsById.remove(userId);
+        if (email != null) {
+            entries.remove(email);
+        }
+    }
+
+    public synchronized int getSize() {
+        return entries.size();
+    }
+}
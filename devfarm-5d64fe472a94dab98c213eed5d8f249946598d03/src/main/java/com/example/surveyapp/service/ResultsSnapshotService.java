@@ -0,0 +1,399 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.dto.OptionResult;
+import com.example.surveyapp.dto.QuestionResult;
+import com.example.surveyapp.dto.SurveyDefinition;
+import com.example.surveyapp.dto.SurveyResults;
+import com.example.surveyapp.event.SurveyEndedEvent;
+import com.example.surveyapp.model.Survey;
+import com.example.surveyapp.model.SurveyResultSnapshot;
+import com.example.surveyapp.repository.SurveyRepository;
+import com.example.surveyapp.repository.SurveyResultSnapshotRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.ServletContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sonlandırılmış anketlerin kesinleşmiş sonuçları.
+ * <p>
+ * Anket bittiğinde (SurveyEndedEvent, commit sonrası) arka planda bir iş seçenek sayımlarını
+ * bir kez hesaplayıp {@link SurveyResultSnapshot} satırına yazar, ardından sonuç sayfasını ve
+ * JSON çıktısını gzip'li dosyalar olarak önceden üretir. Sonraki istekler bu dosyalardan
+ * ({@link #getArtifact}) ya da satırdan ({@link #getResults}) yanıtlanır; Vote tablosu yeniden
+ * sayılmaz.
+ * <p>
+ * Dosya adı içeriğin özetini taşır ve dosyalar oluşturulduktan sonra değişmez; özet aynı
+ * zamanda güçlü ETag olarak kullanılır. Dosyalar satırdan yeniden üretilebildiği için her
+ * süreç ilk istekte (veya şablon/anket değiştiğinde) eksik olanları yazar.
+ */
+@Service
+public class ResultsSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultsSnapshotService.class);
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final String TEMPLATE = "survey-results";
+
+    // Sayfa metinleri Türkçe; sayı biçimi LocalizationConfig'in varsayılan diline göre üretilir
+    public static final Locale SNAPSHOT_LOCALE = new Locale("tr", "TR");
+
+    public enum Format {
+        HTML("text/html; charset=UTF-8", "html"),
+        JSON("application/json; charset=UTF-8", "json");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+    }
+
+    @Autowired
+    private SurveyRepository surveyRepository;
+
+    @Autowired
+    private SurveyResultSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private SurveyResultsService surveyResultsService;
+
+    @Autowired
+    private VoteJournal voteJournal;
+
+    @Autowired
+    private VoteRollupService voteRollupService;
+
+    // Web bağlamı dışında (benchmark) şablon motoru yoktur; o durumda yalnızca satır yazılır
+    @Autowired
+    private ObjectProvider<SpringTemplateEngine> templateEngineProvider;
+
+    @Autowired
+    private ObjectProvider<ServletContext> servletContextProvider;
+
+    @Value("${results.snapshot.dir:results-snapshots}")
+    private String directory;
+
+    // Anket bittikten sonra sürmekte olan oy isteklerinin tamamlanması için beklenen süre
+    @Value("${results.snapshot.settle-ms:5000}")
+    private long settleMs;
+
+    private final TransactionTemplate transaction;
+    private final Map<Long, Artifacts> artifacts = new ConcurrentHashMap<>();
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService executor;
+    private Path root;
+
+    @Autowired
+    public ResultsSnapshotService(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Files.createDirectories(Paths.get(directory)).toAbsolutePath();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "results-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Results snapshots stored in {}", root);
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    @TransactionalEventListener
+    public void onSurveyEnded(SurveyEndedEvent event) {
+        schedule(event.getSurveyId());
+    }
+
+    /**
+     * Sonlandırılmış anketin önceden üretilmiş sonuç dosyası. Anket aktifse, görüntü henüz
+     * yoksa veya şablon motoru kullanılamıyorsa null döner; görüntü yoksa üretimi planlanır.
+     */
+    public Artifact getArtifact(SurveyDefinition survey, Format format) throws IOException {
+        if (survey.getActive()) {
+            return null;
+        }
+        Artifacts current = artifacts.get(survey.getId());
+        if (current != null && current.surveyVersion == survey.getVersion()) {
+            return current.get(format);
+        }
+
+        SurveyResultSnapshot snapshot = snapshotRepository.findById(survey.getId()).orElse(null);
+        if (snapshot == null) {
+            schedule(survey.getId());
+            return null;
+        }
+        Artifacts rendered = render(surveyResultsService.toResults(survey, decode(snapshot.getOptionCounts())));
+        return rendered != null ? rendered.get(format) : null;
+    }
+
+    /**
+     * Sonlandırılmış anketin sonuçlarını görüntü satırından hesaplar; anket aktifse veya
+     * görüntü henüz yoksa null döner.
+     */
+    public SurveyResults getResults(SurveyDefinition survey) {
+        if (survey.getActive()) {
+            return null;
+        }
+        SurveyResultSnapshot snapshot = snapshotRepository.findById(survey.getId()).orElse(null);
+        if (snapshot == null) {
+            schedule(survey.getId());
+            return null;
+        }
+        return surveyResultsService.toResults(survey, decode(snapshot.getOptionCounts()));
+    }
+
+    /**
+     * Sonuçları dosyadaki JSON biçiminde yazar; aktif anketlerin canlı sonuçları için de kullanılır.
+     */
+    public static void writeJson(SurveyResults results, OutputStream out) throws IOException {
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeNumberField("surveyId", results.getSurvey().getId());
+            json.writeStringField("title", results.getSurvey().getTitle());
+            json.writeBooleanField("active", results.getSurvey().getActive());
+            json.writeNumberField("totalVotes", results.getTotalVotes());
+            json.writeArrayFieldStart("questions");
+            for (QuestionResult question : results.getQuestions()) {
+                json.writeStartObject();
+                json.writeNumberField("id", question.getId());
+                json.writeStringField("text", question.getText());
+                json.writeNumberField("totalVotes", question.getTotalVotes());
+                json.writeArrayFieldStart("options");
+                for (OptionResult option : question.getOptions()) {
+                    json.writeStartObject();
+                    json.writeNumberField("id", option.getId());
+                    json.writeStringField("text", option.getText());
+                    json.writeNumberField("count", option.getCount());
+                    json.writeNumberField("percentage", option.getPercentage());
+                    json.writeEndObject();
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private void schedule(Long surveyId) {
+        if (!scheduled.add(surveyId)) {
+            return;
+        }
+        try {
+            executor.schedule(() -> build(surveyId), settleMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            scheduled.remove(surveyId);
+        }
+    }
+
+    private void build(Long surveyId) {
+        boolean retry = false;
+        try {
+            // Günlükte bekleyen oylar veritabanına işlenmeden sayım kesinleşmez
+            if (voteJournal.hasPendingForSurvey(surveyId)) {
+                logger.debug("Survey {} still has journaled votes, postponing results snapshot", surveyId);
+                retry = true;
+                return;
+            }
+            // Yazma transaction'ı: anket durumu ve sayımlar birincil veritabanından okunur
+            SurveyResults results = transaction.execute(status -> loadOrCreate(surveyId));
+            if (results == null) {
+                return;
+            }
+            render(results);
+            logger.info("Results snapshot ready for survey ID: {} ({} votes)", surveyId, results.getTotalVotes());
+        } catch (IOException | RuntimeException e) {
+            logger.error("Error building results snapshot for survey ID {}: {}", surveyId, e.getMessage(), e);
+        } finally {
+            if (retry) {
+                try {
+                    executor.schedule(() -> build(surveyId), settleMs, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    scheduled.remove(surveyId);
+                }
+            } else {
+                scheduled.remove(surveyId);
+            }
+        }
+    }
+
+    private SurveyResults loadOrCreate(Long surveyId) {
+        Survey survey = surveyRepository.findById(surveyId).orElse(null);
+        if (survey == null || survey.getActive()) {
+            return null;
+        }
+        SurveyDefinition definition = SurveyDefinition.from(survey);
+        SurveyResultSnapshot snapshot = snapshotRepository.findById(surveyId).orElse(null);
+        if (snapshot == null) {
+            Map<Long, Long> counts = surveyResultsService.countVotesByOption(surveyId);
+            snapshot = new SurveyResultSnapshot();
+            snapshot.setSurveyId(surveyId);
+            snapshot.setTotalVotes(counts.values().stream().mapToLong(Long::longValue).sum());
+            snapshot.setOptionCounts(encode(counts));
+            snapshotRepository.save(snapshot);
+        }
+        return surveyResultsService.toResults(definition, decode(snapshot.getOptionCounts()));
+    }
+
+    private Artifacts render(SurveyResults results) throws IOException {
+        SpringTemplateEngine templateEngine = templateEngineProvider.getIfAvailable();
+        if (templateEngine == null) {
+            return null;
+        }
+        SurveyDefinition survey = results.getSurvey();
+        ServletContext servletContext = servletContextProvider.getIfAvailable();
+
+        Context context = new Context(SNAPSHOT_LOCALE);
+        context.setVariable("survey", survey);
+        context.setVariable("results", results);
+        context.setVariable("activity", voteRollupService.getRecentActivity(survey));
+        // ContextPathLinkBuilder istek dışındaki @{/...} bağlantılarına bu yolu ekler
+        context.setVariable("contextPath", servletContext != null ? servletContext.getContextPath() : "");
+        byte[] html = templateEngine.process(TEMPLATE, context).getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        writeJson(results, json);
+
+        Artifacts rendered = new Artifacts(survey.getVersion(),
+                write(survey.getId(), Format.HTML, html), write(survey.getId(), Format.JSON, json.toByteArray()));
+        artifacts.put(survey.getId(), rendered);
+        return rendered;
+    }
+
+    /**
+     * İçeriği gzip'leyip özetini taşıyan dosyaya yazar. Aynı özetli dosya zaten varsa (önceki
+     * bir süreç yazmışsa) yeniden yazılmaz; yarım dosya kalmaması için geçici dosya diske
+     * indirildikten sonra atomik olarak yeniden adlandırılır.
+     */
+    private Artifact write(Long surveyId, Format format, byte[] content) throws IOException {
+        String etag = digest(content);
+        Path target = root.resolve("survey-" + surveyId + "-" + etag + "." + format.extension + ".gz");
+        if (!Files.exists(target)) {
+            Path tmp = Files.createTempFile(root, "survey-" + surveyId + "-", ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE);
+                     GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(channel))) {
+                    gzip.write(content);
+                    gzip.finish();
+                    channel.force(true);
+                }
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        return new Artifact(target, format, etag, Files.size(target));
+    }
+
+    private static String digest(byte[] content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Sayımlar (optionId, oy sayısı) long çiftleri olarak saklanır; oyu olmayan seçenekler yazılmaz
+    static byte[] encode(Map<Long, Long> counts) {
+        ByteBuffer buffer = ByteBuffer.allocate(counts.size() * 2 * Long.BYTES);
+        counts.forEach((optionId, count) -> buffer.putLong(optionId).putLong(count));
+        return buffer.array();
+    }
+
+    static Map<Long, Long> decode(byte[] encoded) {
+        ByteBuffer buffer = ByteBuffer.wrap(encoded);
+        Map<Long, Long> counts = new HashMap<>();
+        while (buffer.remaining() >= 2 * Long.BYTES) {
+            counts.put(buffer.getLong(), buffer.getLong());
+        }
+        return counts;
+    }
+
+    /**
+     * Önceden üretilmiş, gzip'li ve değişmez bir sonuç dosyası.
+     */
+    public static final class Artifact {
+        private final Path path;
+        private final Format format;
+        private final String etag;
+        private final long length;
+
+        Artifact(Path path, Format format, String etag, long length) {
+            this.path = path;
+            this.format = format;
+            this.etag = etag;
+            this.length = length;
+        }
+
+        public Path getPath() { return path; }
+        public Format getFormat() { return format; }
+        /** Sıkıştırılmamış içeriğin özeti (tırnaksız). */
+        public String getEtag() { return etag; }
+        /** Gzip'li dosyanın bayt cinsinden uzunluğu. */
+        public long getLength() { return length; }
+    }
+
+    private static final class Artifacts {
+        private final long surveyVersion;
+        private final Artifact html;
+        private final Artifact json;
+
+        Artifacts(long surveyVersion, Artifact html, Artifact json) {
+            this.surveyVersion = surveyVersion;
+            this.html = html;
+            this.json = json;
+        }
+
+        Artifact get(Format format) {
+            return format == Format.HTML ? html : json;
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package com.example.surveyapp.service;
 
+import com.example.surveyapp.dto.PayoutRow;
+import com.example.surveyapp.model.Payout;
 import com.example.surveyapp.model.User;
+import com.example.surveyapp.repository.PayoutRepository;
+import com.example.surveyapp.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -15,30 +23,32 @@ public class RewardService {
 
     private static final Logger logger = LoggerFactory.getLogger(RewardService.class);
     private static final int MAX_ETH_WITHDRAWAL = 100;
-    
-    // URL'yi sabit tanımlama
-    private final String tenderlyRpcUrl = "https://virtual.sepolia.rpc.tenderly.co/d88ec9b6-956d-486e-b852-76fcd37861b3";
+    private static final int RECENT_PAYOUT_LIMIT = 10;
 
     @Autowired
-    private UserService userService;
+    private PointsLedgerService pointsLedgerService;
 
     @Autowired
-    private Web3TenderlyService web3TenderlyService;
-    
+    private PayoutRepository payoutRepository;
+
     @Autowired
-    private TenderlyBalanceService tenderlyBalanceService;
+    private UserRepository userRepository;
 
     /**
-     * Kullanıcının puanlarını ETH'ye çevirir
+     * Kullanıcının puanlarını ETH'ye çevirir. Puanlar hemen ayrılır ve ödeme kuyruğa
+     * yazılır; ağ çağrısı istek sırasında yapılmaz.
      *
-     * @param user            Puanlarını ETH'ye çevirmek isteyen kullanıcı
+     * @param userId          Puanlarını ETH'ye çevirmek isteyen kullanıcının ID'si
      * @param walletAddress   Kullanıcının Ethereum cüzdan adresi
      * @param pointsToConvert Çevrilecek puan miktarı
      * @return İşlem sonucunu içeren Map
      */
+    @Timed
     @Transactional
-    public Map<String, Object> convertPointsToEth(User user, String walletAddress, int pointsToConvert) {
+    public Map<String, Object> convertPointsToEth(Long userId, String walletAddress, int pointsToConvert) {
         Map<String, Object> result = new HashMap<>();
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı: ID " + userId));
 
         logger.info("Converting {} points to ETH for user: {}, wallet: {}",
                 pointsToConvert, user.getEmail(), walletAddress);
@@ -59,13 +69,6 @@ public class RewardService {
                 return result;
             }
 
-            if (pointsToConvert > user.getPoints()) {
-                logger.warn("Not enough points. Requested: {}, Available: {}", pointsToConvert, user.getPoints());
-                result.put("success", false);
-                result.put("message", "Yeterli puanınız bulunmamaktadır");
-                return result;
-            }
-
             if (user.getWalletAddress() == null || user.getWalletAddress().isEmpty()) {
                 logger.warn("User has no linked wallet address: {}", user.getEmail());
                 result.put("success", false);
@@ -81,73 +84,50 @@ public class RewardService {
                 return result;
             }
 
-            // ETH gönderimi - Test ortamında Tenderly Balance Service kullanarak
-            try {
-                // Cüzdan adresini düzenle - 0x kontrolü
-                if (!walletAddress.startsWith("0x")) {
-                    walletAddress = "0x" + walletAddress;
-                    logger.info("Wallet address formatted with 0x prefix: {}", walletAddress);
-                }
-                
-                // Önce cüzdana ETH yükle (test ortamı)
-                logger.info("Setting ETH balance using Tenderly for wallet: {}, amount: {}, URL: {}", 
-                        walletAddress, pointsToConvert, tenderlyRpcUrl);
-                
-                // Doğrudan boolean değer döndürmek yerine, try-catch ile işlem yapma
-                try {
-                    boolean balanceSet = tenderlyBalanceService.addBalanceEth(walletAddress, pointsToConvert);
-                    
-                    if (!balanceSet) {
-                        logger.error("Failed to set ETH balance for wallet: {}", walletAddress);
-                        result.put("success", false);
-                        result.put("message", "Test ETH yüklemesi başarısız oldu. Lütfen daha sonra tekrar deneyin.");
-                        return result;
-                    }
-                    
-                    logger.info("Successfully added ETH to wallet: {}", walletAddress);
-                } catch (Exception e) {
-                    logger.error("Tenderly setBalance exception: ", e);
-                    result.put("success", false);
-                    result.put("message", "Tenderly işlemi sırasında hata: " + e.getMessage());
-                    return result;
-                }
-                
-                // Gerçek bir transaction oluşturmayı simüle et (test ortamında gerçek tx gerekmez)
-                String txHash = "0x" + java.util.UUID.randomUUID().toString().replace("-", "");
-                logger.info("Test transaction simulated with hash: {}", txHash);
-                
-                // Kullanıcı puanlarını güncelle
-                userService.updateUserPoints(user, -pointsToConvert);
-                logger.info("Deducted {} points from user: {}", pointsToConvert, user.getEmail());
-
-                // Başarılı sonuç
-                result.put("success", true);
-                result.put("message", pointsToConvert + " puan başarıyla " + pointsToConvert + " ETH'ye çevrildi ve cüzdanınıza gönderildi");
-                result.put("txHash", txHash);
-                result.put("ethAmount", pointsToConvert);
-                result.put("walletAddress", walletAddress);
+            // Cüzdan adresini düzenle - 0x kontrolü
+            if (!walletAddress.startsWith("0x")) {
+                walletAddress = "0x" + walletAddress;
+                logger.info("Wallet address formatted with 0x prefix: {}", walletAddress);
+            }
 
-                return result;
-                
-            } catch (Exception e) {
-                logger.error("Failed to send ETH: {} (Exception type: {})", e.getMessage(), e.getClass().getName(), e);
-                result.put("success", false);
+            Payout payout = new Payout();
+            payout.setUser(user);
+            payout.setWalletAddress(walletAddress.toLowerCase());
+            payout.setPoints(pointsToConvert);
+            payoutRepository.save(payout);
 
-                if (e.getMessage() != null && (e.getMessage().contains("Connection timed out") || e.getMessage().contains("I/O error"))) {
-                    result.put("message", "Ethereum ağına bağlanırken bir sorun yaşandı. Lütfen internet bağlantınızı kontrol edin ve daha sonra tekrar deneyin. Sorun devam ederse yöneticiye başvurun.");
-                } else if (e instanceof IllegalArgumentException) {
-                    result.put("message", "Giriş parametrelerinde hata: " + e.getMessage());
-                } else {
-                    result.put("message", "ETH gönderimi sırasında bir hata oluştu. Lütfen daha sonra tekrar deneyin.");
-                }
+            // Puanlar koşullu olarak ayrılır; bakiye kontrolü ve düşüm tek bir UPDATE ile yapılır.
+            // ETH yüklemesi ödeme kuyruğu üzerinden PayoutWorker tarafından yapılır
+            if (!pointsLedgerService.reserve(user.getId(), pointsToConvert, payout.getId())) {
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                result.put("success", false);
+                result.put("message", "Yeterli puanınız bulunmamaktadır");
                 return result;
             }
+            logger.info("Payout {} queued: {} points for user: {}", payout.getId(), pointsToConvert, user.getEmail());
+
+            result.put("success", true);
+            result.put("message", pointsToConvert + " puan ETH'ye çevrilmek üzere sıraya alındı. ETH kısa süre içinde cüzdanınıza gönderilecek.");
+            result.put("payoutId", payout.getId());
+            result.put("ethAmount", pointsToConvert);
+            result.put("walletAddress", walletAddress);
+            return result;
 
         } catch (Exception e) {
             logger.error("Error converting points to ETH: {}", e.getMessage(), e);
+            // Puan düşümü ile kuyruk kaydı birlikte geri alınmalı
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             result.put("success", false);
             result.put("message", "ETH dönüşümü sırasında bir hata oluştu: " + e.getMessage());
             return result;
         }
     }
-}
+
+    /**
+     * Kullanıcının son ödeme taleplerini (durumlarıyla birlikte) döndürür.
+     */
+    @Transactional(readOnly = true)
+    public List<PayoutRow> getRecentPayouts(Long userId) {
+        return payoutRepository.findRecentByUserId(userId, PageRequest.of(0, RECENT_PAYOUT_LIMIT));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,368 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.dto.AnswerFilter;
+import com.example.surveyapp.dto.Crosstab;
+import com.example.surveyapp.dto.OptionDefinition;
+import com.example.surveyapp.dto.OptionResult;
+import com.example.surveyapp.dto.QuestionDefinition;
+import com.example.surveyapp.dto.QuestionResult;
+import com.example.surveyapp.dto.SurveyDefinition;
+import com.example.surveyapp.dto.VoteActivity;
+import com.example.surveyapp.event.VotesRecordedEvent;
+import com.example.surveyapp.model.RollupGranularity;
+import com.example.surveyapp.repository.VoteRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+/**
+ * Anket sahibinin çapraz analizleri: "Soru 1'de A diyenler Soru 2'ye ne cevap verdi",
+ * filtrelenmiş soru dağılımları ve zaman dilimlerine göre kırılımlar.
+ * <p>
+ * Anketin oyları bir kez {@link VoteMatrix} sütunlarına yüklenir; her analiz bu int
+ * dizileri üzerinde paralel bir taramadır, veritabanına gitmez. Matris ve hesaplanan
+ * sonuçlar anket başına önbellekte tutulur ve ankete yeni oy commit edildiğinde atılır;
+ * bitmiş anketlerin kaydı böylece süresiz geçerli kalır. Önbellek kayıt sayısı ve toplam
+ * hücre sayısı ile sınırlıdır; sınır aşılınca en uzun süredir kullanılmayan anket çıkarılır.
+ */
+@Service
+public class SurveyAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SurveyAnalyticsService.class);
+
+    public static final int MAX_SEGMENTS = 400;
+    private static final int MAX_RESULTS_PER_SURVEY = 64;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Value("${analytics.cache.max-entries:100}")
+    private int maxEntries;
+
+    @Value("${analytics.cache.max-cells:20000000}")
+    private long maxCells;
+
+    @Value("${analytics.parallelism:0}")
+    private int parallelism;
+
+    private final TransactionTemplate transaction;
+    private ForkJoinPool pool;
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Süren yüklemeler; aynı anketi isteyenler aynı yüklemeyi bekler
+    private final Map<Long, Load> loads = new HashMap<>();
+    private long totalCells;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Autowired
+    public SurveyAnalyticsService(PlatformTransactionManager transactionManager) {
+        // Salt okunur değil: matris birincil veritabanından okunur. Replikadan okunsaydı geçersiz
+        // kılmadan hemen sonra yüklenen matris henüz gelmemiş oyları kaçırıp önbellekte kalabilirdi.
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("survey-analytics-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Ankete oy commit edildiğinde matrisi ve sonuçlarını atar; süren bir yükleme varsa
+     * sonucu önbelleğe yazılmaz.
+     */
+    @TransactionalEventListener
+    public void onVotesRecorded(VotesRecordedEvent event) {
+        invalidate(event.getSurveyId());
+    }
+
+    public synchronized void invalidate(Long surveyId) {
+        Entry removed = entries.remove(surveyId);
+        if (removed != null) {
+            totalCells -= removed.matrix.getWeight();
+            logger.debug("Vote matrix of survey {} invalidated", surveyId);
+        }
+        Load load = loads.get(surveyId);
+        if (load != null) {
+            load.stale = true;
+        }
+    }
+
+    /**
+     * Filtreye uyan katılımcı sayısı.
+     */
+    public long countRespondents(SurveyDefinition survey, AnswerFilter filter) {
+        AnswerFilter answerFilter = filter != null ? filter : AnswerFilter.NONE;
+        return cached(survey, List.of("respondents", answerFilter), matrix -> {
+            IntPredicate matches = matrix.compile(answerFilter);
+            return matrix.count(pool, r -> matches.test(r) ? 0 : -1, 1)[0];
+        });
+    }
+
+    /**
+     * Satır sorusunun seçenekleri x sütun sorusunun seçenekleri. Yalnızca iki soruyu da
+     * cevaplamış ve filtreye uyan katılımcılar sayılır.
+     */
+    public Crosstab crosstab(SurveyDefinition survey, Long rowQuestionId, Long columnQuestionId, AnswerFilter filter) {
+        AnswerFilter answerFilter = filter != null ? filter : AnswerFilter.NONE;
+        return cached(survey, List.of("crosstab", rowQuestionId, columnQuestionId, answerFilter), matrix -> {
+            QuestionDefinition rowQuestion = matrix.getQuestions().get(matrix.questionIndex(rowQuestionId));
+            QuestionDefinition columnQuestion = matrix.getQuestions().get(matrix.questionIndex(columnQuestionId));
+            int[] rows = matrix.column(matrix.questionIndex(rowQuestionId));
+            int[] columns = matrix.column(matrix.questionIndex(columnQuestionId));
+            int width = columnQuestion.getOptions().size();
+            IntPredicate matches = matrix.compile(answerFilter);
+
+            long[] cells = matrix.count(pool, r -> rows[r] != VoteMatrix.NO_ANSWER && columns[r] != VoteMatrix.NO_ANSWER
+                    && matches.test(r) ? rows[r] * width + columns[r] : -1, rowQuestion.getOptions().size() * width);
+            return new Crosstab(rowQuestion.getText(), columnQuestion.getText(),
+                    optionTexts(rowQuestion), optionTexts(columnQuestion), cells);
+        });
+    }
+
+    /**
+     * Filtreye uyan katılımcıların bir sorudaki seçenek dağılımı.
+     */
+    public QuestionResult breakdown(SurveyDefinition survey, Long questionId, AnswerFilter filter) {
+        AnswerFilter answerFilter = filter != null ? filter : AnswerFilter.NONE;
+        return cached(survey, List.of("breakdown", questionId, answerFilter), matrix -> {
+            QuestionDefinition question = matrix.getQuestions().get(matrix.questionIndex(questionId));
+            int[] answers = matrix.column(matrix.questionIndex(questionId));
+            IntPredicate matches = matrix.compile(answerFilter);
+
+            long[] counts = matrix.count(pool, r -> answers[r] != VoteMatrix.NO_ANSWER && matches.test(r) ? answers[r] : -1,
+                    question.getOptions().size());
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            List<OptionResult> options = new ArrayList<>(counts.length);
+            for (int o = 0; o < counts.length; o++) {
+                OptionDefinition option = question.getOptions().get(o);
+                options.add(new OptionResult(option.getId(), option.getText(), counts[o], total == 0 ? 0.0 : counts[o] * 100.0 / total));
+            }
+            return new QuestionResult(question.getId(), question.getText(), total, options);
+        });
+    }
+
+    /**
+     * Zaman dilimleri (katılımcının ilk oyuna göre) x sorunun seçenekleri. Dilimler filtrenin
+     * zaman aralığıyla, aralık yoksa ilk ve son oyla sınırlıdır; en fazla {@value #MAX_SEGMENTS} dilim.
+     */
+    public Crosstab segmentByTime(SurveyDefinition survey, Long questionId, AnswerFilter filter, RollupGranularity granularity) {
+        AnswerFilter answerFilter = filter != null ? filter : AnswerFilter.NONE;
+        return cached(survey, List.of("segments", questionId, answerFilter, granularity), matrix -> {
+            QuestionDefinition question = matrix.getQuestions().get(matrix.questionIndex(questionId));
+            List<String> optionLabels = optionTexts(question);
+            String rowTitle = "Zaman";
+
+            LocalDateTime first = matrix.getFirstAnsweredAt();
+            LocalDateTime last = matrix.getLastAnsweredAt();
+            if (answerFilter.getFrom() != null && first != null && answerFilter.getFrom().isAfter(first)) {
+                first = answerFilter.getFrom();
+            }
+            if (answerFilter.getTo() != null && last != null && !answerFilter.getTo().isAfter(last)) {
+                last = answerFilter.getTo().minusSeconds(1);
+            }
+            if (first == null || last.isBefore(first)) {
+                return new Crosstab(rowTitle, question.getText(), List.of(), optionLabels, new long[0]);
+            }
+
+            LocalDateTime start = granularity.bucketStart(first);
+            long segments = granularity.getUnit().between(start, granularity.bucketStart(last)) + 1;
+            if (segments > MAX_SEGMENTS) {
+                throw new RuntimeException("Seçilen aralık " + MAX_SEGMENTS
+                        + " dilimden fazla; daha kaba bir dilim veya daha kısa bir aralık seçin.");
+            }
+            int buckets = (int) segments;
+            long startSecond = VoteMatrix.toEpochSecond(start);
+            long unitSeconds = granularity.getUnit().getDuration().getSeconds();
+            long[] answeredAt = matrix.answeredAt();
+            int[] answers = matrix.column(matrix.questionIndex(questionId));
+            int width = question.getOptions().size();
+            IntPredicate matches = matrix.compile(answerFilter);
+
+            long[] cells = matrix.count(pool, r -> {
+                long time = answeredAt[r];
+                if (time == VoteMatrix.UNKNOWN_TIME || time < startSecond || answers[r] == VoteMatrix.NO_ANSWER) {
+                    return -1;
+                }
+                long bucket = (time - startSecond) / unitSeconds;
+                return bucket < buckets && matches.test(r) ? (int) bucket * width + answers[r] : -1;
+            }, buckets * width);
+
+            List<String> rowLabels = new ArrayList<>(buckets);
+            for (int i = 0; i < buckets; i++) {
+                rowLabels.add(VoteActivity.formatBucket(granularity, start.plus(i, granularity.getUnit())));
+            }
+            return new Crosstab(rowTitle, question.getText(), rowLabels, optionLabels, cells);
+        });
+    }
+
+    private static List<String> optionTexts(QuestionDefinition question) {
+        return question.getOptions().stream().map(OptionDefinition::getText).toList();
+    }
+
+    /**
+     * Sonucu anketin önbellek kaydından döndürür; yoksa matris üzerinde hesaplayıp kayda ekler.
+     * Aynı sonucu aynı anda hesaplayan iki istek olursa ikisi de hesaplar, biri kalır.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T cached(SurveyDefinition survey, List<Object> key, Function<VoteMatrix, T> analysis) {
+        Entry entry = entry(survey);
+        synchronized (entry.results) {
+            Object cached = entry.results.get(key);
+            if (cached != null) {
+                return (T) cached;
+            }
+        }
+        long start = System.nanoTime();
+        T result = analysis.apply(entry.matrix);
+        logger.debug("Computed {} for survey {} over {} respondents in {} µs", key.get(0), survey.getId(),
+                entry.matrix.getRespondents(), (System.nanoTime() - start) / 1000);
+        synchronized (entry.results) {
+            entry.results.put(key, result);
+        }
+        return result;
+    }
+
+    private Entry entry(SurveyDefinition survey) {
+        Long surveyId = survey.getId();
+        Load load;
+        boolean loading = false;
+        synchronized (this) {
+            Entry cached = entries.get(surveyId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            load = loads.get(surveyId);
+            // Geçersiz kılınmış bir yükleme yeni oyları içermeyebilir; beklemek yerine yenisi başlatılır
+            if (load == null || load.stale) {
+                load = new Load();
+                loads.put(surveyId, load);
+                loading = true;
+            }
+        }
+
+        if (!loading) {
+            try {
+                return load.result.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        misses.incrementAndGet();
+        try {
+            Entry loaded = new Entry(loadMatrix(survey));
+            load.result.complete(loaded);
+            put(surveyId, load, loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            load.result.completeExceptionally(e);
+            synchronized (this) {
+                loads.remove(surveyId, load);
+            }
+            throw e;
+        }
+    }
+
+    private VoteMatrix loadMatrix(SurveyDefinition survey) {
+        long start = System.nanoTime();
+        VoteMatrix matrix = transaction.execute(status -> {
+            VoteMatrix.Builder builder = VoteMatrix.builder(survey.getQuestions());
+            try (Stream<Object[]> rows = voteRepository.streamAnswersBySurveyId(survey.getId())) {
+                rows.forEach(row -> builder.add((Long) row[0], (Long) row[1], (Long) row[2], (LocalDateTime) row[3]));
+            }
+            return builder.build();
+        });
+        logger.info("Loaded vote matrix for survey {}: {} respondents x {} questions in {} ms", survey.getId(),
+                matrix.getRespondents(), matrix.getQuestions().size(), (System.nanoTime() - start) / 1_000_000);
+        return matrix;
+    }
+
+    private synchronized void put(Long surveyId, Load load, Entry entry) {
+        loads.remove(surveyId, load);
+        long weight = entry.matrix.getWeight();
+        if (load.stale || weight > maxCells) {
+            return;
+        }
+        Entry previous = entries.put(surveyId, entry);
+        if (previous != null) {
+            totalCells -= previous.matrix.getWeight();
+        }
+        totalCells += weight;
+
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalCells > maxCells) && eldest.hasNext()) {
+            Entry evicted = eldest.next().getValue();
+            if (evicted == entry) {
+                continue;
+            }
+            eldest.remove();
+            totalCells -= evicted.matrix.getWeight();
+        }
+    }
+
+    public long getHitCount() { return hits.get(); }
+    public long getMissCount() { return misses.get(); }
+    public synchronized int getSize() { return entries.size(); }
+    public synchronized long getTotalCells() { return totalCells; }
+
+    private static final class Entry {
+        private final VoteMatrix matrix;
+        // Analiz anahtarı -> sonuç; en uzun süredir kullanılmayan sonuç çıkarılır
+        private final Map<List<Object>, Object> results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Object> eldest) {
+                return size() > MAX_RESULTS_PER_SURVEY;
+            }
+        };
+
+        private Entry(VoteMatrix matrix) {
+            this.matrix = matrix;
+        }
+    }
+
+    private static final class Load {
+        private final CompletableFuture<Entry> result = new CompletableFuture<>();
+        // this kilidi altında okunur ve yazılır
+        private boolean stale;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.dto.SurveyDefinition;
+import com.example.surveyapp.event.SurveyEndedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Anket yapılarının süreç içi önbelleği. Anket yapısı oluşturulduktan sonra
+ * değişmediği için kayıtlar yalnızca anket sonlandırıldığında geçersiz kılınır.
+ * Kayıt sayısı ve toplam ağırlık (soru + seçenek sayısı) ile sınırlıdır;
+ * sınır aşılınca en uzun süredir kullanılmayan kayıtlar çıkarılır.
+ * <p>
+ * İsabet/ıska ({@code cache.gets}), çıkarma ({@code cache.evictions}), kayıt sayısı ve toplam
+ * ağırlık {@code cache=survey-definitions} etiketiyle metrik olarak yayımlanır.
+ */
+@Component
+public class SurveyDefinitionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SurveyDefinitionCache.class);
+    private static final String CACHE_NAME = "survey-definitions";
+
+    private final LinkedHashMap<Long, SurveyDefinition> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalWeight;
+    // Her geçersiz kılmada artar; yükleme sırasında geçersiz kılma olduysa sonuç önbelleğe yazılmaz
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Value("${survey.cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${survey.cache.max-weight:200000}")
+    private long maxWeight;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void bindMetrics() {
+        FunctionCounter.builder("cache.gets", this, SurveyDefinitionCache::getHitCount)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", this, SurveyDefinitionCache::getMissCount)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", this, SurveyDefinitionCache::getEvictionCount)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, SurveyDefinitionCache::getSize)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.weight", this, SurveyDefinitionCache::getTotalWeight)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Önbellekteki tanımı döndürür; yoksa loader ile yükleyip önbelleğe ekler.
+     * Loader kilit dışında çalışır, böylece yavaş bir yükleme diğer okumaları bekletmez.
+     */
+    public SurveyDefinition get(Long surveyId, Function<Long, SurveyDefinition> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            SurveyDefinition cached = entries.get(surveyId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+
+        misses.incrementAndGet();
+        SurveyDefinition loaded = loader.apply(surveyId);
+        put(loaded, loadGeneration);
+        return loaded;
+    }
+
+    public synchronized void invalidate(Long surveyId) {
+        generation++;
+        SurveyDefinition removed = entries.remove(surveyId);
+        if (removed != null) {
+            totalWeight -= removed.getWeight();
+            logger.debug("Survey definition {} invalidated", surveyId);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onSurveyEnded(SurveyEndedEvent event) {
+        invalidate(event.getSurveyId());
+    }
+
+    private synchronized void put(SurveyDefinition definition, long loadGeneration) {
+        if (loadGeneration != generation) {
+            return;
+        }
+        SurveyDefinition previous = entries.put(definition.getId(), definition);
+        if (previous != null) {
+            totalWeight -= previous.getWeight();
+        }
+        totalWeight += definition.getWeight();
+
+        Iterator<Map.Entry<Long, SurveyDefinition>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalWeight > maxWeight) && eldest.hasNext()) {
+            SurveyDefinition evicted = eldest.next().getValue();
+            if (evicted == definition) {
+                continue;
+            }
+            eldest.remove();
+            totalWeight -= evicted.getWeight();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public long getHitCount() { return hits.get(); }
+    public long getMissCount() { return misses.get(); }
+    public long getEvictionCount() { return evictions.get(); }
+    public synchronized int getSize() { return entries.size(); }
+    public synchronized long getTotalWeight() { return totalWeight; }
+
+    public double getHitRatio() {
+        long requests = hits.get() + misses.get();
+        return requests == 0 ? 0.0 : (double) hits.get() / requests;
+    }
+}
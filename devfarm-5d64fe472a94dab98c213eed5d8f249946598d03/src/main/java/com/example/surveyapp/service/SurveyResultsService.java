@@ -0,0 +1,123 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.dto.OptionDefinition;
+import com.example.surveyapp.dto.OptionResult;
+import com.example.surveyapp.dto.QuestionDefinition;
+import com.example.surveyapp.dto.QuestionResult;
+import com.example.surveyapp.dto.SurveyDefinition;
+import com.example.surveyapp.dto.SurveyResults;
+import com.example.surveyapp.dto.VoteRow;
+import com.example.surveyapp.repository.VoteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Anket sonuçlarını tekil Vote entity'lerini yüklemeden hesaplar. Sayımlar
+ * veritabanında GROUP BY ile yapılır; ham oy satırları yalnızca açıkça
+ * istendiğinde sayfa sayfa veya imleçle akıtılarak okunur.
+ */
+@Service
+public class SurveyResultsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SurveyResultsService.class);
+    public static final int MAX_VOTE_PAGE_SIZE = 200;
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Transactional(readOnly = true)
+    public SurveyResults getResults(Long surveyId) {
+        SurveyDefinition survey = surveyService.getSurveyDefinition(surveyId);
+        SurveyResults results = toResults(survey, countVotesByOption(surveyId));
+        logger.debug("Computed results for survey ID: {} ({} votes)", surveyId, results.getTotalVotes());
+        return results;
+    }
+
+    /**
+     * Seçenek ID'si -> oy sayısı. Çağıranın transaction'ında çalışır; oyu olmayan seçenekler yer almaz.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Long> countVotesByOption(Long surveyId) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : voteRepository.countByOptionForSurvey(surveyId)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    /**
+     * Seçenek sayımlarından soru toplamlarını ve yüzdeleri anket yapısındaki sırayla hesaplar.
+     */
+    public SurveyResults toResults(SurveyDefinition survey, Map<Long, Long> counts) {
+        long totalVotes = 0;
+        List<QuestionResult> questions = new ArrayList<>(survey.getQuestions().size());
+        for (QuestionDefinition question : survey.getQuestions()) {
+            long questionTotal = 0;
+            for (OptionDefinition option : question.getOptions()) {
+                questionTotal += counts.getOrDefault(option.getId(), 0L);
+            }
+
+            List<OptionResult> options = new ArrayList<>(question.getOptions().size());
+            for (OptionDefinition option : question.getOptions()) {
+                long count = counts.getOrDefault(option.getId(), 0L);
+                double percentage = questionTotal == 0 ? 0.0 : count * 100.0 / questionTotal;
+                options.add(new OptionResult(option.getId(), option.getText(), count, percentage));
+            }
+            questions.add(new QuestionResult(question.getId(), question.getText(), questionTotal, options));
+            totalVotes += questionTotal;
+        }
+        return new SurveyResults(survey, totalVotes, questions);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<VoteRow> getVoteRows(Long surveyId, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_VOTE_PAGE_SIZE));
+        return voteRepository.findVoteRowsBySurveyId(surveyId, PageRequest.of(Math.max(page, 0), pageSize));
+    }
+
+    /**
+     * Tüm oy satırlarını CSV olarak yazar. Satırlar imleçle okunur ve
+     * bellekte tutulmaz, böylece oy sayısından bağımsız sabit bellek kullanılır.
+     */
+    @Transactional(readOnly = true)
+    public void exportVoteRows(Long surveyId, Writer writer) throws IOException {
+        writer.write("voter,question,option,timestamp\n");
+        try (Stream<VoteRow> rows = voteRepository.streamVoteRowsBySurveyId(surveyId)) {
+            rows.forEach(row -> {
+                try {
+                    writer.write(csv(row.getVoterEmail()) + "," + csv(row.getQuestionText()) + ","
+                            + csv(row.getOptionText()) + "," + (row.getTimestamp() != null ? row.getTimestamp() : "") + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
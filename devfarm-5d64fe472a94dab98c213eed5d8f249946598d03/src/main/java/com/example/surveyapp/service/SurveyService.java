@@ -1,17 +1,25 @@
 package com.example.surveyapp.service;
 
+import com.example.surveyapp.dto.SessionUser;
+import com.example.surveyapp.dto.SurveyDefinition;
+import com.example.surveyapp.dto.SurveyPage;
+import com.example.surveyapp.dto.SurveySummary;
 import com.example.surveyapp.model.Survey;
-import com.example.surveyapp.model.User;
-import com.example.surveyapp.model.Vote;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface SurveyService {
-    Survey createSurvey(Survey survey, User user);
-    List<Survey> getAllActiveSurveys();
+    Survey createSurvey(Survey survey, Long userId);
+    SurveyPage getActiveSurveyPage(String cursor, int pageSize);
     Survey getSurveyById(Long id);
-    void vote(Long questionId, Long optionId, User user);
-    List<Vote> getVotesBySurvey(Long surveyId);
-    List<Survey> getSurveysByUser(User user);
-    void endSurvey(Long surveyId, User user);
+    SurveyDefinition getSurveyDefinition(Long id);
+    void vote(Long questionId, Long optionId, Long userId);
+    void submitBallot(Long surveyId, Map<Long, Long> ballot, Long userId);
+    boolean hasVotedOnSurvey(Long userId, Long surveyId);
+    Set<Long> getVotedSurveyIds(Long userId, Collection<Long> surveyIds);
+    List<SurveySummary> getSurveySummariesByUser(Long userId);
+    void endSurvey(Long surveyId, SessionUser user);
 }
\ No newline at end of file
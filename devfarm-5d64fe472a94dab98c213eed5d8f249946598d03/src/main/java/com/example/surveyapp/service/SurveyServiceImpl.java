@@ -1,22 +1,44 @@
 package com.example.surveyapp.service;
 
+import com.example.surveyapp.dto.OptionDefinition;
+import com.example.surveyapp.dto.QuestionDefinition;
+import com.example.surveyapp.dto.SessionUser;
+import com.example.surveyapp.dto.SurveyDefinition;
+import com.example.surveyapp.dto.SurveyPage;
+import com.example.surveyapp.dto.SurveySummary;
+import com.example.surveyapp.event.SurveyEndedEvent;
+import com.example.surveyapp.event.VotesRecordedEvent;
 import com.example.surveyapp.model.Option;
+import com.example.surveyapp.model.PointsReason;
 import com.example.surveyapp.model.Question;
 import com.example.surveyapp.model.Survey;
-import com.example.surveyapp.model.User;
 import com.example.surveyapp.model.Vote;
 import com.example.surveyapp.repository.OptionRepository;
 import com.example.surveyapp.repository.QuestionRepository;
 import com.example.surveyapp.repository.SurveyRepository;
+import com.example.surveyapp.repository.UserRepository;
 import com.example.surveyapp.repository.VoteRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class SurveyServiceImpl implements SurveyService {
@@ -36,30 +58,73 @@ public class SurveyServiceImpl implements SurveyService {
     private VoteRepository voteRepository;
 
     @Autowired
-    private UserService userService;
+    private UserRepository userRepository;
+
+    @Autowired
+    private PointsLedgerService pointsLedgerService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SurveyDefinitionCache surveyDefinitionCache;
+
+    @Autowired
+    private VotedIndex votedIndex;
+
+    @Autowired
+    private BallotRecorder ballotRecorder;
+
+    @Autowired
+    private VoteJournal voteJournal;
+
+    private final TransactionTemplate definitionTransaction;
+
+    @Autowired
+    public SurveyServiceImpl(PlatformTransactionManager transactionManager) {
+        // Salt okunur değil: tanımlar birincil veritabanından okunur. Replikadan okunsaydı
+        // sonlandırmadan hemen sonra geride kalan bir replika active=true'yu yeniden önbelleğe
+        // koyabilir ve bir sonraki geçersiz kılmaya kadar bitmiş ankete oy kabul edilirdi.
+        this.definitionTransaction = new TransactionTemplate(transactionManager);
+    }
 
     @Override
-    public Survey createSurvey(Survey survey, User user) {
-        logger.info("Creating survey: {} by user: {}", survey.getTitle(), user.getEmail());
+    @Transactional
+    public Survey createSurvey(Survey survey, Long userId) {
+        logger.info("Creating survey: {} by user ID: {}", survey.getTitle(), userId);
+        survey.setCreatedBy(userRepository.getReferenceById(userId));
         Survey savedSurvey = surveyRepository.save(survey);
         logger.info("Survey created successfully with ID: {}", savedSurvey.getId());
         return savedSurvey;
     }
 
     @Override
-    public List<Survey> getAllActiveSurveys() {
-        logger.info("Fetching all active surveys");
-        List<Survey> surveys = surveyRepository.findByActiveTrue();
-        logger.info("Found {} active surveys", surveys.size());
-        if (surveys.isEmpty()) {
-            logger.warn("No active surveys found in the database");
+    public SurveyPage getActiveSurveyPage(String cursor, int pageSize) {
+        logger.debug("Fetching active survey page after cursor: {}", cursor);
+        // Bir fazla kayıt okunarak sonraki sayfanın olup olmadığı anlaşılır
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<SurveySummary> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = surveyRepository.findActiveSummaries(limit);
         } else {
-            surveys.forEach(survey -> logger.debug("Survey: ID={}, Title={}, Active={}", survey.getId(), survey.getTitle(), survey.getActive()));
+            try {
+                rows = surveyRepository.findActiveSummariesBefore(
+                        SurveyPage.cursorCreatedAt(cursor), SurveyPage.cursorId(cursor), limit);
+            } catch (DateTimeParseException | NumberFormatException | StringIndexOutOfBoundsException e) {
+                logger.warn("Invalid survey page cursor: {}", cursor);
+                rows = surveyRepository.findActiveSummaries(limit);
+            }
         }
-        return surveys;
+
+        if (rows.size() > pageSize) {
+            List<SurveySummary> items = rows.subList(0, pageSize);
+            return new SurveyPage(items, SurveyPage.cursorOf(items.get(pageSize - 1)));
+        }
+        return new SurveyPage(rows, null);
     }
 
     @Override
+    @Timed
     @Transactional(readOnly = true)
     public Survey getSurveyById(Long id) {
         logger.info("Fetching survey with ID: {}", id);
@@ -69,23 +134,17 @@ public class SurveyServiceImpl implements SurveyService {
                 throw new IllegalArgumentException("Survey ID cannot be null");
             }
             
-            Survey survey = surveyRepository.findById(id)
+            // Anket + oluşturan + sorular tek sorguda, tüm seçenekler ikinci sorguda yüklenir; soru
+            // sayısından bağımsız olarak iki sorgu (bkz. SurveyLoadStatementCountTest). Sık okunan
+            // yapı zaten SurveyDefinitionCache'te tutulduğu için bu yol yalnızca önbellek ıskasında çalışır.
+            Survey survey = surveyRepository.findWithQuestionsById(id)
                     .orElseThrow(() -> {
                         logger.error("Survey not found with ID: {}", id);
                         return new RuntimeException("Survey not found with ID: " + id);
                     });
-                    
-            // Lazy loading'i zorla
-            if (survey.getCreatedBy() != null) {
-                survey.getCreatedBy().getEmail(); // Initialize User proxy
-            }
-            
-            if (survey.getQuestions() != null) {
-                for (Question question : survey.getQuestions()) {
-                    if (question != null && question.getOptions() != null) {
-                        question.getOptions().size(); // Initialize options
-                    }
-                }
+
+            if (!survey.getQuestions().isEmpty()) {
+                questionRepository.findWithOptionsBySurveyId(id);
             }
             
             return survey;
@@ -95,10 +154,24 @@ public class SurveyServiceImpl implements SurveyService {
         }
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    /**
+     * Anket yapısını önbellekten döndürür; önbellekte yoksa tüm grafı tek
+     * transaction içinde yükleyip değişmez bir kopyasını önbelleğe ekler.
+     */
+    @Override
+    public SurveyDefinition getSurveyDefinition(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Survey ID cannot be null");
+        }
+        return surveyDefinitionCache.get(id,
+                surveyId -> definitionTransaction.execute(status -> SurveyDefinition.from(getSurveyById(surveyId))));
+    }
+
+    @Timed
+    @Transactional
     @Override
-    public void vote(Long questionId, Long optionId, User user) {
-        logger.info("Voting for question ID: {} with option ID: {} by user: {}", questionId, optionId, user != null ? user.getEmail() : "null");
+    public void vote(Long questionId, Long optionId, Long userId) {
+        logger.info("Voting for question ID: {} with option ID: {} by user ID: {}", questionId, optionId, userId);
 
         try {
             // Parametre kontrolü
@@ -112,9 +185,9 @@ public class SurveyServiceImpl implements SurveyService {
                 throw new IllegalArgumentException("Option ID cannot be null");
             }
             
-            if (user == null) {
-                logger.error("User is null");
-                throw new IllegalArgumentException("User cannot be null");
+            if (userId == null) {
+                logger.error("User ID is null");
+                throw new IllegalArgumentException("User ID cannot be null");
             }
 
             // Soru ve oylamayı kontrol et
@@ -137,14 +210,14 @@ public class SurveyServiceImpl implements SurveyService {
             
             // Kullanıcı anketin sahibi mi kontrol et
             if (question.getSurvey().getCreatedBy() != null && 
-                question.getSurvey().getCreatedBy().getId().equals(user.getId())) {
-                logger.warn("User {} is trying to vote on their own survey", user.getEmail());
+                question.getSurvey().getCreatedBy().getId().equals(userId)) {
+                logger.warn("User ID {} is trying to vote on their own survey", userId);
                 throw new RuntimeException("Kendi anketinize oy veremezsiniz");
             }
             
-            // Kullanıcı daha önce oy vermiş mi kontrol et
-            if (voteRepository.existsByUserAndQuestion(user, question)) {
-                logger.warn("User {} has already voted for question ID: {}", user.getEmail(), questionId);
+            // Kullanıcı daha önce oy vermiş mi kontrol et (bellekteki indeks; son savunma unique kısıtı)
+            if (votedIndex.hasVotedOnQuestion(userId, questionId) || voteJournal.isPendingQuestion(userId, questionId)) {
+                logger.warn("User ID {} has already voted for question ID: {}", userId, questionId);
                 throw new RuntimeException("Bu soruya zaten oy verdiniz");
             }
 
@@ -161,26 +234,26 @@ public class SurveyServiceImpl implements SurveyService {
                 throw new RuntimeException("Geçersiz seçenek: Bu seçenek bu soruya ait değil");
             }
 
-            // Oy sayısını güncelle
-            Integer currentVoteCount = option.getVoteCount();
-            if (currentVoteCount == null) {
-                currentVoteCount = 0;
-            }
-            option.setVoteCount(currentVoteCount + 1);
-            optionRepository.save(option);
-            logger.info("Vote recorded for option ID: {}", optionId);
-
-            // Oyu kaydet
+            // Oyu kaydet - eşzamanlı tekrarları (user_id, question_id) unique kısıtı yakalar
             Vote vote = new Vote();
-            vote.setUser(user);
+            vote.setUser(userRepository.getReferenceById(userId));
             vote.setQuestion(question);
             vote.setOption(option);
-            voteRepository.save(vote);
-            logger.info("Vote saved to Vote table for user: {}, question: {}, option: {}", user.getEmail(), questionId, optionId);
+            try {
+                voteRepository.saveAndFlush(vote);
+            } catch (DataIntegrityViolationException e) {
+                logger.warn("Concurrent duplicate vote by user ID {} for question ID: {}", userId, questionId);
+                throw new RuntimeException("Bu soruya zaten oy verdiniz");
+            }
+            logger.info("Vote saved to Vote table for user ID: {}, question: {}, option: {}", userId, questionId, optionId);
+
+            // Oy sayacı commit sonrasında VoteTallyService tarafından artırılır
+            eventPublisher.publishEvent(new VotesRecordedEvent(userId, question.getSurvey().getId(),
+                    List.of(new VotesRecordedEvent.RecordedVote(questionId, optionId)), LocalDateTime.now(), false));
             
             // Kullanıcıya 5 puan ekle
-            userService.updateUserPoints(user, 5);
-            logger.info("Added 5 points to user: {} for voting on question ID: {}", user.getEmail(), questionId);
+            pointsLedgerService.award(userId, BallotRecorder.POINTS_PER_VOTE, PointsReason.VOTE, questionId);
+            logger.info("Added 5 points to user ID: {} for voting on question ID: {}", userId, questionId);
         } catch (RuntimeException e) {
             logger.error("Error in vote method: {}", e.getMessage(), e);
             throw e; // Orijinal hatayı yeniden fırlat
@@ -190,62 +263,143 @@ public class SurveyServiceImpl implements SurveyService {
         }
     }
 
+    /**
+     * Bir anketin tüm cevaplarını tek transaction içinde kaydeder. Oy pusulası
+     * önceden yüklenmiş anket yapısına göre doğrulanır; herhangi bir soru
+     * hatalıysa hiçbir oy kaydedilmez.
+     * <p>
+     * Oy günlüğü etkinse (vote.journal.enabled) doğrulanan pusula veritabanı yerine
+     * {@link VoteJournal}'a yazılır ve diske indirilince onaylanır.
+     *
+     * @param surveyId Anket ID'si
+     * @param ballot   Soru ID'si -> seçilen seçenek ID'si
+     * @param userId   Oy veren kullanıcının ID'si
+     */
+    @Transactional
     @Override
-    @Transactional(readOnly = true)
-    public List<Vote> getVotesBySurvey(Long surveyId) {
-        logger.info("Fetching votes for survey ID: {}", surveyId);
-        try {
-            Survey survey = surveyRepository.findById(surveyId)
-                    .orElseThrow(() -> new RuntimeException("Survey not found with ID: " + surveyId));
-                    
-            List<Vote> votes = voteRepository.findByQuestionSurveyId(surveyId);
-            
-            // Lazy loading nesnelerini başlat
-            for (Vote vote : votes) {
-                if (vote.getUser() != null) {
-                    vote.getUser().getEmail(); // User nesnesini başlat
-                }
-                if (vote.getOption() != null) {
-                    vote.getOption().getText(); // Option nesnesini başlat
-                }
+    public void submitBallot(Long surveyId, Map<Long, Long> ballot, Long userId) {
+        logger.info("Submitting ballot for survey ID: {} with {} answers by user ID: {}",
+                surveyId, ballot != null ? ballot.size() : 0, userId);
+
+        if (surveyId == null) {
+            throw new IllegalArgumentException("Survey ID cannot be null");
+        }
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        if (ballot == null || ballot.isEmpty()) {
+            throw new RuntimeException("Hiçbir oy kaydedilemedi");
+        }
+
+        SurveyDefinition survey = getSurveyDefinition(surveyId);
+
+        if (!survey.getActive()) {
+            logger.warn("Attempted to vote on inactive survey: {}", surveyId);
+            throw new RuntimeException("Bu anket artık aktif değil");
+        }
+
+        if (survey.isOwnedBy(userId)) {
+            logger.warn("User ID {} is trying to vote on their own survey", userId);
+            throw new RuntimeException("Kendi anketinize oy veremezsiniz");
+        }
+
+        // Oy pusulası anketin tüm sorularını kapsamalı
+        Map<Long, QuestionDefinition> questionsById = new HashMap<>();
+        for (QuestionDefinition question : survey.getQuestions()) {
+            questionsById.put(question.getId(), question);
+        }
+        if (!questionsById.keySet().equals(ballot.keySet())) {
+            logger.warn("Ballot does not cover survey questions: {}/{} for survey: {}",
+                    ballot.size(), questionsById.size(), surveyId);
+            throw new RuntimeException("Lütfen tüm soruları yanıtlayın");
+        }
+
+        if (hasVotedOnSurvey(userId, surveyId)) {
+            logger.warn("User ID {} has already voted on survey ID: {}", userId, surveyId);
+            throw new RuntimeException("Bu ankete zaten oy verdiniz");
+        }
+
+        List<VotesRecordedEvent.RecordedVote> recorded = new ArrayList<>(ballot.size());
+        for (Map.Entry<Long, Long> answer : ballot.entrySet()) {
+            QuestionDefinition question = questionsById.get(answer.getKey());
+            OptionDefinition option = question.findOption(answer.getValue())
+                    .orElseThrow(() -> {
+                        logger.error("Option ID: {} does not belong to Question ID: {}", answer.getValue(), answer.getKey());
+                        return new RuntimeException("Geçersiz seçenek: Bu seçenek bu soruya ait değil");
+                    });
+            recorded.add(new VotesRecordedEvent.RecordedVote(question.getId(), option.getId()));
+        }
+
+        // Önbellekteki tanım anket sonlandırılmadan önce yüklenmiş olabilir (ör. başka bir sunucuda
+        // sonlandırıldıysa); yazmadan önce durum birincil veritabanından birincil anahtarla okunur
+        if (!surveyRepository.findActiveById(surveyId).orElse(false)) {
+            logger.warn("Survey {} was ended after its definition was cached, rejecting ballot", surveyId);
+            surveyDefinitionCache.invalidate(surveyId);
+            throw new RuntimeException("Bu anket artık aktif değil");
+        }
+
+        if (voteJournal.isEnabled()) {
+            // Günlük diske indirilince onaylanır; veritabanına VoteJournalApplier toplu olarak yazar
+            // Yazılan kayıt geri alınmaz; diske indirilemediyse pusula kabul edilir ve sonraki indirmeyle işlenir
+            if (voteJournal.append(userId, surveyId, recorded)) {
+                logger.info("Ballot journaled for survey ID: {}, user ID: {}, {} votes", surveyId, userId, recorded.size());
+            } else {
+                logger.warn("Ballot for survey ID: {}, user ID: {} accepted but not yet durable", surveyId, userId);
             }
-            
-            logger.info("Found {} votes for survey ID: {}", votes.size(), surveyId);
-            return votes;
-        } catch (Exception e) {
-            logger.error("Error retrieving votes for survey ID {}: {}", surveyId, e.getMessage(), e);
-            throw new RuntimeException("Error retrieving votes: " + e.getMessage(), e);
+            return;
         }
+
+        try {
+            ballotRecorder.record(userId, surveyId, recorded, LocalDateTime.now());
+            voteRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Concurrent duplicate ballot by user ID {} for survey ID: {}", userId, surveyId);
+            throw new RuntimeException("Bu ankete zaten oy verdiniz");
+        }
+        logger.info("Ballot saved for survey ID: {}, user ID: {}, {} votes", surveyId, userId, recorded.size());
     }
 
     @Override
-    public List<Survey> getSurveysByUser(User user) {
-        logger.info("Fetching surveys for user: {}", user.getEmail());
-        List<Survey> surveys = surveyRepository.findByCreatedBy(user);
-        logger.info("Found {} surveys for user: {}", surveys.size(), user.getEmail());
-        if (surveys.isEmpty()) {
-            logger.warn("No surveys found for user: {}", user.getEmail());
-        } else {
-            surveys.forEach(survey -> logger.debug("Survey: ID={}, Title={}, Active={}", survey.getId(), survey.getTitle(), survey.getActive()));
-        }
+    public List<SurveySummary> getSurveySummariesByUser(Long userId) {
+        logger.info("Fetching surveys for user ID: {}", userId);
+        List<SurveySummary> surveys = surveyRepository.findSummariesByCreatorId(userId);
+        logger.info("Found {} surveys for user ID: {}", surveys.size(), userId);
         return surveys;
     }
 
+    @Override
+    public boolean hasVotedOnSurvey(Long userId, Long surveyId) {
+        return votedIndex.hasVotedOnSurvey(userId, surveyId) || voteJournal.isPendingSurvey(userId, surveyId);
+    }
+
+    @Override
+    public Set<Long> getVotedSurveyIds(Long userId, Collection<Long> surveyIds) {
+        VotedIndex.UserVotes userVotes = votedIndex.get(userId);
+        Set<Long> voted = new HashSet<>();
+        for (Long surveyId : surveyIds) {
+            if (userVotes.containsSurvey(surveyId) || voteJournal.isPendingSurvey(userId, surveyId)) {
+                voted.add(surveyId);
+            }
+        }
+        return voted;
+    }
+
     @Override
     @Transactional
-    public void endSurvey(Long surveyId, User user) {
+    public void endSurvey(Long surveyId, SessionUser user) {
         logger.info("Ending survey ID: {} by user: {}", surveyId, user.getEmail());
         try {
             Survey survey = surveyRepository.findById(surveyId)
                     .orElseThrow(() -> new RuntimeException("Survey not found with ID: " + surveyId));
 
-            if (!survey.getCreatedBy().getEmail().equals(user.getEmail()) && !"admin".equals(user.getRole())) {
+            if (!survey.getCreatedBy().getId().equals(user.getId()) && !user.isAdmin()) {
                 logger.warn("User {} is not authorized to end survey {}", user.getEmail(), surveyId);
                 throw new RuntimeException("Bu anketi sonlandırma yetkiniz yok.");
             }
 
             survey.setActive(false);
             surveyRepository.save(survey);
+            eventPublisher.publishEvent(new SurveyEndedEvent(surveyId));
             logger.info("Survey ID: {} ended successfully by user: {}", surveyId, user.getEmail());
         } catch (Exception e) {
             logger.error("Error ending survey ID {}: {}", surveyId, e.getMessage(), e);
@@ -1,43 +1,24 @@
 package com.example.surveyapp.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.math.BigInteger;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
-
-import okhttp3.MediaType;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.RequestBody;
-import okhttp3.Response;
 
 @Service
 public class TenderlyBalanceService {
     
     private static final Logger logger = LoggerFactory.getLogger(TenderlyBalanceService.class);
-    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
-    
-    // URL'yi doğrudan kod içinde tanımlama
-    private final String tenderlyRpcUrl = "https://virtual.sepolia.rpc.tenderly.co/d88ec9b6-956d-486e-b852-76fcd37861b3";
     
-    private final OkHttpClient httpClient;
-    private final ObjectMapper objectMapper;
-    
-    public TenderlyBalanceService() {
-        // Timeout süreleri arttırıldı
-        this.httpClient = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .build();
-        this.objectMapper = new ObjectMapper();
-        logger.info("TenderlyBalanceService başlatıldı. RPC URL: {}", tenderlyRpcUrl);
-    }
+    @Autowired
+    private JsonRpcClient jsonRpcClient;
     
     /**
      * Get the current ETH balance for a wallet address
@@ -49,59 +30,15 @@ public class TenderlyBalanceService {
         
         try {
             // Cüzdan adresini kontrol et - 0x ile başlamalı
-            if (!walletAddress.startsWith("0x")) {
-                walletAddress = "0x" + walletAddress;
-                logger.info("Wallet address corrected to: {}", walletAddress);
-            }
+            walletAddress = withHexPrefix(walletAddress);
             
-            // Prepare JSON-RPC request body
-            Map<String, Object> requestMap = new HashMap<>();
-            requestMap.put("jsonrpc", "2.0");
-            requestMap.put("method", "eth_getBalance");
-            requestMap.put("id", 1);
-            requestMap.put("params", new String[]{walletAddress, "latest"});
-            
-            String requestBody = objectMapper.writeValueAsString(requestMap);
-            logger.info("Request JSON: {}", requestBody);
-            
-            // Create request
-            Request request = new Request.Builder()
-                    .url(tenderlyRpcUrl)
-                    .post(RequestBody.create(requestBody, JSON))
-                    .header("Content-Type", "application/json")
-                    .build();
-            
-            // Execute request
-            try (Response response = httpClient.newCall(request).execute()) {
-                String responseBody = response.body() != null ? response.body().string() : "Empty response";
-                
-                if (!response.isSuccessful()) {
-                    logger.error("HTTP error getting balance: {} {}, Body: {}", 
-                            response.code(), response.message(), responseBody);
-                    return null;
-                }
-                
-                logger.info("Get balance response: {}", responseBody);
-                
-                Map<String, Object> responseMap = objectMapper.readValue(responseBody, Map.class);
-                
-                // Check for errors in response
-                if (responseMap.containsKey("error")) {
-                    logger.error("Error from Tenderly API: {}", responseMap.get("error"));
-                    return null;
-                }
-                
-                // Parse result
-                String balanceHex = (String) responseMap.get("result");
-                if (balanceHex != null && balanceHex.startsWith("0x")) {
-                    BigInteger balance = new BigInteger(balanceHex.substring(2), 16);
-                    logger.info("Current balance for {}: {} wei", walletAddress, balance);
-                    return balance;
-                } else {
-                    logger.error("Invalid balance format: {}", balanceHex);
-                    return null;
-                }
+            BigInteger balance = parseQuantity(jsonRpcClient.call("eth_getBalance", walletAddress, "latest"));
+            if (balance == null) {
+                logger.error("Invalid balance format for {}", walletAddress);
+                return null;
             }
+            logger.info("Current balance for {}: {} wei", walletAddress, balance);
+            return balance;
             
         } catch (Exception e) {
             logger.error("Error getting wallet balance: {}", e.getMessage(), e);
@@ -116,64 +53,15 @@ public class TenderlyBalanceService {
      * @return Response status indicating success or failure
      */
     public boolean setBalance(String walletAddress, String ethAmountHex) {
-        logger.info("Setting wallet balance for address: {} to amount: {} using URL: {}", 
-                walletAddress, ethAmountHex, tenderlyRpcUrl);
+        logger.info("Setting wallet balance for address: {} to amount: {}", walletAddress, ethAmountHex);
         
         try {
             // Cüzdan adresini kontrol et - 0x ile başlamalı
-            if (!walletAddress.startsWith("0x")) {
-                walletAddress = "0x" + walletAddress;
-                logger.info("Wallet address corrected to: {}", walletAddress);
-            }
-            
-            // Prepare JSON-RPC request body
-            Map<String, Object> requestMap = new HashMap<>();
-            requestMap.put("jsonrpc", "2.0");
-            requestMap.put("method", "tenderly_setBalance");
-            requestMap.put("id", 1);
+            walletAddress = withHexPrefix(walletAddress);
             
-            // Parameters: [address, balance]
-            requestMap.put("params", new String[]{walletAddress, ethAmountHex});
-            
-            String requestBody = objectMapper.writeValueAsString(requestMap);
-            logger.info("Request JSON: {}", requestBody);
-            
-            // Create request
-            Request request = new Request.Builder()
-                    .url(tenderlyRpcUrl)
-                    .post(RequestBody.create(requestBody, JSON))
-                    .header("Content-Type", "application/json")
-                    .build();
-            
-            // Execute request
-            try (Response response = httpClient.newCall(request).execute()) {
-                String responseBody = response.body() != null ? response.body().string() : "Empty response";
-                
-                if (!response.isSuccessful()) {
-                    logger.error("HTTP error: {} {}, Body: {}", 
-                            response.code(), response.message(), responseBody);
-                    return false;
-                }
-                
-                logger.info("Response body: {}", responseBody);
-                
-                // Boş yanıt kontrolü
-                if (responseBody == null || responseBody.trim().isEmpty()) {
-                    logger.error("Empty response from Tenderly API");
-                    return false;
-                }
-                
-                Map<String, Object> responseMap = objectMapper.readValue(responseBody, Map.class);
-                
-                // Check for errors in response
-                if (responseMap.containsKey("error")) {
-                    logger.error("Error from Tenderly API: {}", responseMap.get("error"));
-                    return false;
-                }
-                
-                logger.info("Successfully set balance for wallet: {}", walletAddress);
-                return true;
-            }
+            jsonRpcClient.call("tenderly_setBalance", walletAddress, ethAmountHex);
+            logger.info("Successfully set balance for wallet: {}", walletAddress);
+            return true;
             
         } catch (Exception e) {
             logger.error("Error setting wallet balance: {}", e.getMessage(), e);
@@ -208,9 +96,7 @@ public class TenderlyBalanceService {
         
         try {
             // Format wallet address
-            if (!walletAddress.startsWith("0x")) {
-                walletAddress = "0x" + walletAddress;
-            }
+            walletAddress = withHexPrefix(walletAddress);
             
             // First get current balance
             BigInteger currentBalance = getBalance(walletAddress);
@@ -235,4 +121,67 @@ public class TenderlyBalanceService {
             return false;
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Birden fazla cüzdanın bakiyesini tek bir JSON-RPC batch isteğiyle okur.
+     * @param walletAddresses 0x önekli cüzdan adresleri
+     * @return Adres → wei bakiye; okunamayan adresler haritada yer almaz
+     */
+    public Map<String, BigInteger> getBalances(List<String> walletAddresses) throws IOException {
+        List<JsonRpcClient.Call> calls = new ArrayList<>();
+        for (String walletAddress : walletAddresses) {
+            calls.add(new JsonRpcClient.Call("eth_getBalance", walletAddress, "latest"));
+        }
+
+        List<JsonRpcClient.Result> results = jsonRpcClient.batch(calls);
+        Map<String, BigInteger> balances = new LinkedHashMap<>();
+        for (int i = 0; i < walletAddresses.size(); i++) {
+            BigInteger balance = results.get(i).isSuccess() ? parseQuantity(results.get(i).getResult()) : null;
+            if (balance != null) {
+                balances.put(walletAddresses.get(i), balance);
+            } else {
+                logger.error("Balance could not be read for {}: {}", walletAddresses.get(i), results.get(i).getError());
+            }
+        }
+        return balances;
+    }
+
+    /**
+     * Birden fazla cüzdanın bakiyesini tek bir JSON-RPC batch isteğiyle ayarlar.
+     * @param balances Adres → yeni wei bakiye
+     * @return Adres → işlemin başarılı olup olmadığı; yanıtı gelmeyen (uygulanıp uygulanmadığı
+     *         bilinmeyen) adresler haritada yer almaz
+     */
+    public Map<String, Boolean> setBalances(Map<String, BigInteger> balances) throws IOException {
+        List<String> addresses = new ArrayList<>(balances.keySet());
+        List<JsonRpcClient.Call> calls = new ArrayList<>();
+        for (String address : addresses) {
+            calls.add(new JsonRpcClient.Call("tenderly_setBalance", address, "0x" + balances.get(address).toString(16)));
+        }
+
+        List<JsonRpcClient.Result> results = jsonRpcClient.batch(calls);
+        Map<String, Boolean> outcome = new LinkedHashMap<>();
+        for (int i = 0; i < addresses.size(); i++) {
+            if (results.get(i).isMissing()) {
+                logger.error("setBalance outcome unknown for {}: no response", addresses.get(i));
+                continue;
+            }
+            if (!results.get(i).isSuccess()) {
+                logger.error("setBalance failed for {}: {}", addresses.get(i), results.get(i).getError());
+            }
+            outcome.put(addresses.get(i), results.get(i).isSuccess());
+        }
+        return outcome;
+    }
+
+    private String withHexPrefix(String walletAddress) {
+        return walletAddress.startsWith("0x") ? walletAddress : "0x" + walletAddress;
+    }
+
+    private BigInteger parseQuantity(Object value) {
+        if (value instanceof String && ((String) value).startsWith("0x")) {
+            return new BigInteger(((String) value).substring(2), 16);
+        }
+        return null;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.surveyapp.service;
 
+import com.example.surveyapp.dto.SessionUser;
+import com.example.surveyapp.dto.UserRow;
 import com.example.surveyapp.model.User;
 
 import java.util.List;
@@ -8,8 +10,10 @@ public interface UserService {
     void registerUser(User user) throws Exception;
     User loginUser(String email, String password) throws Exception;
     User findUserByEmail(String email);
+    SessionUser getSessionUser(String email);
     void updateUserPoints(User user, int pointsToAdd);
     List<User> findAllUsers();
+    List<UserRow> getNonAdminUserRows();
     void deleteUser(Long userId);
     
     // Web3/Metamask için yeni metodlar
@@ -17,5 +21,5 @@ public interface UserService {
     User loginUserWithWallet(String walletAddress, String signature) throws Exception;
     User findUserByWalletAddress(String walletAddress);
     boolean verifyWalletSignature(String walletAddress, String signature, String message);
-    void updateUserWalletAddress(User user, String walletAddress);
+    void updateUserWalletAddress(Long userId, String walletAddress);
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package com.example.surveyapp.service;
 
+import com.example.surveyapp.dto.SessionUser;
+import com.example.surveyapp.dto.UserRow;
+import com.example.surveyapp.model.PointsReason;
 import com.example.surveyapp.model.User;
 import com.example.surveyapp.repository.UserRepository;
 import org.slf4j.Logger;
@@ -7,6 +10,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,6 +24,12 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private PointsLedgerService pointsLedgerService;
+
     @Transactional
     @Override
     public void registerUser(User user) throws Exception {
@@ -43,6 +54,7 @@ public class UserServiceImpl implements UserService {
             throw new Exception("Geçersiz şifre!");
         }
         logger.info("User authenticated successfully: {}", email);
+        principalCache.refresh(user);
         return user;
     }
 
@@ -53,13 +65,19 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı: " + email));
     }
 
+    @Override
+    public SessionUser getSessionUser(String email) {
+        return principalCache.get(email, key -> {
+            logger.debug("Loading session user: {}", key);
+            return userRepository.findByEmail(key).orElse(null);
+        });
+    }
+
     @Transactional
     @Override
     public void updateUserPoints(User user, int pointsToAdd) {
-        logger.info("Updating points for user: {}, adding {} points", user.getEmail(), pointsToAdd);
-        user.setPoints(user.getPoints() + pointsToAdd);
-        userRepository.save(user);
-        logger.info("User points updated successfully: {} now has {} points", user.getEmail(), user.getPoints());
+        logger.info("Updating points for user ID: {}, adding {} points", user.getId(), pointsToAdd);
+        pointsLedgerService.award(user.getId(), pointsToAdd, PointsReason.ADJUSTMENT, null);
     }
 
     @Override
@@ -70,6 +88,11 @@ public class UserServiceImpl implements UserService {
         return users;
     }
     
+    @Override
+    public List<UserRow> getNonAdminUserRows() {
+        return userRepository.findNonAdminRows();
+    }
+
     @Transactional
     @Override
     public void deleteUser(Long userId) {
@@ -79,6 +102,7 @@ public class UserServiceImpl implements UserService {
             throw new RuntimeException("Kullanıcı bulunamadı: ID " + userId);
         }
         userRepository.deleteById(userId);
+        principalCache.evictById(userId);
         logger.info("User with ID {} deleted successfully", userId);
     }
 
@@ -136,6 +160,7 @@ public class UserServiceImpl implements UserService {
         }
         
         logger.info("User authenticated successfully with wallet: {}", walletAddress);
+        principalCache.refresh(user);
         return user;
     }
 
@@ -173,10 +198,34 @@ public class UserServiceImpl implements UserService {
     
     @Transactional
     @Override
-    public void updateUserWalletAddress(User user, String walletAddress) {
+    public void updateUserWalletAddress(Long userId, String walletAddress) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı: ID " + userId));
         logger.info("Updating wallet address for user: {}, new address: {}", user.getEmail(), walletAddress);
         user.setWalletAddress(walletAddress);
         userRepository.save(user);
+        refreshPrincipalAfterCommit(user);
         logger.info("User wallet address updated successfully for: {}", user.getEmail());
     }
+
+    /**
+     * Oturum önbelleğindeki kopyayı transaction commit edildikten sonra yeniler;
+     * geri alınırsa kaydı düşürür, böylece önbellek hiçbir zaman commit edilmemiş veri göstermez.
+     */
+    private void refreshPrincipalAfterCommit(User user) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            principalCache.refresh(user);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    principalCache.refresh(user);
+                } else {
+                    principalCache.evict(user.getEmail());
+                }
+            }
+        });
+    }
 }
\ No newline at end of file
@@ -0,0 +1,539 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.event.VotesRecordedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Oy alımı için dayanıklı, bellek eşlemeli (mmap) günlük.
+ * <p>
+ * {@code vote.journal.enabled=true} iken doğrulanmış oy pusulaları veritabanına yazılmadan önce
+ * bu günlüğe eklenir ve kayıt diske indirildiğinde onaylanır. Kayıt segmente yazıldıktan sonra
+ * pusula kabul edilmiş sayılır: indirme başarısız olursa veya bekleyen thread kesilirse kullanıcıya
+ * hata dönülmez, kayıt kuyrukta kalır ve bir sonraki başarılı indirmeyle işlenir (bkz.
+ * {@link #append}). Eşzamanlı eklemeler grup halinde
+ * indirilir: bekleyenlerden biri o ana kadar yazılmış tüm kayıtlar için tek bir force() çağırır,
+ * diğerleri onun sonucunu bekler. Kayıtlar {@link VoteJournalApplier} tarafından büyük
+ * transaction'larla vote tablosuna ve oy sayaçlarına işlenir.
+ * <p>
+ * Günlük sabit boyutlu segment dosyalarından oluşur; dolan segment diske indirilip bırakılır,
+ * tüm kayıtları işlenmiş segmentler silinir. Her kayıt uzunluk ve CRC32C ile başlar:
+ * <pre>
+ * int uzunluk | int crc | long sıra | long userId | long surveyId | long zaman (epoch ms) | int n | n x (long questionId, long optionId)
+ * </pre>
+ * İşlenen son sıra numarası checkpoint dosyasında tutulur. Açılışta segmentler taranır ve
+ * checkpoint'ten sonraki kayıtlar yeniden işlenmek üzere kuyruğa alınır; CRC'si tutmayan
+ * (yarım yazılmış) kayıtta segmentin taranması durur. Checkpoint yazılmadan çökülürse aynı kayıt
+ * iki kez işlenebilir; ikinci deneme (user_id, question_id) unique kısıtına takılır ve atlanır.
+ * <p>
+ * Aynı soruya ikinci oy, veritabanındaki oylar için {@link VotedIndex}, henüz işlenmemiş
+ * kayıtlar için buradaki bellek içi küme ile engellenir; küme açılışta işlenmemiş kayıtlardan
+ * yeniden kurulur.
+ */
+@Component
+public class VoteJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(VoteJournal.class);
+
+    private static final String SEGMENT_PREFIX = "votes-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    // uzunluk + crc
+    private static final int HEADER_BYTES = 8;
+    // sıra, userId, surveyId, zaman, oy sayısı
+    private static final int FIXED_BYTES = 4 * Long.BYTES + Integer.BYTES;
+    private static final int VOTE_BYTES = 2 * Long.BYTES;
+
+    @Value("${vote.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${vote.journal.dir:vote-journal}")
+    private String directory;
+
+    @Value("${vote.journal.segment-size-bytes:67108864}")
+    private int segmentSize;
+
+    private Path dir;
+
+    // Segment listesi, aktif segment ve son sıra numarası bu kilitle korunur
+    private final Object appendLock = new Object();
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private MappedByteBuffer active;
+    private long lastSequence;
+    private boolean closed;
+
+    private final Object syncMonitor = new Object();
+    private boolean syncing;
+    private long durableSequence;
+
+    // Sıra numarasına göre sıralı; yalnızca VoteJournalApplier tüketir
+    private final ConcurrentLinkedQueue<Entry> unapplied = new ConcurrentLinkedQueue<>();
+    private final Set<VoteKey> pendingSurveys = ConcurrentHashMap.newKeySet();
+    private final Set<VoteKey> pendingQuestions = ConcurrentHashMap.newKeySet();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        dir = Paths.get(directory).toAbsolutePath();
+        long checkpoint;
+        synchronized (appendLock) {
+            try {
+                Files.createDirectories(dir);
+                checkpoint = readCheckpoint();
+                lastSequence = checkpoint;
+                try (Stream<Path> files = Files.list(dir)) {
+                    files.filter(VoteJournal::isSegment)
+                            .forEach(path -> segments.put(segmentFirstSequence(path), path));
+                }
+                for (Path segment : segments.values()) {
+                    recover(segment, checkpoint);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Oy günlüğü açılamadı: " + dir, e);
+            }
+            durableSequence = lastSequence;
+            // Kurtarılan segmentlere yazılmaz; yeni kayıtlar her açılışta yeni segmentten başlar
+            roll();
+            deleteAppliedSegments(checkpoint);
+        }
+        logger.info("Vote journal opened at {}: {} unapplied ballots after sequence {}", dir, unapplied.size(), checkpoint);
+    }
+
+    /**
+     * Oy pusulasını günlüğe ekler ve diske indirilene kadar bekler. Kullanıcının bu ankete
+     * işlenmemiş bir oyu varsa veya kayıt yazılamazsa hiçbir şey kuyruğa alınmaz ve istisna fırlatılır.
+     * <p>
+     * Kayıt yazıldıktan sonra pusula geri alınmaz: diske indirme başarısız olursa veya beklerken
+     * kesilirse istisna fırlatılmaz, {@code false} döner. Kayıt kuyrukta kalır ve ilk başarılı
+     * indirmeden sonra {@link VoteJournalApplier} tarafından işlenir; kullanıcıya hata göstermek
+     * işlenecek bir oy için yeniden denemeyi "zaten oy verdiniz" ile reddettirirdi.
+     *
+     * @return kayıt diske indirildiyse true, kuyrukta ama henüz indirilmemişse false
+     */
+    public boolean append(Long userId, Long surveyId, List<VotesRecordedEvent.RecordedVote> votes) {
+        if (!enabled) {
+            throw new IllegalStateException("Oy günlüğü etkin değil");
+        }
+        if (!reserve(userId, surveyId, votes)) {
+            throw new RuntimeException("Bu ankete zaten oy verdiniz");
+        }
+        long sequence;
+        try {
+            sequence = write(userId, surveyId, votes, System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            release(userId, surveyId, votes);
+            throw e;
+        }
+        try {
+            awaitDurable(sequence);
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("Ballot {} queued but not yet durable, it will be applied after the next successful sync: {}",
+                    sequence, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    public boolean isPendingSurvey(Long userId, Long surveyId) {
+        return !pendingSurveys.isEmpty() && pendingSurveys.contains(new VoteKey(userId, surveyId));
+    }
+
+    public boolean isPendingQuestion(Long userId, Long questionId) {
+        return !pendingQuestions.isEmpty() && pendingQuestions.contains(new VoteKey(userId, questionId));
+    }
+
+    /**
+     * Ankete ait henüz veritabanına işlenmemiş bir pusula var mı. Bekleyen kümeyi taradığı
+     * için yalnızca seyrek çağrılar (ör. sonuç anlık görüntüsü) içindir.
+     */
+    public boolean hasPendingForSurvey(Long surveyId) {
+        for (VoteKey key : pendingSurveys) {
+            if (key.id == surveyId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Diske indirilmiş ve henüz işlenmemiş kayıtlardan en fazla {@code maxEntries} tanesini
+     * sırayla döndürür; kayıtlar {@link #markApplied} çağrılana kadar kuyrukta kalır.
+     */
+    public List<Entry> nextBatch(int maxEntries) {
+        long durable;
+        synchronized (syncMonitor) {
+            durable = durableSequence;
+        }
+        List<Entry> batch = new ArrayList<>();
+        for (Entry entry : unapplied) {
+            if (batch.size() >= maxEntries || entry.getSequence() > durable) {
+                break;
+            }
+            batch.add(entry);
+        }
+        return batch;
+    }
+
+    /**
+     * {@link #nextBatch} ile alınan kayıtlar veritabanına işlendikten sonra çağrılır.
+     */
+    public void markApplied(List<Entry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (Entry entry : batch) {
+            unapplied.poll();
+            release(entry.getUserId(), entry.getSurveyId(), entry.getVotes());
+        }
+        long applied = batch.get(batch.size() - 1).getSequence();
+        try {
+            writeCheckpoint(applied);
+        } catch (IOException e) {
+            // Kayıtlar zaten işlendi; checkpoint geride kalırsa yeniden işleme unique kısıtına takılır
+            logger.error("Error writing vote journal checkpoint {}: {}", applied, e.getMessage(), e);
+            return;
+        }
+        synchronized (appendLock) {
+            deleteAppliedSegments(applied);
+        }
+    }
+
+    public int getUnappliedCount() {
+        return unapplied.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (appendLock) {
+            closed = true;
+            if (active != null) {
+                active.force();
+            }
+        }
+        logger.info("Vote journal closed with {} unapplied ballots", unapplied.size());
+    }
+
+    private boolean reserve(Long userId, Long surveyId, List<VotesRecordedEvent.RecordedVote> votes) {
+        if (!pendingSurveys.add(new VoteKey(userId, surveyId))) {
+            return false;
+        }
+        for (int i = 0; i < votes.size(); i++) {
+            if (!pendingQuestions.add(new VoteKey(userId, votes.get(i).getQuestionId()))) {
+                pendingSurveys.remove(new VoteKey(userId, surveyId));
+                for (int j = 0; j < i; j++) {
+                    pendingQuestions.remove(new VoteKey(userId, votes.get(j).getQuestionId()));
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void release(Long userId, Long surveyId, List<VotesRecordedEvent.RecordedVote> votes) {
+        pendingSurveys.remove(new VoteKey(userId, surveyId));
+        for (VotesRecordedEvent.RecordedVote vote : votes) {
+            pendingQuestions.remove(new VoteKey(userId, vote.getQuestionId()));
+        }
+    }
+
+    private long write(Long userId, Long surveyId, List<VotesRecordedEvent.RecordedVote> votes, long timestamp) {
+        int length = HEADER_BYTES + FIXED_BYTES + votes.size() * VOTE_BYTES;
+        synchronized (appendLock) {
+            if (closed) {
+                throw new RuntimeException("Oy günlüğü kapatıldı");
+            }
+            if (active.remaining() < length) {
+                roll();
+                if (active.remaining() < length) {
+                    throw new RuntimeException("Oy pusulası günlük segmentine sığmıyor");
+                }
+            }
+            long sequence = lastSequence + 1;
+            int start = active.position();
+            active.position(start + HEADER_BYTES);
+            active.putLong(sequence).putLong(userId).putLong(surveyId).putLong(timestamp).putInt(votes.size());
+            for (VotesRecordedEvent.RecordedVote vote : votes) {
+                active.putLong(vote.getQuestionId()).putLong(vote.getOptionId());
+            }
+            active.putInt(start + 4, checksum(active, start, length));
+            active.putInt(start, length);
+
+            lastSequence = sequence;
+            unapplied.add(new Entry(sequence, userId, surveyId, timestamp, votes));
+            return sequence;
+        }
+    }
+
+    /**
+     * Grup halinde diske indirme: indirme yapan yoksa çağıran, o ana kadar yazılmış bütün
+     * kayıtlar için indirmeyi üstlenir; varsa onun bitmesini bekler ve gerekirse tekrar dener.
+     */
+    private void awaitDurable(long sequence) {
+        while (true) {
+            synchronized (syncMonitor) {
+                while (syncing && durableSequence < sequence) {
+                    try {
+                        syncMonitor.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException("Oy kaydı beklenirken kesildi", e);
+                    }
+                }
+                if (durableSequence >= sequence) {
+                    return;
+                }
+                syncing = true;
+            }
+
+            long target = 0;
+            boolean forced = false;
+            try {
+                MappedByteBuffer segment;
+                synchronized (appendLock) {
+                    target = lastSequence;
+                    segment = active;
+                }
+                // Önceki segmentler roll() sırasında indirildi; yalnızca aktif segment yeterli
+                force(segment);
+                forced = true;
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Oy kaydı diske yazılamadı", e);
+            } finally {
+                synchronized (syncMonitor) {
+                    if (forced) {
+                        durableSequence = Math.max(durableSequence, target);
+                    }
+                    syncing = false;
+                    syncMonitor.notifyAll();
+                }
+            }
+        }
+    }
+
+    // Testlerde indirme hatası taklit edilebilsin diye ayrı
+    void force(MappedByteBuffer segment) {
+        segment.force();
+    }
+
+    // appendLock tutulurken çağrılır
+    private void roll() {
+        if (active != null) {
+            active.force();
+        }
+        long firstSequence = lastSequence + 1;
+        Path path = dir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            active = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            // Dosya boyutu ve dizin kaydı da kalıcı olsun ki çökmeden sonra segment bulunabilsin
+            channel.force(true);
+            syncDirectory();
+        } catch (IOException e) {
+            throw new RuntimeException("Oy günlüğü segmenti oluşturulamadı: " + path, e);
+        }
+        segments.put(firstSequence, path);
+        logger.debug("Vote journal rolled to segment {}", path.getFileName());
+    }
+
+    private void recover(Path segment, long checkpoint) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int recovered = 0;
+        while (buffer.remaining() >= HEADER_BYTES + FIXED_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt(start);
+            if (length == 0) {
+                break;
+            }
+            if (length < HEADER_BYTES + FIXED_BYTES || length > buffer.limit() - start
+                    || buffer.getInt(start + 4) != checksum(buffer, start, length)) {
+                logger.warn("Discarding torn vote journal record at offset {} of {}", start, segment.getFileName());
+                break;
+            }
+            buffer.position(start + HEADER_BYTES);
+            long sequence = buffer.getLong();
+            long userId = buffer.getLong();
+            long surveyId = buffer.getLong();
+            long timestamp = buffer.getLong();
+            int count = buffer.getInt();
+            if (length != HEADER_BYTES + FIXED_BYTES + count * VOTE_BYTES) {
+                logger.warn("Discarding malformed vote journal record {} in {}", sequence, segment.getFileName());
+                break;
+            }
+            List<VotesRecordedEvent.RecordedVote> votes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                votes.add(new VotesRecordedEvent.RecordedVote(buffer.getLong(), buffer.getLong()));
+            }
+            lastSequence = Math.max(lastSequence, sequence);
+            if (sequence > checkpoint) {
+                unapplied.add(new Entry(sequence, userId, surveyId, timestamp, votes));
+                reserve(userId, surveyId, votes);
+                recovered++;
+            }
+        }
+        if (recovered > 0) {
+            logger.info("Recovered {} unapplied ballots from {}", recovered, segment.getFileName());
+        }
+    }
+
+    // appendLock tutulurken çağrılır; aktif segment hiç silinmez
+    private void deleteAppliedSegments(long applied) {
+        Iterator<Map.Entry<Long, Path>> iterator = segments.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Path> segment = iterator.next();
+            Long next = segments.higherKey(segment.getKey());
+            if (next == null || next - 1 > applied) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(segment.getValue());
+                iterator.remove();
+                logger.debug("Deleted applied vote journal segment {}", segment.getValue().getFileName());
+            } catch (IOException e) {
+                logger.warn("Could not delete vote journal segment {}: {}", segment.getValue(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path path = dir.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() != HEADER_BYTES + Long.BYTES
+                || buffer.getInt(4) != checksum(buffer, 0, buffer.remaining())) {
+            // Sıfırdan başlamak güvenlidir: işlenmiş kayıtlar unique kısıtına takılıp atlanır
+            logger.warn("Ignoring corrupt vote journal checkpoint {}", path);
+            return 0;
+        }
+        return buffer.getLong(HEADER_BYTES);
+    }
+
+    private void writeCheckpoint(long sequence) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + Long.BYTES);
+        buffer.putInt(0, buffer.capacity()).putLong(HEADER_BYTES, sequence);
+        buffer.putInt(4, checksum(buffer, 0, buffer.capacity()));
+        Path temp = dir.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(buffer);
+            channel.force(true);
+        }
+        Files.move(temp, dir.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void syncDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Bazı platformlar dizin açmayı desteklemez
+            logger.debug("Directory sync not supported for {}: {}", dir, e.getMessage());
+        }
+    }
+
+    // Kaydın başlık sonrası içeriği üzerinden
+    private static int checksum(ByteBuffer buffer, int start, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().limit(start + length).position(start + HEADER_BYTES));
+        return (int) crc.getValue();
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long segmentFirstSequence(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Günlükteki bir oy pusulası.
+     */
+    public static final class Entry {
+        private final long sequence;
+        private final Long userId;
+        private final Long surveyId;
+        private final LocalDateTime timestamp;
+        private final List<VotesRecordedEvent.RecordedVote> votes;
+
+        Entry(long sequence, Long userId, Long surveyId, long timestamp, List<VotesRecordedEvent.RecordedVote> votes) {
+            this.sequence = sequence;
+            this.userId = userId;
+            this.surveyId = surveyId;
+            this.timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
+            this.votes = List.copyOf(votes);
+        }
+
+        public long getSequence() { return sequence; }
+        public Long getUserId() { return userId; }
+        public Long getSurveyId() { return surveyId; }
+        public LocalDateTime getTimestamp() { return timestamp; }
+        public List<VotesRecordedEvent.RecordedVote> getVotes() { return votes; }
+    }
+
+    private static final class VoteKey {
+        private final long userId;
+        private final long id;
+
+        VoteKey(long userId, long id) {
+            this.userId = userId;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof VoteKey)) return false;
+            VoteKey other = (VoteKey) o;
+            return userId == other.userId && id == other.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(userId) * 31 + Long.hashCode(id);
+        }
+    }
+}
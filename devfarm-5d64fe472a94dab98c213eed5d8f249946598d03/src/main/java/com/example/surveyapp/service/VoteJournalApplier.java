@@ -0,0 +1,116 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.repository.VoteRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * {@link VoteJournal}'daki onaylanmış oy pusulalarını veritabanına işler.
+ * <p>
+ * Her turda günlükten en fazla {@code vote.journal.apply-batch-size} pusula alınır ve tek
+ * transaction'da yazılır: vote satırları JDBC batch ile eklenir, puanlar verilir ve oy sayaçları
+ * commit sonrasında VotesRecordedEvent üzerinden artırılır. Batch başarısız olursa pusulalar tek
+ * tek denenir; unique kısıtına takılanlar (eşzamanlı senkron oy ya da çökme sonrası yeniden
+ * işlenen kayıt) atlanır. Veritabanına ulaşılamıyorsa kayıtlar günlükte kalır ve sonraki turda
+ * yeniden denenir.
+ */
+@Component
+// Kapanıştaki son turun sayaç farkları VoteTallyService kapanmadan yazılsın
+@DependsOn("voteTallyService")
+public class VoteJournalApplier {
+
+    private static final Logger logger = LoggerFactory.getLogger(VoteJournalApplier.class);
+
+    @Autowired
+    private VoteJournal voteJournal;
+
+    @Autowired
+    private BallotRecorder ballotRecorder;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Value("${vote.journal.apply-batch-size:500}")
+    private int batchSize;
+
+    private final TransactionTemplate transaction;
+
+    @Autowired
+    public VoteJournalApplier(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${vote.journal.apply-interval-ms:200}")
+    public void drain() {
+        if (!voteJournal.isEnabled()) {
+            return;
+        }
+        List<VoteJournal.Entry> batch;
+        while (!(batch = voteJournal.nextBatch(batchSize)).isEmpty()) {
+            if (!apply(batch)) {
+                return;
+            }
+            voteJournal.markApplied(batch);
+        }
+    }
+
+    /**
+     * Kayıtları veritabanına işler. Veritabanı hatası nedeniyle işlenemeyen kayıt kalırsa
+     * false döner; bu durumda batch günlükte kalır.
+     */
+    private boolean apply(List<VoteJournal.Entry> batch) {
+        try {
+            transaction.executeWithoutResult(status -> {
+                batch.forEach(this::record);
+                voteRepository.flush();
+            });
+            logger.debug("Applied {} journaled ballots up to sequence {}",
+                    batch.size(), batch.get(batch.size() - 1).getSequence());
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Applying {} journaled ballots failed, retrying one by one: {}", batch.size(), e.getMessage());
+        }
+
+        for (VoteJournal.Entry entry : batch) {
+            try {
+                transaction.executeWithoutResult(status -> {
+                    record(entry);
+                    voteRepository.flush();
+                });
+            } catch (DataIntegrityViolationException e) {
+                logger.warn("Skipping journaled ballot {} by user ID {} for survey ID {}: already recorded",
+                        entry.getSequence(), entry.getUserId(), entry.getSurveyId());
+            } catch (DataAccessException | TransactionException e) {
+                logger.error("Database error applying vote journal at sequence {}, will retry: {}",
+                        entry.getSequence(), e.getMessage(), e);
+                return false;
+            } catch (RuntimeException e) {
+                logger.error("Dropping journaled ballot {} by user ID {} for survey ID {}: {}",
+                        entry.getSequence(), entry.getUserId(), entry.getSurveyId(), e.getMessage(), e);
+            }
+        }
+        return true;
+    }
+
+    private void record(VoteJournal.Entry entry) {
+        ballotRecorder.record(entry.getUserId(), entry.getSurveyId(), entry.getVotes(), entry.getTimestamp());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drain();
+    }
+}
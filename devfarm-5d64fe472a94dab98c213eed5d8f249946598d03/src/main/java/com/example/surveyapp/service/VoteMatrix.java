@@ -0,0 +1,283 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.dto.AnswerFilter;
+import com.example.surveyapp.dto.OptionDefinition;
+import com.example.surveyapp.dto.QuestionDefinition;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Bir anketin oylarının sütun düzeninde, entity'siz kopyası. Her soru için katılımcı
+ * sırasına göre dizinlenmiş bir int dizisi seçilen seçeneğin sorudaki sırasını tutar
+ * (cevapsız: -1); ayrıca katılımcının ilk oy zamanı (UTC'ye göre epoch saniye) tutulur.
+ * Katılımcı sırası yükleme sırasında ilk görülme sırasıdır ve kullanıcı ID'si saklanmaz.
+ * <p>
+ * Oluşturulduktan sonra değişmez; sayımlar katılımcı aralığını parçalara bölen
+ * fork-join görevleriyle paralel taranır.
+ */
+final class VoteMatrix {
+
+    static final int NO_ANSWER = -1;
+    // Zamanı olmayan oylar (eski kayıtlar); zaman filtresi ve dilimleri bu katılımcıları saymaz
+    static final long UNKNOWN_TIME = Long.MAX_VALUE;
+    // Bu kadar katılımcıdan küçük aralıklar tek iş parçacığında taranır
+    private static final int SCAN_CHUNK = 16_384;
+
+    private final List<QuestionDefinition> questions;
+    private final int respondents;
+    private final int[][] answers;
+    private final long[] answeredAt;
+    private final long firstAnsweredAt;
+    private final long lastAnsweredAt;
+
+    private VoteMatrix(List<QuestionDefinition> questions, int respondents, int[][] answers, long[] answeredAt) {
+        this.questions = questions;
+        this.respondents = respondents;
+        this.answers = answers;
+        this.answeredAt = answeredAt;
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (int r = 0; r < respondents; r++) {
+            if (answeredAt[r] != UNKNOWN_TIME) {
+                first = Math.min(first, answeredAt[r]);
+                last = Math.max(last, answeredAt[r]);
+            }
+        }
+        this.firstAnsweredAt = first;
+        this.lastAnsweredAt = last;
+    }
+
+    static Builder builder(List<QuestionDefinition> questions) {
+        return new Builder(questions);
+    }
+
+    List<QuestionDefinition> getQuestions() { return questions; }
+    int getRespondents() { return respondents; }
+
+    /**
+     * Önbellek ağırlığı: hücre sayısı (soru sayısı + zaman sütunu) x katılımcı.
+     */
+    long getWeight() {
+        return (long) (questions.size() + 1) * respondents;
+    }
+
+    /**
+     * Zamanı bilinen ilk oyun zamanı; hiç yoksa null.
+     */
+    LocalDateTime getFirstAnsweredAt() {
+        return firstAnsweredAt == Long.MAX_VALUE ? null : toTime(firstAnsweredAt);
+    }
+
+    LocalDateTime getLastAnsweredAt() {
+        return lastAnsweredAt == Long.MIN_VALUE ? null : toTime(lastAnsweredAt);
+    }
+
+    int questionIndex(Long questionId) {
+        for (int i = 0; i < questions.size(); i++) {
+            if (questions.get(i).getId().equals(questionId)) {
+                return i;
+            }
+        }
+        throw new RuntimeException("Soru bu ankete ait değil: " + questionId);
+    }
+
+    /**
+     * Sorunun katılımcı sırasına göre seçenek sıraları. Dizi paylaşılır, değiştirilmemelidir.
+     */
+    int[] column(int questionIndex) {
+        return answers[questionIndex];
+    }
+
+    long[] answeredAt() {
+        return answeredAt;
+    }
+
+    /**
+     * Filtreyi dizin karşılaştırmalarına çevirir: soru başına izin verilen seçenek sıraları
+     * bir boolean dizisinde, zaman aralığı epoch saniye olarak tutulur.
+     */
+    IntPredicate compile(AnswerFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            return r -> true;
+        }
+        int conditions = filter.getOptions().size();
+        int[][] columns = new int[conditions][];
+        boolean[][] allowed = new boolean[conditions][];
+        int i = 0;
+        for (Map.Entry<Long, Set<Long>> condition : filter.getOptions().entrySet()) {
+            int q = questionIndex(condition.getKey());
+            List<OptionDefinition> options = questions.get(q).getOptions();
+            columns[i] = answers[q];
+            allowed[i] = new boolean[options.size()];
+            for (int o = 0; o < options.size(); o++) {
+                allowed[i][o] = condition.getValue().contains(options.get(o).getId());
+            }
+            i++;
+        }
+        boolean timed = filter.getFrom() != null || filter.getTo() != null;
+        long from = filter.getFrom() != null ? toEpochSecond(filter.getFrom()) : Long.MIN_VALUE;
+        long to = filter.getTo() != null ? toEpochSecond(filter.getTo()) : UNKNOWN_TIME;
+        return r -> {
+            if (timed) {
+                long time = answeredAt[r];
+                if (time < from || time >= to) {
+                    return false;
+                }
+            }
+            for (int c = 0; c < conditions; c++) {
+                int option = columns[c][r];
+                if (option == NO_ANSWER || !allowed[c][option]) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    /**
+     * Her katılımcı için {@code cell} ile bir hücre sırası hesaplar (negatifse sayılmaz) ve
+     * hücre başına katılımcı sayısını döndürür. Büyük matrisler havuzda paralel taranır;
+     * her görev kendi sayaç dizisini doldurur, sonuçlar birleştirilirken toplanır.
+     */
+    long[] count(ForkJoinPool pool, IntUnaryOperator cell, int cells) {
+        if (respondents <= SCAN_CHUNK) {
+            return scan(cell, cells, 0, respondents);
+        }
+        return pool.invoke(new CountTask(cell, cells, 0, respondents));
+    }
+
+    private static long[] scan(IntUnaryOperator cell, int cells, int from, int to) {
+        long[] counts = new long[cells];
+        for (int r = from; r < to; r++) {
+            int index = cell.applyAsInt(r);
+            if (index >= 0) {
+                counts[index]++;
+            }
+        }
+        return counts;
+    }
+
+    private static final class CountTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final IntUnaryOperator cell;
+        private final int cells;
+        private final int from;
+        private final int to;
+
+        CountTask(IntUnaryOperator cell, int cells, int from, int to) {
+            this.cell = cell;
+            this.cells = cells;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= SCAN_CHUNK) {
+                return scan(cell, cells, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            CountTask left = new CountTask(cell, cells, from, middle);
+            left.fork();
+            long[] counts = new CountTask(cell, cells, middle, to).compute();
+            long[] leftCounts = left.join();
+            for (int i = 0; i < cells; i++) {
+                counts[i] += leftCounts[i];
+            }
+            return counts;
+        }
+    }
+
+    static long toEpochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static LocalDateTime toTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Oy satırlarını sırası önemsiz şekilde alır; katılımcı sütunları gerektikçe büyütülür.
+     */
+    static final class Builder {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final List<QuestionDefinition> questions;
+        private final Map<Long, Integer> questionIndexes = new HashMap<>();
+        private final Map<Long, Integer> optionIndexes = new HashMap<>();
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private int[][] answers;
+        private long[] answeredAt;
+        private int respondents;
+
+        private Builder(List<QuestionDefinition> questions) {
+            this.questions = List.copyOf(questions);
+            for (int q = 0; q < questions.size(); q++) {
+                questionIndexes.put(questions.get(q).getId(), q);
+                List<OptionDefinition> options = questions.get(q).getOptions();
+                for (int o = 0; o < options.size(); o++) {
+                    optionIndexes.put(options.get(o).getId(), o);
+                }
+            }
+            this.answers = new int[questions.size()][INITIAL_CAPACITY];
+            for (int[] column : answers) {
+                Arrays.fill(column, NO_ANSWER);
+            }
+            this.answeredAt = new long[INITIAL_CAPACITY];
+        }
+
+        /**
+         * Bir oyu ekler; anket yapısında bulunmayan soru veya seçenek atlanır.
+         */
+        Builder add(Long userId, Long questionId, Long optionId, LocalDateTime timestamp) {
+            Integer q = questionIndexes.get(questionId);
+            Integer o = optionIndexes.get(optionId);
+            if (q == null || o == null) {
+                return this;
+            }
+            long time = timestamp != null ? toEpochSecond(timestamp) : UNKNOWN_TIME;
+            Integer ordinal = ordinals.get(userId);
+            if (ordinal == null) {
+                ordinal = respondents++;
+                ordinals.put(userId, ordinal);
+                if (ordinal == answeredAt.length) {
+                    grow();
+                }
+                answeredAt[ordinal] = time;
+            } else if (time < answeredAt[ordinal]) {
+                answeredAt[ordinal] = time;
+            }
+            answers[q][ordinal] = o;
+            return this;
+        }
+
+        private void grow() {
+            int capacity = answeredAt.length * 2;
+            for (int q = 0; q < answers.length; q++) {
+                int previous = answers[q].length;
+                answers[q] = Arrays.copyOf(answers[q], capacity);
+                Arrays.fill(answers[q], previous, capacity, NO_ANSWER);
+            }
+            answeredAt = Arrays.copyOf(answeredAt, capacity);
+        }
+
+        VoteMatrix build() {
+            int[][] columns = new int[answers.length][];
+            for (int q = 0; q < answers.length; q++) {
+                columns[q] = Arrays.copyOf(answers[q], respondents);
+            }
+            return new VoteMatrix(questions, respondents, columns, Arrays.copyOf(answeredAt, respondents));
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.dto.SurveyDefinition;
+import com.example.surveyapp.dto.VoteActivity;
+import com.example.surveyapp.event.VotesRecordedEvent;
+import com.example.surveyapp.model.RollupGranularity;
+import com.example.surveyapp.model.VoteRollupId;
+import com.example.surveyapp.repository.VoteRepository;
+import com.example.surveyapp.repository.VoteRollupRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Anket ve seçenek başına dakika, saat ve gün dilimlerinde oy sayıları (vote_rollup).
+ * <p>
+ * Commit edilen oylar bellekte dilim anahtarına göre toplanır ve periyodik olarak tek bir
+ * batch upsert ile yazılır; böylece grafik sorguları vote tablosunu taramaz, istenen dilim
+ * aralığını indeksten okur. Yazılmamış farklar okumalarda eklenir. Eski dakika ve saat
+ * dilimleri zamanlanmış sıkıştırmada silinir; daha kaba dilimler aynı oyları zaten içerir.
+ * <p>
+ * Tablo boşken açılırsa, açılıştan önceki oylar ilk sıkıştırma turunda vote tablosundan bir
+ * kez doldurulur; açılıştan sonraki oylar olaylardan sayılır.
+ */
+@Service
+public class VoteRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VoteRollupService.class);
+    private static final String UPSERT_SQL = "INSERT INTO vote_rollup (survey_id, option_id, granularity, bucket_start, vote_count) " +
+            "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE vote_count = vote_count + VALUES(vote_count)";
+
+    public static final int RECENT_HOURS = 24;
+
+    private final Map<VoteRollupId, Long> pendingCounts = new ConcurrentHashMap<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VoteRollupRepository rollupRepository;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Value("${vote.rollup.minute-retention-hours:48}")
+    private long minuteRetentionHours;
+
+    @Value("${vote.rollup.hour-retention-days:90}")
+    private long hourRetentionDays;
+
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Bu zamandan önceki oylar ilk doldurmadan gelir; null ise tüm oylar olaylardan sayılır
+    private volatile LocalDateTime countedFrom;
+    private volatile boolean backfillPending;
+
+    @Autowired
+    public VoteRollupService(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (rollupRepository.count() == 0) {
+            countedFrom = LocalDateTime.now();
+            backfillPending = true;
+        }
+    }
+
+    /**
+     * Commit edilen oyları dilim sayaçlarına ekler. Transaction geri alınırsa çağrılmaz.
+     */
+    @TransactionalEventListener
+    public void onVotesRecorded(VotesRecordedEvent event) {
+        LocalDateTime time = event.getTimestamp();
+        LocalDateTime from = countedFrom;
+        if (time == null || (from != null && time.isBefore(from))) {
+            return;
+        }
+        for (VotesRecordedEvent.RecordedVote vote : event.getVotes()) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                pendingCounts.merge(new VoteRollupId(event.getSurveyId(), vote.getOptionId(), granularity,
+                        granularity.bucketStart(time)), 1L, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * {@code end} zamanını içeren dilimle biten {@code buckets} adet dilimin oy sayıları.
+     */
+    public VoteActivity getActivity(Long surveyId, RollupGranularity granularity, int buckets, LocalDateTime end) {
+        return getActivity(List.of(surveyId), granularity, buckets, end).get(surveyId);
+    }
+
+    /**
+     * Birden çok anketin aynı aralıktaki dilimleri tek sorguyla okunur (ör. admin paneli).
+     */
+    public Map<Long, VoteActivity> getActivity(Collection<Long> surveyIds, RollupGranularity granularity,
+                                               int buckets, LocalDateTime end) {
+        Map<Long, VoteActivity> activity = new HashMap<>();
+        if (surveyIds.isEmpty()) {
+            return activity;
+        }
+        ChronoUnit unit = granularity.getUnit();
+        LocalDateTime to = granularity.bucketStart(end).plus(1, unit);
+        LocalDateTime from = to.minus(buckets, unit);
+
+        Map<Long, Map<Long, long[]>> counts = new HashMap<>();
+        for (Object[] row : rollupRepository.findBuckets(surveyIds, granularity, from, to)) {
+            add(counts, (Long) row[0], (Long) row[1], (int) unit.between(from, (LocalDateTime) row[2]), (Long) row[3], buckets);
+        }
+        // Henüz yazılmamış farklar
+        Set<Long> requested = new HashSet<>(surveyIds);
+        for (Map.Entry<VoteRollupId, Long> pending : pendingCounts.entrySet()) {
+            VoteRollupId key = pending.getKey();
+            if (key.getGranularity() == granularity && requested.contains(key.getSurveyId())
+                    && !key.getBucketStart().isBefore(from) && key.getBucketStart().isBefore(to)) {
+                add(counts, key.getSurveyId(), key.getOptionId(), (int) unit.between(from, key.getBucketStart()),
+                        pending.getValue(), buckets);
+            }
+        }
+
+        for (Long surveyId : surveyIds) {
+            activity.put(surveyId, new VoteActivity(granularity, from, counts.getOrDefault(surveyId, Map.of()), buckets));
+        }
+        return activity;
+    }
+
+    /**
+     * Sonuç sayfasındaki grafik: son {@value #RECENT_HOURS} saatin saatlik oyları. Sonlandırılmış
+     * ankette aralık şimdi yerine anketin son oy aldığı saatte biter.
+     */
+    public VoteActivity getRecentActivity(SurveyDefinition survey) {
+        LocalDateTime end = LocalDateTime.now();
+        if (!survey.getActive()) {
+            LocalDateTime latest = rollupRepository.findLatestBucket(survey.getId(), RollupGranularity.HOUR);
+            if (latest != null && latest.isBefore(end)) {
+                end = latest;
+            }
+        }
+        return getActivity(survey.getId(), RollupGranularity.HOUR, RECENT_HOURS, end);
+    }
+
+    private static void add(Map<Long, Map<Long, long[]>> counts, Long surveyId, Long optionId, int index, long count, int buckets) {
+        counts.computeIfAbsent(surveyId, id -> new HashMap<>())
+                .computeIfAbsent(optionId, id -> new long[buckets])[index] += count;
+    }
+
+    @Scheduled(fixedDelayString = "${vote.rollup.flush-interval-ms:5000}")
+    public void flush() {
+        Map<VoteRollupId, Long> deltas = new HashMap<>();
+        for (VoteRollupId key : pendingCounts.keySet()) {
+            // remove atomiktir: aynı anda gelen artış yeni bir kayıt açar ve sonraki turda yazılır
+            Long delta = pendingCounts.remove(key);
+            if (delta != null && delta != 0) {
+                deltas.put(key, delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, toBatchArgs(deltas));
+            logger.debug("Flushed {} vote rollup buckets", deltas.size());
+        } catch (RuntimeException e) {
+            // Yazılamayan farkları bir sonraki denemeye geri koy
+            logger.error("Error flushing vote rollups, will retry: {}", e.getMessage(), e);
+            deltas.forEach((key, delta) -> pendingCounts.merge(key, delta, Long::sum));
+        }
+    }
+
+    /**
+     * Saklama süresini aşan dakika ve saat dilimlerini siler; gün dilimleri tutulur.
+     */
+    @Scheduled(initialDelayString = "${vote.rollup.compact-initial-delay-ms:10000}",
+               fixedDelayString = "${vote.rollup.compact-interval-ms:3600000}")
+    public void compact() {
+        try {
+            if (backfillPending) {
+                backfill(countedFrom);
+                backfillPending = false;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            Integer minutes = transaction.execute(status ->
+                    rollupRepository.deleteOlderThan(RollupGranularity.MINUTE, now.minusHours(minuteRetentionHours)));
+            Integer hours = transaction.execute(status ->
+                    rollupRepository.deleteOlderThan(RollupGranularity.HOUR, now.minusDays(hourRetentionDays)));
+            logger.info("Compacted vote rollups: {} minute and {} hour buckets removed", minutes, hours);
+        } catch (RuntimeException e) {
+            logger.error("Error compacting vote rollups: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Verilen zamandan önceki oyları vote tablosundan bir kez sayar. Dilimler bellekte toplanır
+     * (saklama süresi dışındaki dakika/saat dilimleri atlanır) ve tek transaction'da yazılır;
+     * yarıda kalırsa hiçbir şey yazılmamış olur ve sonraki turda yeniden denenir.
+     */
+    private void backfill(LocalDateTime before) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime minuteFrom = now.minusHours(minuteRetentionHours);
+        LocalDateTime hourFrom = now.minusDays(hourRetentionDays);
+        Map<VoteRollupId, Long> counts = new HashMap<>();
+        long votes = readOnlyTransaction.execute(status -> {
+            long read = 0;
+            try (Stream<Object[]> rows = voteRepository.streamTimestampsBefore(before)) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    LocalDateTime time = (LocalDateTime) row[2];
+                    for (RollupGranularity granularity : RollupGranularity.values()) {
+                        if ((granularity == RollupGranularity.MINUTE && time.isBefore(minuteFrom))
+                                || (granularity == RollupGranularity.HOUR && time.isBefore(hourFrom))) {
+                            continue;
+                        }
+                        counts.merge(new VoteRollupId((Long) row[0], (Long) row[1], granularity,
+                                granularity.bucketStart(time)), 1L, Long::sum);
+                    }
+                    read++;
+                }
+            }
+            return read;
+        });
+        if (!counts.isEmpty()) {
+            transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_SQL, toBatchArgs(counts)));
+        }
+        logger.info("Backfilled vote rollups from {} votes before {} into {} buckets", votes, before, counts.size());
+    }
+
+    private static List<Object[]> toBatchArgs(Map<VoteRollupId, Long> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> args.add(new Object[]{
+                key.getSurveyId(), key.getOptionId(), key.getGranularity().name(), key.getBucketStart(), delta}));
+        return args;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
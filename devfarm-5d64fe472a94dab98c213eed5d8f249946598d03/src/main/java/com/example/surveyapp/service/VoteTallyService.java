@@ -0,0 +1,102 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.event.VotesRecordedEvent;
+import com.example.surveyapp.model.Option;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Seçenek oy sayaçlarını bellekte (LongAdder) biriktirir ve periyodik olarak
+ * tek bir batch UPDATE ile veritabanına yazar. Böylece oy işlemleri popüler
+ * seçeneklerin satırlarında kilit beklemez; tek serileştirme noktası
+ * vote tablosundaki (user_id, question_id) unique kısıtıdır.
+ * <p>
+ * Batch UPDATE açık bir transaction içinde çalışır: autocommit veya sürücünün batch'i
+ * yeniden yazması açıkken batch'in bir kısmı commit edilmiş olabilirdi. Böylece hata
+ * durumunda ya hiçbir fark yazılmamıştır ya da hepsi yazılmıştır.
+ */
+@Service
+public class VoteTallyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VoteTallyService.class);
+    private static final String INCREMENT_SQL = "UPDATE options SET vote_count = vote_count + ? WHERE id = ?";
+
+    private final Map<Long, LongAdder> pendingCounts = new ConcurrentHashMap<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final TransactionTemplate transaction;
+
+    @Autowired
+    public VoteTallyService(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Commit edilen oyları sayaçlara ekler. Transaction geri alınırsa çağrılmaz.
+     */
+    @TransactionalEventListener
+    public void onVotesRecorded(VotesRecordedEvent event) {
+        for (VotesRecordedEvent.RecordedVote vote : event.getVotes()) {
+            increment(vote.getOptionId(), 1);
+        }
+    }
+
+    public void increment(Long optionId, long delta) {
+        pendingCounts.computeIfAbsent(optionId, id -> new LongAdder()).add(delta);
+    }
+
+    @Scheduled(fixedDelayString = "${vote.tally.flush-interval-ms:1000}")
+    public void flush() {
+        List<Object[]> deltas = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pendingCounts.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                deltas.add(new Object[]{delta, entry.getKey()});
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INCREMENT_SQL, deltas));
+            // Güncelleme Hibernate dışında yapıldığı için önbellekteki seçenekler elle silinir
+            for (Object[] delta : deltas) {
+                entityManagerFactory.getCache().evict(Option.class, delta[1]);
+            }
+            logger.debug("Flushed vote count deltas for {} options", deltas.size());
+        } catch (RuntimeException e) {
+            // Transaction geri alındı, hiçbir fark yazılmadı: hepsi bir sonraki denemeye geri konur.
+            // (Yalnızca commit'in kendisi bağlantı koparak başarısız olursa sonuç belirsizdir.)
+            logger.error("Error flushing vote counts, will retry: {}", e.getMessage(), e);
+            for (Object[] delta : deltas) {
+                increment((Long) delta[1], (Long) delta[0]);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
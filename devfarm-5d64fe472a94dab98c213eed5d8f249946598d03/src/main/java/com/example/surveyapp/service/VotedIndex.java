@@ -0,0 +1,170 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.event.VotesRecordedEvent;
+import com.example.surveyapp.repository.VoteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kullanıcı başına "oy verilmiş anket/soru" indeksi. Her kullanıcı için
+ * sıralı long dizileri tutulur ve ikili arama ile sorgulanır; kullanıcının
+ * oyları ilk ihtiyaçta tek sorguyla yüklenir, sonra commit edilen oylarla
+ * güncellenir. Böylece "bu kullanıcı X'i yanıtladı mı" kontrolü tek anket
+ * için de bir sayfa dolusu anket için de bellekte yapılır. Anket, yalnızca
+ * tüm soruları yanıtlandığında oy verilmiş sayılır; tek soruluk oylar
+ * yalnızca soruyu işaretler.
+ */
+@Component
+public class VotedIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(VotedIndex.class);
+
+    private final LinkedHashMap<Long, UserVotes> entries = new LinkedHashMap<>(64, 0.75f, true);
+    // Yükleme sırasında gelen güncellemeler kaybolmasın diye; değiştiyse yüklenen sonuç önbelleğe yazılmaz
+    private long generation;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Value("${voted.index.max-entries:10000}")
+    private int maxEntries;
+
+    public boolean hasVotedOnSurvey(Long userId, Long surveyId) {
+        return get(userId).containsSurvey(surveyId);
+    }
+
+    public boolean hasVotedOnQuestion(Long userId, Long questionId) {
+        return get(userId).containsQuestion(questionId);
+    }
+
+    /**
+     * Kullanıcının oy indeksini döndürür; gerekirse veritabanından yükler.
+     */
+    public UserVotes get(Long userId) {
+        long loadGeneration;
+        synchronized (this) {
+            UserVotes cached = entries.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+
+        UserVotes loaded = load(userId);
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                entries.put(userId, loaded);
+                if (entries.size() > maxEntries) {
+                    entries.remove(entries.keySet().iterator().next());
+                }
+            }
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener
+    public void onVotesRecorded(VotesRecordedEvent event) {
+        long[] questionIds = event.getVotes().stream()
+                .mapToLong(VotesRecordedEvent.RecordedVote::getQuestionId)
+                .toArray();
+        synchronized (this) {
+            UserVotes current = entries.get(event.getUserId());
+            if (current == null) {
+                generation++;
+                return;
+            }
+            entries.put(event.getUserId(), event.isBallot()
+                    ? current.with(event.getSurveyId(), questionIds)
+                    : current.withQuestions(questionIds));
+        }
+    }
+
+    public synchronized void evict(Long userId) {
+        generation++;
+        entries.remove(userId);
+    }
+
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    private UserVotes load(Long userId) {
+        List<Object[]> rows = voteRepository.findVotedQuestionAndSurveyIdsByUserId(userId);
+        long[] questionIds = new long[rows.size()];
+        Map<Long, Long> answeredBySurvey = new HashMap<>();
+        Map<Long, Long> questionCountBySurvey = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            questionIds[i] = (Long) rows.get(i)[0];
+            Long surveyId = (Long) rows.get(i)[1];
+            answeredBySurvey.merge(surveyId, 1L, Long::sum);
+            questionCountBySurvey.put(surveyId, (Long) rows.get(i)[2]);
+        }
+        // Yarım bırakılan anketler listede oy verilmiş görünmesin
+        long[] surveyIds = answeredBySurvey.entrySet().stream()
+                .filter(answered -> answered.getValue() >= questionCountBySurvey.get(answered.getKey()))
+                .mapToLong(Map.Entry::getKey)
+                .toArray();
+        logger.debug("Loaded voted index for user {}: {} questions, {} surveys", userId, rows.size(), surveyIds.length);
+        return new UserVotes(sortedUnique(surveyIds), sortedUnique(questionIds));
+    }
+
+    private static long[] sortedUnique(long[] values) {
+        if (values.length == 0) {
+            return values;
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int size = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[size - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    /**
+     * Bir kullanıcının oy verdiği anket ve soru id'leri; değişmez, güncellemede yeni kopya oluşturulur.
+     */
+    public static final class UserVotes {
+        private final long[] surveyIds;
+        private final long[] questionIds;
+
+        UserVotes(long[] surveyIds, long[] questionIds) {
+            this.surveyIds = surveyIds;
+            this.questionIds = questionIds;
+        }
+
+        public boolean containsSurvey(Long surveyId) {
+            return surveyId != null && Arrays.binarySearch(surveyIds, surveyId) >= 0;
+        }
+
+        public boolean containsQuestion(Long questionId) {
+            return questionId != null && Arrays.binarySearch(questionIds, questionId) >= 0;
+        }
+
+        UserVotes with(Long surveyId, long[] newQuestionIds) {
+            long[] surveys = Arrays.copyOf(surveyIds, surveyIds.length + 1);
+            surveys[surveyIds.length] = surveyId;
+            long[] questions = Arrays.copyOf(questionIds, questionIds.length + newQuestionIds.length);
+            System.arraycopy(newQuestionIds, 0, questions, questionIds.length, newQuestionIds.length);
+            return new UserVotes(sortedUnique(surveys), sortedUnique(questions));
+        }
+
+        UserVotes withQuestions(long[] newQuestionIds) {
+            long[] questions = Arrays.copyOf(questionIds, questionIds.length + newQuestionIds.length);
+            System.arraycopy(newQuestionIds, 0, questions, questionIds.length, newQuestionIds.length);
+            return new UserVotes(surveyIds, sortedUnique(questions));
+        }
+    }
+}
@@ -2,12 +2,8 @@ package com.example.surveyapp.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigInteger;
 import java.util.HashMap;
@@ -17,17 +13,13 @@ import java.util.Map;
 public class Web3TenderlyService {
 
     private static final Logger logger = LoggerFactory.getLogger(Web3TenderlyService.class);
-    private static final String TENDERLY_BASE_URL = "https://virtual.sepolia.rpc.tenderly.co/d88ec9b6-956d-486e-b852-76fcd37861b3";
 
     // Test cuzdani private key (demo amacli - gercek uygulamada guvenli bir sekilde saklanmalidir)
     private static final String SENDER_PRIVATE_KEY = "0x4f3edf983ac636a65a842ce7c78d9aa706d3b113bce9c46f30d7d21715b23b1d";
     private static final String SENDER_ADDRESS = "0x90F8bf6A479f320ead074411a4B0e7944Ea8c9C1";
 
-    private final RestTemplate restTemplate;
-
-    public Web3TenderlyService() {
-        this.restTemplate = new RestTemplate();
-    }
+    @Autowired
+    private JsonRpcClient jsonRpcClient;
 
     /**
      * Tenderly API kullanarak belirtilen adrese ETH gonderir
@@ -40,15 +32,6 @@ public class Web3TenderlyService {
         logger.info("Sending {} ETH to wallet: {}", ethAmount, walletAddress);
 
         try {
-            // JSON-RPC istegi olustur
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("jsonrpc", "2.0");
-            requestBody.put("method", "eth_sendTransaction");
-            requestBody.put("id", 1);
-
             // Transaction parametreleri
             Map<String, String> params = new HashMap<>();
             params.put("from", SENDER_ADDRESS);
@@ -60,21 +43,10 @@ public class Web3TenderlyService {
             params.put("gas", "0x76c0"); // 30400 gas
             params.put("gasPrice", "0x9184e72a000"); // 10000000000000 wei
 
-            requestBody.put("params", new Object[]{params});
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-            // Tenderly API'a istek gonder
-            ResponseEntity<Map> response = restTemplate.postForEntity(TENDERLY_BASE_URL, entity, Map.class);
-
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                String txHash = (String) response.getBody().get("result");
-                logger.info("Transaction successful. Hash: {}", txHash);
-                return txHash;
-            } else {
-                logger.error("Failed to send transaction: {}", response.getBody());
-                throw new RuntimeException("ETH gonderimi basarisiz oldu: " + response.getBody());
-            }
+            // Tenderly RPC'ye istek gonder
+            String txHash = (String) jsonRpcClient.call("eth_sendTransaction", params);
+            logger.info("Transaction successful. Hash: {}", txHash);
+            return txHash;
 
         } catch (Exception e) {
             logger.error("Error sending ETH: {}", e.getMessage(), e);
@@ -0,0 +1,145 @@
+package com.example.surveyapp.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AdmissionControlInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = interceptor(64);
+    }
+
+    @Test
+    void rejectsUserOverBurstWith429AndRetryAfter() throws Exception {
+        HandlerMethod vote = handler("vote");
+        MockHttpSession session = session("ali@example.com");
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockHttpServletRequest request = request(session, "1");
+            assertTrue(interceptor.preHandle(request, response, vote));
+            interceptor.afterCompletion(request, response, vote, null);
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request(session, "1"), response, vote));
+        assertEquals(429, response.getStatus());
+        // Sonraki token'a kalan süre yukarı yuvarlanmış saniye olarak
+        assertEquals("3600", response.getHeader("Retry-After"));
+        assertTrue(response.getContentType().startsWith("text/plain"));
+        assertEquals(1.0, meterRegistry.get("admission.rejected")
+                .tags("reason", "user", "handler", "vote").counter().count());
+
+        // Başka bir kullanıcının bucket'ı etkilenmez
+        assertTrue(interceptor.preHandle(request(session("veli@example.com"), "1"), new MockHttpServletResponse(), vote));
+    }
+
+    @Test
+    void jsonHandlerGetsJsonRejection() throws Exception {
+        HandlerMethod send = handler("send");
+        MockHttpSession session = session("ali@example.com");
+        interceptor.preHandle(request(session, "1"), new MockHttpServletResponse(), send);
+        interceptor.preHandle(request(session, "1"), new MockHttpServletResponse(), send);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request(session, "1"), response, send));
+        assertEquals(429, response.getStatus());
+        assertTrue(response.getContentType().startsWith("application/json"));
+        assertTrue(response.getContentAsString().startsWith("{\"success\":false"));
+    }
+
+    @Test
+    void rejectsOverConcurrencyLimitUntilPermitReleased() throws Exception {
+        interceptor = interceptor(1);
+        HandlerMethod vote = handler("vote");
+
+        MockHttpServletRequest first = request(session("ali@example.com"), "1");
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), vote));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request(session("veli@example.com"), "2"), rejected, vote));
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("admission.rejected").tags("reason", "concurrency").counter().count());
+
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), vote, null);
+        assertTrue(interceptor.preHandle(request(session("veli@example.com"), "2"), new MockHttpServletResponse(), vote));
+    }
+
+    @Test
+    void ignoresHandlersWithoutAnnotation() throws Exception {
+        HandlerMethod list = handler("list");
+        for (int i = 0; i < 10; i++) {
+            assertTrue(interceptor.preHandle(request(session("ali@example.com"), "1"), new MockHttpServletResponse(), list));
+        }
+    }
+
+    private AdmissionControlInterceptor interceptor(int maxConcurrent) {
+        AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor();
+        ReflectionTestUtils.setField(interceptor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(interceptor, "maxConcurrent", maxConcurrent);
+        ReflectionTestUtils.setField(interceptor, "maxKeys", 1000);
+        // Kullanıcı başına saatte bir token, art arda 2 istek: üçüncü istek hemen reddedilir
+        ReflectionTestUtils.setField(interceptor, "userRate", 1.0 / 3600);
+        ReflectionTestUtils.setField(interceptor, "userBurst", 2);
+        ReflectionTestUtils.setField(interceptor, "walletRate", 1.0);
+        ReflectionTestUtils.setField(interceptor, "walletBurst", 1);
+        ReflectionTestUtils.setField(interceptor, "surveyRate", 1000.0);
+        ReflectionTestUtils.setField(interceptor, "surveyBurst", 1000);
+        interceptor.init();
+        return interceptor;
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new StubController(), StubController.class.getMethod(name));
+    }
+
+    private static MockHttpSession session(String email) {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("loggedInUser", email);
+        return session;
+    }
+
+    private static MockHttpServletRequest request(MockHttpSession session, String surveyId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/surveys/" + surveyId + "/vote");
+        request.setSession(session);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", surveyId));
+        return request;
+    }
+
+    static class StubController {
+
+        @AdmissionControlled({AdmissionControlled.Key.USER, AdmissionControlled.Key.SURVEY})
+        public String vote() {
+            return "redirect:/surveys";
+        }
+
+        @AdmissionControlled(AdmissionControlled.Key.USER)
+        @ResponseBody
+        public String send() {
+            return "{}";
+        }
+
+        public String list() {
+            return "surveys";
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.surveyapp.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class IdempotencyStoreTest {
+
+    @Test
+    void returnsExistingEntryForSameKey() {
+        IdempotencyStore store = new IdempotencyStore(10, 60_000);
+        CompletableFuture<Object> first = new CompletableFuture<>();
+
+        assertNull(store.putIfAbsent("a", "payload", first));
+        IdempotencyStore.Entry existing = store.putIfAbsent("a", "other", new CompletableFuture<>());
+
+        assertSame(first, existing.getFuture());
+        assertEquals("payload", existing.getPayload());
+    }
+
+    @Test
+    void removeOnlyDropsMatchingExecution() {
+        IdempotencyStore store = new IdempotencyStore(10, 60_000);
+        CompletableFuture<Object> first = new CompletableFuture<>();
+        store.putIfAbsent("a", "payload", first);
+
+        store.remove("a", new CompletableFuture<>());
+        assertEquals(1, store.size());
+
+        store.remove("a", first);
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void evictsOldestBeyondMaxEntries() {
+        IdempotencyStore store = new IdempotencyStore(2, 60_000);
+        store.putIfAbsent("a", "payload", new CompletableFuture<>());
+        store.putIfAbsent("b", "payload", new CompletableFuture<>());
+        store.putIfAbsent("c", "payload", new CompletableFuture<>());
+
+        assertEquals(2, store.size());
+        assertNull(store.putIfAbsent("a", "payload", new CompletableFuture<>()));
+    }
+
+    @Test
+    void expiredEntriesAreDropped() throws InterruptedException {
+        IdempotencyStore store = new IdempotencyStore(10, 20);
+        store.putIfAbsent("a", "payload", new CompletableFuture<>());
+
+        Thread.sleep(40);
+
+        assertNull(store.putIfAbsent("a", "payload", new CompletableFuture<>()));
+        assertEquals(1, store.size());
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.surveyapp.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Interceptor, controller yerine sayaçlı bir MethodInvocation taklidiyle çağrılır; istek
+ * RequestContextHolder'a MockHttpServletRequest olarak konur.
+ */
+class IdempotentMethodInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger executions = new AtomicInteger();
+    private IdempotentMethodInterceptor interceptor;
+    private Method vote;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        interceptor = new IdempotentMethodInterceptor(new IdempotencyStore(100, 60_000), 5_000, meterRegistry);
+        vote = StubController.class.getMethod("vote", Long.class, Map.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void replaysFirstResultForSameKey() throws Throwable {
+        bindRequest("key-1");
+        Object first = interceptor.invoke(invocation(Map.of("q1", "3"), () -> "redirect:/surveys/1/results?n=" + executions.incrementAndGet()));
+        Object second = interceptor.invoke(invocation(Map.of("q1", "3"), () -> "redirect:/surveys/1/results?n=" + executions.incrementAndGet()));
+
+        assertEquals(1, executions.get());
+        assertSame(first, second);
+        assertEquals(1.0, meterRegistry.get("idempotency.replayed")
+                .tags("handler", "vote", "in_flight", "false").counter().count());
+    }
+
+    @Test
+    void rejectsSameKeyWithDifferentPayload() throws Throwable {
+        bindRequest("key-1");
+        interceptor.invoke(invocation(Map.of("q1", "3"), executions::incrementAndGet));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> interceptor.invoke(invocation(Map.of("q1", "4"), executions::incrementAndGet)));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+        assertEquals(1, executions.get());
+        assertEquals(1.0, meterRegistry.get("idempotency.rejected").tags("handler", "vote").counter().count());
+    }
+
+    @Test
+    void differentKeysRunSeparately() throws Throwable {
+        bindRequest("key-1");
+        interceptor.invoke(invocation(Map.of("q1", "3"), executions::incrementAndGet));
+        bindRequest("key-2");
+        interceptor.invoke(invocation(Map.of("q1", "3"), executions::incrementAndGet));
+        bindRequest(null);
+        interceptor.invoke(invocation(Map.of("q1", "3"), executions::incrementAndGet));
+        interceptor.invoke(invocation(Map.of("q1", "3"), executions::incrementAndGet));
+
+        assertEquals(4, executions.get());
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForInFlightExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> first = executor.submit(() -> {
+                bindRequest("key-1");
+                return invokeInThread(invocation(Map.of("q1", "3"), () -> {
+                    started.countDown();
+                    assertTrue(release.await(5, TimeUnit.SECONDS));
+                    return "result-" + executions.incrementAndGet();
+                }));
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<Object> duplicate = executor.submit(() -> {
+                bindRequest("key-1");
+                return invokeInThread(invocation(Map.of("q1", "3"), () -> "result-" + executions.incrementAndGet()));
+            });
+            // Tekrar, ilk çalıştırma bitmeden beklemeye geçmiş olmalı
+            while (meterRegistry.find("idempotency.replayed").counter() == null) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertEquals("result-1", first.get(5, TimeUnit.SECONDS));
+            assertEquals("result-1", duplicate.get(5, TimeUnit.SECONDS));
+            assertEquals(1, executions.get());
+            assertEquals(1.0, meterRegistry.get("idempotency.replayed").tags("in_flight", "true").counter().count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedExecutionCanBeRetried() throws Throwable {
+        bindRequest("key-1");
+        assertThrows(IllegalStateException.class, () -> interceptor.invoke(invocation(Map.of("q1", "3"), () -> {
+            executions.incrementAndGet();
+            throw new IllegalStateException("RPC hatası");
+        })));
+
+        assertEquals("ok", interceptor.invoke(invocation(Map.of("q1", "3"), () -> {
+            executions.incrementAndGet();
+            return "ok";
+        })));
+        assertEquals(2, executions.get());
+    }
+
+    // Executor görevleri Throwable fırlatamaz
+    private Object invokeInThread(MethodInvocation invocation) throws Exception {
+        try {
+            return interceptor.invoke(invocation);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void bindRequest(String key) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/surveys/1/vote");
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("loggedInUser", "ali@example.com");
+        request.setSession(session);
+        if (key != null) {
+            request.addHeader(IdempotentMethodInterceptor.HEADER, key);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private MethodInvocation invocation(Map<String, String> params, Callable<Object> body) {
+        Object[] arguments = {1L, params};
+        return new MethodInvocation() {
+            @Override
+            public Method getMethod() {
+                return vote;
+            }
+
+            @Override
+            public Object[] getArguments() {
+                return arguments;
+            }
+
+            @Override
+            public Object proceed() throws Throwable {
+                return body.call();
+            }
+
+            @Override
+            public Object getThis() {
+                return null;
+            }
+
+            @Override
+            public AccessibleObject getStaticPart() {
+                return vote;
+            }
+        };
+    }
+
+    static class StubController {
+
+        @Idempotent
+        public String vote(@PathVariable Long id, @RequestParam Map<String, String> allParams) {
+            return "redirect:/surveys/" + id + "/results";
+        }
+    }
+}
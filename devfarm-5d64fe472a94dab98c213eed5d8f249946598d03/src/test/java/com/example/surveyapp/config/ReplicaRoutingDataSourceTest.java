@@ -0,0 +1,146 @@
+package com.example.surveyapp.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Yönlendirmeyi iki bellek içi H2 veritabanıyla doğrular: her birinde kendi adını içeren
+ * tek satırlık bir tablo bulunur, böylece sorgunun hangi veritabanına gittiği okunabilir.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final long WINDOW_MS = 60_000;
+
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReplicaRoutingDataSource(database("primary"), ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+        routing.addReplica("replica-0", database("replica"));
+        useRouting();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.clearForcePrimary();
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimary() {
+        assertEquals("primary", readWrite.execute(status -> whereAmI()));
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        assertEquals("replica", readOnly.execute(status -> whereAmI()));
+    }
+
+    @Test
+    void forcedPrimaryOverridesReadOnly() {
+        ReplicaRoutingDataSource.forcePrimary();
+        assertEquals("primary", readOnly.execute(status -> whereAmI()));
+
+        ReplicaRoutingDataSource.clearForcePrimary();
+        assertEquals("replica", readOnly.execute(status -> whereAmI()));
+    }
+
+    @Test
+    void unavailableReplicaFallsBackToPrimary() {
+        routing = new ReplicaRoutingDataSource(database("primary"), ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+        routing.addReplica("replica-0", unreachable());
+        useRouting();
+
+        assertEquals("primary", readOnly.execute(status -> whereAmI()));
+        assertEquals(0, routing.getHealthyReplicaCount());
+
+        routing.checkReplicas();
+        assertEquals(0, routing.getHealthyReplicaCount());
+    }
+
+    @Test
+    void writeRequestPinsSessionReadsToPrimary() throws Exception {
+        ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(WINDOW_MS);
+        MockHttpSession session = new MockHttpSession();
+
+        MockHttpServletRequest vote = request("POST", session);
+        interceptor.preHandle(vote, new MockHttpServletResponse(), null);
+        interceptor.afterCompletion(vote, new MockHttpServletResponse(), null, null);
+        assertNotNull(session.getAttribute("readPrimaryUntil"));
+
+        MockHttpServletRequest results = request("GET", session);
+        interceptor.preHandle(results, new MockHttpServletResponse(), null);
+        assertEquals("primary", readOnly.execute(status -> whereAmI()));
+        interceptor.afterCompletion(results, new MockHttpServletResponse(), null, null);
+
+        // İstek bitince thread serbest bırakılır; oturumu olmayan istekler replikadan okur
+        MockHttpServletRequest anonymous = new MockHttpServletRequest("GET", "/surveys");
+        interceptor.preHandle(anonymous, new MockHttpServletResponse(), null);
+        assertEquals("replica", readOnly.execute(status -> whereAmI()));
+        interceptor.afterCompletion(anonymous, new MockHttpServletResponse(), null, null);
+    }
+
+    @Test
+    void expiredWindowReadsFromReplica() throws Exception {
+        ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(WINDOW_MS);
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("readPrimaryUntil", System.currentTimeMillis() - 1);
+
+        MockHttpServletRequest results = request("GET", session);
+        interceptor.preHandle(results, new MockHttpServletResponse(), null);
+        assertEquals("replica", readOnly.execute(status -> whereAmI()));
+        interceptor.afterCompletion(results, new MockHttpServletResponse(), null, null);
+
+        // Okuma isteği pencereyi yenilemez
+        assertTrue((Long) session.getAttribute("readPrimaryUntil") < System.currentTimeMillis());
+    }
+
+    private void useRouting() {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String whereAmI() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private static MockHttpServletRequest request(String method, MockHttpSession session) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/surveys/1");
+        request.setSession(session);
+        return request;
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists node (name varchar(20))");
+        jdbc.update("delete from node");
+        jdbc.update("insert into node values (?)", name);
+        return dataSource;
+    }
+
+    private static DataSource unreachable() {
+        return new DriverManagerDataSource("jdbc:h2:mem:routingmissing;IFEXISTS=TRUE", "sa", "");
+    }
+}
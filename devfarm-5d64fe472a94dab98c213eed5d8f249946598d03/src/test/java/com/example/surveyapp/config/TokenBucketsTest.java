@@ -0,0 +1,69 @@
+package com.example.surveyapp.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketsTest {
+
+    @Test
+    void allowsBurstThenRejectsWithWaitTime() {
+        // 20/sn: 50 ms'de bir token, art arda en fazla 3 istek
+        TokenBuckets buckets = new TokenBuckets(20, 3, 100);
+
+        assertEquals(0, buckets.tryAcquire("user"));
+        assertEquals(0, buckets.tryAcquire("user"));
+        assertEquals(0, buckets.tryAcquire("user"));
+
+        long wait = buckets.tryAcquire("user");
+        assertTrue(wait > 0, "dördüncü istek reddedilmeli");
+        assertTrue(wait <= TimeUnit.MILLISECONDS.toNanos(50), "bekleme bir aralığı aşmamalı: " + wait);
+    }
+
+    @Test
+    void refillsAtConfiguredRate() throws InterruptedException {
+        TokenBuckets buckets = new TokenBuckets(20, 1, 100);
+
+        assertEquals(0, buckets.tryAcquire("user"));
+        long wait = buckets.tryAcquire("user");
+        assertTrue(wait > 0);
+
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(0, buckets.tryAcquire("user"));
+        assertTrue(buckets.tryAcquire("user") > 0, "tek token dolmuş olmalı, iki değil");
+    }
+
+    @Test
+    void idleBucketRefillsOnlyUpToBurst() throws InterruptedException {
+        TokenBuckets buckets = new TokenBuckets(20, 2, 100);
+        assertEquals(0, buckets.tryAcquire("user"));
+
+        // Dört aralık boşta kalsa da en fazla burst kadar token birikir
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertEquals(0, buckets.tryAcquire("user"));
+        assertEquals(0, buckets.tryAcquire("user"));
+        assertTrue(buckets.tryAcquire("user") > 0);
+    }
+
+    @Test
+    void keysHaveIndependentBuckets() {
+        TokenBuckets buckets = new TokenBuckets(1, 1, 100);
+
+        assertEquals(0, buckets.tryAcquire("a"));
+        assertTrue(buckets.tryAcquire("a") > 0);
+        assertEquals(0, buckets.tryAcquire("b"));
+    }
+
+    @Test
+    void keyCountStaysBounded() {
+        TokenBuckets buckets = new TokenBuckets(1, 5, 100);
+
+        for (int i = 0; i < 1000; i++) {
+            buckets.tryAcquire("key-" + i);
+        }
+        assertTrue(buckets.size() <= 100, "anahtar sayısı: " + buckets.size());
+    }
+}
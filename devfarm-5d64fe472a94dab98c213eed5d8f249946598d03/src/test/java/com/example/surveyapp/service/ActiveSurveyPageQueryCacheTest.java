@@ -0,0 +1,78 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.dto.SurveyPage;
+import com.example.surveyapp.model.CacheRegions;
+import com.example.surveyapp.model.Survey;
+import com.example.surveyapp.model.User;
+import com.example.surveyapp.repository.SurveyRepository;
+import com.example.surveyapp.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Anket listesi sayfaları sorgu önbelleğinden okunmalı ve anket yazmalarında geçersiz kılınmalıdır.
+ */
+@SpringJUnitConfig(ServiceTestConfig.class)
+class ActiveSurveyPageQueryCacheTest {
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Autowired
+    private SurveyRepository surveyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void repeatedPageIsServedFromQueryCacheUntilSurveyIsWritten() {
+        createSurvey("İlk anket");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        SurveyPage first = surveyService.getActiveSurveyPage(null, 10);
+        long statements = statistics.getPrepareStatementCount();
+        SurveyPage second = surveyService.getActiveSurveyPage(null, 10);
+
+        assertEquals(first.getItems().size(), second.getItems().size());
+        assertEquals(statements, statistics.getPrepareStatementCount(), "ikinci okuma veritabanına gitmemeli");
+        assertTrue(statistics.getQueryRegionStatistics(CacheRegions.ACTIVE_SURVEYS_QUERY).getHitCount() > 0);
+
+        createSurvey("Yeni anket");
+        SurveyPage afterWrite = surveyService.getActiveSurveyPage(null, 10);
+
+        assertEquals(first.getItems().size() + 1, afterWrite.getItems().size());
+    }
+
+    private void createSurvey(String title) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User owner = new User();
+            owner.setFullName("owner");
+            owner.setEmail("owner" + System.nanoTime() + "@test.local");
+            owner.setPassword("test");
+            userRepository.save(owner);
+
+            Survey survey = new Survey();
+            survey.setTitle(title);
+            survey.setDescription("Sorgu önbelleği testi");
+            survey.setCreatedBy(owner);
+            surveyRepository.save(survey);
+        });
+    }
+}
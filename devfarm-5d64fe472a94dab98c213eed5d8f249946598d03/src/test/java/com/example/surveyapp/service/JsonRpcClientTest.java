@@ -0,0 +1,152 @@
+package com.example.surveyapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JsonRpcClient'ı JDK HttpServer ile kurulan yerel bir JSON-RPC taklidine karşı çalıştırır;
+ * taklit her istekte sıradaki hazır yanıtı döndürür ve gelen gövdeleri saklar.
+ */
+class JsonRpcClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HttpServer server;
+    private volatile int status = 200;
+    private volatile String response = "";
+    private JsonRpcClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] body = response.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        client = new JsonRpcClient();
+        ReflectionTestUtils.setField(client, "rpcUrl", "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        ReflectionTestUtils.setField(client, "connectTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(client, "readTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(client, "callTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(client, "maxIdleConnections", 2);
+        ReflectionTestUtils.setField(client, "keepAliveMs", 1000L);
+        ReflectionTestUtils.setField(client, "meterRegistry", meterRegistry);
+        client.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void callSendsJsonRpcRequestAndReturnsResult() throws IOException {
+        response = "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"0x2a\"}";
+
+        Object result = client.call("eth_getBalance", "0xabc", "latest");
+
+        assertEquals("0x2a", result);
+        Map<String, Object> sent = objectMapper.readValue(requests.get(0), Map.class);
+        assertEquals("2.0", sent.get("jsonrpc"));
+        assertEquals("eth_getBalance", sent.get("method"));
+        assertEquals(List.of("0xabc", "latest"), sent.get("params"));
+        assertEquals(1L, meterRegistry.get("rpc.client.requests")
+                .tags("method", "eth_getBalance", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void callThrowsJsonRpcExceptionOnErrorObject() {
+        response = "{\"jsonrpc\":\"2.0\",\"id\":1,\"error\":{\"code\":-32000,\"message\":\"invalid address\"}}";
+
+        JsonRpcException e = assertThrows(JsonRpcException.class, () -> client.call("eth_getBalance", "0x0", "latest"));
+
+        assertEquals(Map.of("code", -32000, "message", "invalid address"), e.getError());
+    }
+
+    @Test
+    void callThrowsIOExceptionOnHttpError() {
+        status = 503;
+        response = "unavailable";
+
+        IOException e = assertThrows(IOException.class, () -> client.call("eth_getBalance", "0x0", "latest"));
+
+        assertFalse(e instanceof JsonRpcException);
+        assertTrue(e.getMessage().startsWith("HTTP 503"));
+        assertEquals(1L, meterRegistry.get("rpc.client.requests")
+                .tags("method", "eth_getBalance", "outcome", "error").timer().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchSendsOneRequestAndMatchesResultsById() throws IOException {
+        // Sırasız yanıt: biri başarılı, biri hatalı
+        response = "[{\"jsonrpc\":\"2.0\",\"id\":1,\"error\":{\"code\":-32602,\"message\":\"bad params\"}},"
+                + "{\"jsonrpc\":\"2.0\",\"id\":0,\"result\":\"0x1\"}]";
+
+        List<JsonRpcClient.Result> results = client.batch(List.of(
+                new JsonRpcClient.Call("eth_getBalance", "0xa", "latest"),
+                new JsonRpcClient.Call("tenderly_setBalance", List.of("0xb"), "0x0")));
+
+        assertEquals(1, requests.size());
+        List<Map<String, Object>> sent = objectMapper.readValue(requests.get(0), List.class);
+        assertEquals(2, sent.size());
+        assertEquals(0, sent.get(0).get("id"));
+        assertEquals("tenderly_setBalance", sent.get(1).get("method"));
+
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("0x1", results.get(0).getResult());
+        assertFalse(results.get(1).isSuccess());
+        assertFalse(results.get(1).isMissing());
+        assertEquals(Map.of("code", -32602, "message", "bad params"), results.get(1).getError());
+    }
+
+    @Test
+    void batchMarksCallsWithoutResponseAsMissing() throws IOException {
+        response = "[{\"jsonrpc\":\"2.0\",\"id\":0,\"result\":true}]";
+
+        List<JsonRpcClient.Result> results = client.batch(List.of(
+                new JsonRpcClient.Call("tenderly_setBalance", List.of("0xa"), "0x1"),
+                new JsonRpcClient.Call("tenderly_setBalance", List.of("0xb"), "0x2")));
+
+        assertEquals(Boolean.TRUE, results.get(0).getResult());
+        assertFalse(results.get(1).isSuccess());
+        assertTrue(results.get(1).isMissing());
+        assertNull(results.get(1).getResult());
+    }
+
+    @Test
+    void emptyBatchSendsNothing() throws IOException {
+        assertTrue(client.batch(List.of()).isEmpty());
+        assertTrue(requests.isEmpty());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.config.SecondLevelCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.cache.CacheManager;
+import javax.sql.DataSource;
+import java.util.Properties;
+
+/**
+ * Servis testleri için web katmanı olmadan servis + repository bağlamı; BenchmarkConfig
+ * gibi AppConfig'teki JPA ayarlarını izler ve bellek içi H2 (MySQL modu) kullanır.
+ */
+@Configuration
+@ComponentScan(basePackages = "com.example.surveyapp.service")
+@EnableTransactionManagement
+@EnableJpaRepositories(basePackages = "com.example.surveyapp.repository")
+public class ServiceTestConfig {
+
+    @Bean
+    public DataSource dataSource() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:surveytest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        dataSource.setDriverClassName("org.h2.Driver");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        return SecondLevelCache.createCacheManager(20000, 10000, 100);
+    }
+
+    @Bean
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, CacheManager secondLevelCacheManager) {
+        LocalContainerEntityManagerFactoryBean emf = new LocalContainerEntityManagerFactoryBean();
+        emf.setDataSource(dataSource);
+        emf.setPackagesToScan("com.example.surveyapp.model");
+        emf.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        Properties props = new Properties();
+        props.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        props.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        props.setProperty("hibernate.globally_quoted_identifiers", "true");
+        props.setProperty("hibernate.jdbc.batch_size", "50");
+        props.setProperty("hibernate.default_batch_fetch_size", "50");
+        props.setProperty("hibernate.order_inserts", "true");
+        props.setProperty("hibernate.order_updates", "true");
+        SecondLevelCache.configure(props, secondLevelCacheManager);
+        emf.setJpaProperties(props);
+        return emf;
+    }
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(LocalContainerEntityManagerFactoryBean entityManagerFactory) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager();
+        transactionManager.setEntityManagerFactory(entityManagerFactory.getObject());
+        return transactionManager;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.model.Option;
+import com.example.surveyapp.model.Question;
+import com.example.surveyapp.model.Survey;
+import com.example.surveyapp.model.User;
+import com.example.surveyapp.repository.SurveyRepository;
+import com.example.surveyapp.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Anket yüklemesinin sorgu sayısı soru ve seçenek sayısıyla büyümemelidir (N+1 gerilemesi).
+ * İkinci seviye önbellek her ölçümden önce boşaltılır; ölçülen yol önbellek ıskasıdır.
+ */
+@SpringJUnitConfig(ServiceTestConfig.class)
+class SurveyLoadStatementCountTest {
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Autowired
+    private SurveyRepository surveyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void loadsSurveyWithTwoStatementsRegardlessOfSize() {
+        Long small = createSurvey(3, 2);
+        Long large = createSurvey(120, 6);
+
+        long smallCount = countStatements(small, 3, 2);
+        long largeCount = countStatements(large, 120, 6);
+
+        assertEquals(2, smallCount);
+        assertEquals(smallCount, largeCount);
+    }
+
+    @Test
+    void loadsSurveyWithoutQuestionsWithOneStatement() {
+        Long empty = createSurvey(0, 0);
+
+        assertEquals(1, countStatements(empty, 0, 0));
+    }
+
+    private long countStatements(Long surveyId, int questions, int options) {
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        Survey survey = surveyService.getSurveyById(surveyId);
+
+        long count = statistics.getPrepareStatementCount();
+        // Grafik işlem dışında, ek sorgu olmadan gezilebilmelidir
+        assertEquals(questions, survey.getQuestions().size());
+        for (Question question : survey.getQuestions()) {
+            assertTrue(Hibernate.isInitialized(question.getOptions()));
+            assertEquals(options, question.getOptions().size());
+        }
+        assertEquals(count, statistics.getPrepareStatementCount());
+        return count;
+    }
+
+    private Long createSurvey(int questions, int options) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            User owner = new User();
+            owner.setFullName("owner");
+            owner.setEmail("owner" + System.nanoTime() + "@test.local");
+            owner.setPassword("test");
+            userRepository.save(owner);
+
+            Survey survey = new Survey();
+            survey.setTitle("Test anketi");
+            survey.setDescription("Sorgu sayısı testi");
+            survey.setCreatedBy(owner);
+            for (int q = 0; q < questions; q++) {
+                Question question = new Question();
+                question.setText("Soru " + q);
+                question.setSurvey(survey);
+                for (int o = 0; o < options; o++) {
+                    Option option = new Option();
+                    option.setText("Seçenek " + o);
+                    option.setQuestion(question);
+                    question.getOptions().add(option);
+                }
+                survey.getQuestions().add(question);
+            }
+            return surveyRepository.save(survey).getId();
+        });
+    }
+}
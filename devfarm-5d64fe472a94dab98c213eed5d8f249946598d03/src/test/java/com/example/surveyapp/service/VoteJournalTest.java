@@ -0,0 +1,148 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.event.VotesRecordedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Yazılmış bir kayıt diske indirilemediğinde pusula kabul edilmiş sayılır: kullanıcıya hata
+ * dönülmez ve kayıt sonraki başarılı indirmeden sonra işlenir.
+ */
+class VoteJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private FailingJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        journal = new FailingJournal();
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "directory", dir.toString());
+        ReflectionTestUtils.setField(journal, "segmentSize", 64 * 1024);
+        journal.open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    void failedSyncKeepsBallotQueuedWithoutError() {
+        journal.failNextForce = true;
+
+        assertFalse(journal.append(1L, 10L, ballot(100L, 1000L)));
+
+        // Kabul edildi ama henüz indirilmedi: işlenmez, aynı kullanıcının tekrarı reddedilir
+        assertTrue(journal.isPendingSurvey(1L, 10L));
+        assertTrue(journal.nextBatch(10).isEmpty());
+        RuntimeException duplicate = assertThrows(RuntimeException.class, () -> journal.append(1L, 10L, ballot(100L, 1000L)));
+        assertEquals("Bu ankete zaten oy verdiniz", duplicate.getMessage());
+
+        // Sonraki başarılı indirme önceki kaydı da kapsar
+        assertTrue(journal.append(2L, 10L, ballot(100L, 1001L)));
+        List<VoteJournal.Entry> batch = journal.nextBatch(10);
+        assertEquals(2, batch.size());
+        assertEquals(1L, batch.get(0).getUserId());
+
+        journal.markApplied(batch);
+        assertFalse(journal.isPendingSurvey(1L, 10L));
+        assertEquals(0, journal.getUnappliedCount());
+    }
+
+    @Test
+    void interruptedWaitKeepsBallotQueuedWithoutError() throws Exception {
+        // İlk thread indirmeyi üstlenir ve bırakılana kadar bekler; ikincisi onun sonucunu bekler
+        journal.blockForce = new CountDownLatch(1);
+        CountDownLatch forcing = journal.forcing;
+        Thread syncer = new Thread(() -> journal.append(1L, 10L, ballot(100L, 1000L)));
+        syncer.start();
+        assertTrue(forcing.await(5, TimeUnit.SECONDS));
+
+        AtomicBoolean durable = new AtomicBoolean(true);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread waiter = new Thread(() -> {
+            durable.set(journal.append(2L, 10L, ballot(100L, 1001L)));
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.sleep(5);
+        }
+        waiter.interrupt();
+        waiter.join(5000);
+
+        assertFalse(durable.get());
+        assertTrue(interrupted.get(), "kesme bayrağı korunmalı");
+        assertTrue(journal.isPendingSurvey(2L, 10L));
+
+        journal.blockForce.countDown();
+        syncer.join(5000);
+        // Bekleyen thread kesildi ama kaydı kuyrukta; sonraki indirmeyle işlenir
+        assertTrue(journal.append(3L, 10L, ballot(100L, 1002L)));
+        assertEquals(3, journal.nextBatch(10).size());
+    }
+
+    @Test
+    void queuedBallotIsRecoveredAfterRestart() {
+        journal.failNextForce = true;
+        journal.append(1L, 10L, ballot(100L, 1000L));
+        journal.close();
+
+        journal = new FailingJournal();
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "directory", dir.toString());
+        ReflectionTestUtils.setField(journal, "segmentSize", 64 * 1024);
+        journal.open();
+
+        assertTrue(journal.isPendingSurvey(1L, 10L));
+        assertEquals(1, journal.nextBatch(10).size());
+    }
+
+    private static List<VotesRecordedEvent.RecordedVote> ballot(long questionId, long optionId) {
+        return List.of(new VotesRecordedEvent.RecordedVote(questionId, optionId));
+    }
+
+    private static final class FailingJournal extends VoteJournal {
+        private volatile boolean failNextForce;
+        private volatile CountDownLatch blockForce;
+        private final CountDownLatch forcing = new CountDownLatch(1);
+
+        @Override
+        void force(MappedByteBuffer segment) {
+            if (failNextForce) {
+                failNextForce = false;
+                throw new UncheckedIOException(new IOException("disk dolu"));
+            }
+            CountDownLatch block = blockForce;
+            if (block != null) {
+                forcing.countDown();
+                try {
+                    block.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            super.force(segment);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.surveyapp.service;
+
+import com.example.surveyapp.model.Option;
+import com.example.surveyapp.model.Question;
+import com.example.surveyapp.model.Survey;
+import com.example.surveyapp.model.User;
+import com.example.surveyapp.repository.SurveyRepository;
+import com.example.surveyapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Anket yalnızca tüm soruları yanıtlandığında oy verilmiş sayılmalı; tek soruluk oy
+ * yalnızca soruyu işaretler. Hem commit sonrası güncellemede hem yeniden yüklemede.
+ */
+@SpringJUnitConfig(ServiceTestConfig.class)
+class VotedIndexTest {
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Autowired
+    private VotedIndex votedIndex;
+
+    @Autowired
+    private SurveyRepository surveyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void singleQuestionVoteDoesNotMarkSurveyAsVoted() {
+        Long voterId = createUser("voter");
+        Survey survey = createSurvey(createUser("owner"));
+        Question first = survey.getQuestions().get(0);
+        votedIndex.get(voterId);
+
+        surveyService.vote(first.getId(), first.getOptions().get(0).getId(), voterId);
+
+        assertTrue(votedIndex.hasVotedOnQuestion(voterId, first.getId()));
+        assertFalse(votedIndex.hasVotedOnSurvey(voterId, survey.getId()), "güncelleme anketi işaretlememeli");
+
+        votedIndex.evict(voterId);
+        assertTrue(votedIndex.hasVotedOnQuestion(voterId, first.getId()));
+        assertFalse(votedIndex.hasVotedOnSurvey(voterId, survey.getId()), "yeniden yükleme anketi işaretlememeli");
+    }
+
+    @Test
+    void fullBallotMarksSurveyAsVoted() {
+        Long voterId = createUser("voter");
+        Survey survey = createSurvey(createUser("owner"));
+        Question first = survey.getQuestions().get(0);
+        Question second = survey.getQuestions().get(1);
+        votedIndex.get(voterId);
+
+        surveyService.submitBallot(survey.getId(), Map.of(
+                first.getId(), first.getOptions().get(0).getId(),
+                second.getId(), second.getOptions().get(1).getId()), voterId);
+
+        assertTrue(votedIndex.hasVotedOnSurvey(voterId, survey.getId()));
+
+        votedIndex.evict(voterId);
+        assertTrue(votedIndex.hasVotedOnSurvey(voterId, survey.getId()));
+    }
+
+    private Long createUser(String name) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            User user = new User();
+            user.setFullName(name);
+            user.setEmail(name + System.nanoTime() + "@test.local");
+            user.setPassword("test");
+            return userRepository.save(user).getId();
+        });
+    }
+
+    private Survey createSurvey(Long ownerId) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Survey survey = new Survey();
+            survey.setTitle("Oy indeksi");
+            survey.setDescription("Oy indeksi testi");
+            survey.setCreatedBy(userRepository.getReferenceById(ownerId));
+            for (int q = 1; q <= 2; q++) {
+                Question question = new Question();
+                question.setText("Soru " + q);
+                question.setSurvey(survey);
+                for (int o = 1; o <= 2; o++) {
+                    Option option = new Option();
+                    option.setText("Seçenek " + o);
+                    option.setQuestion(question);
+                    question.getOptions().add(option);
+                }
+                survey.getQuestions().add(question);
+            }
+            return surveyRepository.save(survey);
+        });
+    }
+}